@@ -22,17 +22,20 @@
  */
 package com.synopsys.integration.blackduck.bdio2;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
 import com.blackducksoftware.bdio2.BdioMetadata;
 import com.blackducksoftware.bdio2.BdioObject;
+import com.blackducksoftware.bdio2.BdioWriter;
 import com.blackducksoftware.bdio2.model.Component;
 import com.blackducksoftware.bdio2.model.Project;
 import com.blackducksoftware.common.value.Product;
@@ -69,26 +72,51 @@ public class Bdio2Factory {
     }
 
     public List<Component> createAndLinkComponents(final DependencyGraph dependencyGraph, final Project project) {
-        return createAndLinkComponentsFromGraph(dependencyGraph, project::dependency, dependencyGraph.getRootDependencies(), new HashMap<>());
+        final List<Component> components = new ArrayList<>();
+        createAndLinkComponents(dependencyGraph, project, components::add);
+        return components;
     }
 
-    private List<Component> createAndLinkComponentsFromGraph(final DependencyGraph dependencyGraph, final DependencyFunction dependencyFunction, final Set<Dependency> dependencies, final Map<ExternalId, Component> existingComponents) {
-        final List<Component> addedComponents = new ArrayList<>();
+    /**
+     * Writes a complete document without ever holding all of the components: each one is handed to the BdioWriter as soon as it is linked to its
+     * children, and the project is written last.
+     */
+    public void writeBdio2Document(final BdioWriter bdioWriter, final Project project, final DependencyGraph dependencyGraph) throws IOException {
+        bdioWriter.start();
+        createAndLinkComponents(dependencyGraph, project, bdioWriter::next);
 
-        for (final Dependency dependency : dependencies) {
+        // We put the project node at the end of the document to be more inline with the way Black Duck produces BDIO 2.
+        bdioWriter.next(project);
+        bdioWriter.close();
+    }
+
+    /**
+     * Walks the graph with an explicit work stack, so the depth of the graph is not limited by the thread's stack. Every unique dependency is
+     * emitted exactly once, already linked to all of its children - the memory used is proportional to the set of external ids seen, not to the
+     * number of components.
+     */
+    public <E extends Exception> void createAndLinkComponents(final DependencyGraph dependencyGraph, final Project project, final ComponentConsumer<E> componentConsumer) throws E {
+        final Set<ExternalId> visitedExternalIds = new HashSet<>();
+        final Deque<Dependency> dependenciesToEmit = new ArrayDeque<>();
+
+        linkChildren(project::dependency, dependencyGraph.getRootDependencies(), visitedExternalIds, dependenciesToEmit);
+        while (!dependenciesToEmit.isEmpty()) {
+            final Dependency dependency = dependenciesToEmit.pop();
             final Component component = componentFromDependency(dependency);
-            dependencyFunction.dependency(new com.blackducksoftware.bdio2.model.Dependency().dependsOn(component));
+            linkChildren(component::dependency, dependencyGraph.getChildrenForParent(dependency), visitedExternalIds, dependenciesToEmit);
+
+            componentConsumer.accept(component);
+        }
+    }
 
-            if (!existingComponents.containsKey(dependency.getExternalId())) {
-                addedComponents.add(component);
+    private void linkChildren(final DependencyFunction dependencyFunction, final Set<Dependency> children, final Set<ExternalId> visitedExternalIds, final Deque<Dependency> dependenciesToEmit) {
+        for (final Dependency child : children) {
+            dependencyFunction.dependency(new com.blackducksoftware.bdio2.model.Dependency().dependsOn(componentFromDependency(child)));
 
-                existingComponents.put(dependency.getExternalId(), component);
-                final List<Component> children = createAndLinkComponentsFromGraph(dependencyGraph, component::dependency, dependencyGraph.getChildrenForParent(dependency), existingComponents);
-                addedComponents.addAll(children);
+            if (visitedExternalIds.add(child.getExternalId())) {
+                dependenciesToEmit.push(child);
             }
         }
-
-        return addedComponents;
     }
 
     private Component componentFromDependency(final Dependency dependency) {
@@ -99,6 +127,11 @@ public class Bdio2Factory {
                    .namespace(dependency.getExternalId().getForge().getName());
     }
 
+    @FunctionalInterface
+    public interface ComponentConsumer<E extends Exception> {
+        void accept(Component component) throws E;
+    }
+
     @FunctionalInterface
     private interface DependencyFunction {
         BdioObject dependency(@Nullable com.blackducksoftware.bdio2.model.Dependency dependency);
@@ -27,6 +27,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
@@ -40,6 +44,9 @@ import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.util.NameVersion;
 
 public class CodeLocationCreationService extends DataService {
+    /**
+     * The interval the default waits back off to - checks start after a couple of seconds and grow to (roughly, with jitter) this many seconds.
+     */
     public static final int DEFAULT_WAIT_INTERVAL_IN_SECONDS = 60;
 
     private final CodeLocationWaiter codeLocationWaiter;
@@ -59,29 +66,81 @@ public class CodeLocationCreationService extends DataService {
     }
 
     public <T extends CodeLocationBatchOutput> T createCodeLocationsAndWait(CodeLocationCreationRequest<T> codeLocationCreationRequest, long timeoutInSeconds) throws IntegrationException, InterruptedException {
-        return createCodeLocationsAndWait(codeLocationCreationRequest, timeoutInSeconds, DEFAULT_WAIT_INTERVAL_IN_SECONDS);
+        return createCodeLocationsAndWait(codeLocationCreationRequest, timeoutInSeconds, CodeLocationWaitBackoff.createDefault());
     }
 
     public <T extends CodeLocationBatchOutput> T createCodeLocationsAndWait(CodeLocationCreationRequest<T> codeLocationCreationRequest, long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
+        return createCodeLocationsAndWait(codeLocationCreationRequest, timeoutInSeconds, CodeLocationWaitBackoff.createFixed(waitIntervalInSeconds));
+    }
+
+    public <T extends CodeLocationBatchOutput> T createCodeLocationsAndWait(CodeLocationCreationRequest<T> codeLocationCreationRequest, long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff)
+        throws IntegrationException, InterruptedException {
         CodeLocationCreationData<T> codeLocationCreationData = createCodeLocations(codeLocationCreationRequest);
 
         NotificationTaskRange notificationTaskRange = codeLocationCreationData.getNotificationTaskRange();
         T output = codeLocationCreationData.getOutput();
 
-        waitForCodeLocations(notificationTaskRange, output.getProjectAndVersion(), output.getSuccessfulCodeLocationNames(), output.getExpectedNotificationCount(), timeoutInSeconds, waitIntervalInSeconds);
+        waitForCodeLocations(notificationTaskRange, output.getProjectAndVersion(), output.getSuccessfulCodeLocationNames(), output.getExpectedNotificationCount(), timeoutInSeconds, codeLocationWaitBackoff);
 
         return output;
     }
 
+    /**
+     * The creation request blocks while the scan data is uploaded, so it is executed on the creation executor provided by the caller. The wait that
+     * follows is a series of short checks scheduled on the scheduler, so no thread is parked for the duration of the wait. Like
+     * createCodeLocationsAndWait, the future completes with the output once the wait is over, whether or not every code location was verified in time.
+     */
+    public <T extends CodeLocationBatchOutput<?>> CompletableFuture<T> createCodeLocationsAndWaitAsync(CodeLocationCreationRequest<T> codeLocationCreationRequest, long timeoutInSeconds, Executor creationExecutor,
+        ScheduledExecutorService scheduledExecutorService) {
+        return createCodeLocationsAndWaitAsync(codeLocationCreationRequest, timeoutInSeconds, CodeLocationWaitBackoff.createDefault(), creationExecutor, scheduledExecutorService);
+    }
+
+    public <T extends CodeLocationBatchOutput<?>> CompletableFuture<T> createCodeLocationsAndWaitAsync(CodeLocationCreationRequest<T> codeLocationCreationRequest, long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff,
+        Executor creationExecutor, ScheduledExecutorService scheduledExecutorService) {
+        return CompletableFuture
+                   .supplyAsync(() -> {
+                       try {
+                           return createCodeLocations(codeLocationCreationRequest);
+                       } catch (IntegrationException e) {
+                           throw new CompletionException(e);
+                       }
+                   }, creationExecutor)
+                   .thenCompose(codeLocationCreationData -> {
+                       T output = codeLocationCreationData.getOutput();
+                       return waitForCodeLocationsAsync(codeLocationCreationData.getNotificationTaskRange(), output.getProjectAndVersion(), output.getSuccessfulCodeLocationNames(), output.getExpectedNotificationCount(),
+                           timeoutInSeconds, codeLocationWaitBackoff, scheduledExecutorService)
+                                  .thenApply(codeLocationWaitResult -> output);
+                   });
+    }
+
     public CodeLocationWaitResult waitForCodeLocations(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
         int expectedNotificationCount, long timeoutInSeconds) throws IntegrationException, InterruptedException {
-        return waitForCodeLocations(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, DEFAULT_WAIT_INTERVAL_IN_SECONDS);
+        return waitForCodeLocations(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, CodeLocationWaitBackoff.createDefault());
     }
 
     public CodeLocationWaitResult waitForCodeLocations(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
         int expectedNotificationCount, long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
+        return waitForCodeLocations(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, CodeLocationWaitBackoff.createFixed(waitIntervalInSeconds));
+    }
+
+    public CodeLocationWaitResult waitForCodeLocations(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
+        int expectedNotificationCount, long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff) throws IntegrationException, InterruptedException {
         UserView currentUser = blackDuckApiClient.getResponse(ApiDiscovery.CURRENT_USER_LINK_RESPONSE);
-        return codeLocationWaiter.checkCodeLocationsAddedToBom(currentUser, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, waitIntervalInSeconds);
+        return codeLocationWaiter.checkCodeLocationsAddedToBom(currentUser, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, codeLocationWaitBackoff);
+    }
+
+    public CompletableFuture<CodeLocationWaitResult> waitForCodeLocationsAsync(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
+        int expectedNotificationCount, long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff, ScheduledExecutorService scheduledExecutorService) {
+        return CompletableFuture
+                   .supplyAsync(() -> {
+                       try {
+                           return blackDuckApiClient.getResponse(ApiDiscovery.CURRENT_USER_LINK_RESPONSE);
+                       } catch (IntegrationException e) {
+                           throw new CompletionException(e);
+                       }
+                   }, scheduledExecutorService)
+                   .thenComposeAsync(currentUser -> codeLocationWaiter.checkCodeLocationsAddedToBomAsync(currentUser, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds,
+                       codeLocationWaitBackoff, scheduledExecutorService), scheduledExecutorService);
     }
 
     public NotificationTaskRange calculateCodeLocationRange() throws IntegrationException {
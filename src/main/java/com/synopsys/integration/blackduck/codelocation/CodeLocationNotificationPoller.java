@@ -0,0 +1,231 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.enumeration.NotificationType;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * Queries the current user's VERSION_BOM_CODE_LOCATION_BOM_COMPUTED notifications once per tick, on behalf of every subscribed waiter, so the load on
+ * Black Duck stays the same no matter how many code location waits are active. A single instance should be shared across the process. Polling only
+ * happens while there is at least one subscription.
+ */
+public class CodeLocationNotificationPoller {
+    public static final long DEFAULT_POLL_INTERVAL_IN_MILLIS = 5 * 1000;
+
+    private static final List<String> NOTIFICATION_TYPES = Arrays.asList(NotificationType.VERSION_BOM_CODE_LOCATION_BOM_COMPUTED.name());
+
+    private final IntLogger logger;
+    private final BlackDuckApiClient blackDuckApiClient;
+    private final NotificationService notificationService;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final long pollIntervalInMillis;
+
+    private final Set<CodeLocationNotificationSubscription> subscriptions = new LinkedHashSet<>();
+    // every notification fetched since the coverage start date, by key - used both to replay to late subscribers and to never dispatch twice
+    private final Map<String, VersionBomCodeLocationBomComputedNotificationUserView> retainedNotifications = new HashMap<>();
+    private UserView userView;
+    private Date coverageStartDate;
+    private Date notificationCursor;
+    // bumped whenever the cursor moves back, so a fetch that was already in flight does not move it forward again
+    private long cursorGeneration;
+    private ScheduledFuture<?> scheduledPoll;
+
+    public CodeLocationNotificationPoller(IntLogger logger, BlackDuckApiClient blackDuckApiClient, NotificationService notificationService, ScheduledExecutorService scheduledExecutorService) {
+        this(logger, blackDuckApiClient, notificationService, scheduledExecutorService, DEFAULT_POLL_INTERVAL_IN_MILLIS);
+    }
+
+    public CodeLocationNotificationPoller(IntLogger logger, BlackDuckApiClient blackDuckApiClient, NotificationService notificationService, ScheduledExecutorService scheduledExecutorService, long pollIntervalInMillis) {
+        this.logger = logger;
+        this.blackDuckApiClient = blackDuckApiClient;
+        this.notificationService = notificationService;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.pollIntervalInMillis = pollIntervalInMillis;
+    }
+
+    /**
+     * Notifications already fetched that were created on or after the start date are delivered right away, the rest as they are found.
+     */
+    public synchronized CodeLocationNotificationSubscription subscribe(Date startDate, Consumer<VersionBomCodeLocationBomComputedNotificationUserView> listener) {
+        CodeLocationNotificationSubscription subscription = new CodeLocationNotificationSubscription(this, startDate, listener);
+        retainedNotifications
+            .values()
+            .stream()
+            .filter(subscription::wants)
+            .forEach(subscription::deliver);
+
+        if (null == coverageStartDate || startDate.before(coverageStartDate)) {
+            // the next poll goes back far enough for this subscription - anything already retained will not be dispatched again
+            coverageStartDate = startDate;
+            notificationCursor = startDate;
+            cursorGeneration++;
+        }
+
+        subscriptions.add(subscription);
+        if (null == scheduledPoll) {
+            scheduledPoll = scheduledExecutorService.scheduleWithFixedDelay(this::pollSafely, 0, pollIntervalInMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return subscription;
+    }
+
+    public synchronized int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    synchronized void unsubscribe(CodeLocationNotificationSubscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+
+        if (subscriptions.isEmpty()) {
+            scheduledPoll.cancel(false);
+            scheduledPoll = null;
+            retainedNotifications.clear();
+            coverageStartDate = null;
+            notificationCursor = null;
+            cursorGeneration++;
+        } else {
+            pruneRetainedNotifications();
+        }
+    }
+
+    /**
+     * Performs a single tick: fetches the notifications newer than the cursor and dispatches the ones not seen before. The lock is not held during the
+     * fetch, so subscribing and unsubscribing never wait on Black Duck.
+     */
+    public void poll() throws IntegrationException {
+        Date fetchCursor;
+        long fetchCursorGeneration;
+        UserView fetchUserView;
+        synchronized (this) {
+            if (subscriptions.isEmpty()) {
+                return;
+            }
+            fetchCursor = notificationCursor;
+            fetchCursorGeneration = cursorGeneration;
+            fetchUserView = userView;
+        }
+
+        if (null == fetchUserView) {
+            fetchUserView = blackDuckApiClient.getResponse(ApiDiscovery.CURRENT_USER_LINK_RESPONSE);
+        }
+
+        // the end date is only an upper bound for the query, so it is pushed well into the future
+        Date endDate = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(3));
+        List<NotificationUserView> notifications = notificationService.getFilteredUserNotifications(fetchUserView, fetchCursor, endDate, NOTIFICATION_TYPES);
+
+        synchronized (this) {
+            userView = fetchUserView;
+            if (subscriptions.isEmpty()) {
+                return;
+            }
+            logger.debug(String.format("There were %d notifications found for %d code location waits.", notifications.size(), subscriptions.size()));
+
+            // if the cursor was moved back for a new subscription while fetching, it stays there so the next tick covers the earlier notifications
+            boolean advanceCursor = fetchCursorGeneration == cursorGeneration;
+            List<CodeLocationNotificationSubscription> currentSubscriptions = new ArrayList<>(subscriptions);
+            for (NotificationUserView notificationUserView : notifications) {
+                VersionBomCodeLocationBomComputedNotificationUserView notification = (VersionBomCodeLocationBomComputedNotificationUserView) notificationUserView;
+                String key = createNotificationKey(notification);
+                if (retainedNotifications.containsKey(key)) {
+                    continue;
+                }
+                retainedNotifications.put(key, notification);
+
+                Date createdAt = notification.getCreatedAt();
+                if (advanceCursor && null != createdAt && createdAt.after(notificationCursor)) {
+                    notificationCursor = createdAt;
+                }
+
+                for (CodeLocationNotificationSubscription subscription : currentSubscriptions) {
+                    if (subscription.wants(notification)) {
+                        subscription.deliver(notification);
+                    }
+                }
+            }
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            // a failed tick must not cancel the scheduled polling - the next tick will try again from the same cursor
+            logger.warn(String.format("Could not retrieve the code location notifications: %s", e.getMessage()));
+        }
+    }
+
+    private void pruneRetainedNotifications() {
+        coverageStartDate = subscriptions
+                                .stream()
+                                .map(CodeLocationNotificationSubscription::getStartDate)
+                                .min(Date::compareTo)
+                                .orElse(null);
+
+        Iterator<VersionBomCodeLocationBomComputedNotificationUserView> retainedIterator = retainedNotifications.values().iterator();
+        while (retainedIterator.hasNext()) {
+            Date createdAt = retainedIterator.next().getCreatedAt();
+            if (null != createdAt && createdAt.before(coverageStartDate)) {
+                retainedIterator.remove();
+            }
+        }
+    }
+
+    private String createNotificationKey(VersionBomCodeLocationBomComputedNotificationUserView notification) {
+        Optional<String> href = Optional.ofNullable(notification.getMeta())
+                                    .map(ResourceMetadata::getHref)
+                                    .map(HttpUrl::string);
+        if (href.isPresent()) {
+            return href.get();
+        }
+
+        Date createdAt = notification.getCreatedAt();
+        return String.format("%s@%s", notification.getContent().getCodeLocation(), null != createdAt ? createdAt.getTime() : "");
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
+
+/**
+ * A waiter's registration with a CodeLocationNotificationPoller. Every notification created on or after the start date is delivered to the listener
+ * exactly once. Closing the subscription unregisters it.
+ */
+public class CodeLocationNotificationSubscription implements AutoCloseable {
+    private final CodeLocationNotificationPoller codeLocationNotificationPoller;
+    private final Date startDate;
+    private final Consumer<VersionBomCodeLocationBomComputedNotificationUserView> listener;
+
+    CodeLocationNotificationSubscription(CodeLocationNotificationPoller codeLocationNotificationPoller, Date startDate, Consumer<VersionBomCodeLocationBomComputedNotificationUserView> listener) {
+        this.codeLocationNotificationPoller = codeLocationNotificationPoller;
+        this.startDate = startDate;
+        this.listener = listener;
+    }
+
+    public boolean wants(VersionBomCodeLocationBomComputedNotificationUserView notification) {
+        Date createdAt = notification.getCreatedAt();
+        return null == createdAt || !createdAt.before(startDate);
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    @Override
+    public void close() {
+        codeLocationNotificationPoller.unsubscribe(this);
+    }
+
+    void deliver(VersionBomCodeLocationBomComputedNotificationUserView notification) {
+        listener.accept(notification);
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Computes the delay between code location checks: the first checks happen quickly, later ones back off exponentially up to a cap, and every delay is
+ * randomly spread by the jitter ratio so that many waiters started together do not poll Black Duck in lockstep.
+ */
+public class CodeLocationWaitBackoff {
+    public static final long DEFAULT_INITIAL_INTERVAL_IN_MILLIS = 2 * 1000;
+    public static final long DEFAULT_MAX_INTERVAL_IN_MILLIS = CodeLocationCreationService.DEFAULT_WAIT_INTERVAL_IN_SECONDS * 1000L;
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+    public static final double DEFAULT_JITTER_RATIO = 0.2;
+
+    private final long initialIntervalInMillis;
+    private final long maxIntervalInMillis;
+    private final double multiplier;
+    private final double jitterRatio;
+    private final DoubleSupplier randomSupplier;
+
+    public static CodeLocationWaitBackoff createDefault() {
+        return new CodeLocationWaitBackoff(DEFAULT_INITIAL_INTERVAL_IN_MILLIS, DEFAULT_MAX_INTERVAL_IN_MILLIS, DEFAULT_MULTIPLIER, DEFAULT_JITTER_RATIO);
+    }
+
+    /**
+     * A fixed interval with no jitter - this matches the behavior of a plain wait interval in seconds.
+     */
+    public static CodeLocationWaitBackoff createFixed(int waitIntervalInSeconds) {
+        long intervalInMillis = waitIntervalInSeconds * 1000L;
+        return new CodeLocationWaitBackoff(intervalInMillis, intervalInMillis, 1.0, 0.0);
+    }
+
+    public CodeLocationWaitBackoff(long initialIntervalInMillis, long maxIntervalInMillis, double multiplier, double jitterRatio) {
+        this(initialIntervalInMillis, maxIntervalInMillis, multiplier, jitterRatio, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    CodeLocationWaitBackoff(long initialIntervalInMillis, long maxIntervalInMillis, double multiplier, double jitterRatio, DoubleSupplier randomSupplier) {
+        if (initialIntervalInMillis < 0 || maxIntervalInMillis < initialIntervalInMillis) {
+            throw new IllegalArgumentException(String.format("The intervals must satisfy 0 <= initial (%d) <= max (%d).", initialIntervalInMillis, maxIntervalInMillis));
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException(String.format("The multiplier (%f) must be at least 1.", multiplier));
+        }
+        if (jitterRatio < 0.0 || jitterRatio > 1.0) {
+            throw new IllegalArgumentException(String.format("The jitter ratio (%f) must be between 0 and 1.", jitterRatio));
+        }
+        this.initialIntervalInMillis = initialIntervalInMillis;
+        this.maxIntervalInMillis = maxIntervalInMillis;
+        this.multiplier = multiplier;
+        this.jitterRatio = jitterRatio;
+        this.randomSupplier = randomSupplier;
+    }
+
+    /**
+     * @param attempt the zero-based number of checks already waited on
+     * @return the delay before the next check - the jitter is applied after the cap so that waiters that reached the max interval still spread out
+     */
+    public long calculateIntervalInMillis(int attempt) {
+        double baseInterval = initialIntervalInMillis * Math.pow(multiplier, Math.max(0, attempt));
+        double cappedInterval = Math.min(baseInterval, maxIntervalInMillis);
+
+        // spread the interval uniformly across [interval * (1 - jitter), interval * (1 + jitter)]
+        double jitterFactor = 1.0 + jitterRatio * (2.0 * randomSupplier.getAsDouble() - 1.0);
+        long interval = Math.round(cappedInterval * jitterFactor);
+
+        return Math.max(0, interval);
+    }
+
+    public long getInitialIntervalInMillis() {
+        return initialIntervalInMillis;
+    }
+
+    public long getMaxIntervalInMillis() {
+        return maxIntervalInMillis;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public double getJitterRatio() {
+        return jitterRatio;
+    }
+
+}
@@ -22,9 +22,15 @@
  */
 package com.synopsys.integration.blackduck.codelocation;
 
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.CodeLocationWaitJobTask;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
@@ -33,40 +39,113 @@ import com.synopsys.integration.blackduck.service.model.NotificationTaskRange;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.util.NameVersion;
-import com.synopsys.integration.wait.WaitJob;
 
 public class CodeLocationWaiter {
+    private static final long MINIMUM_INTERVAL_IN_MILLIS = 100;
+
     private final IntLogger logger;
     private final BlackDuckApiClient blackDuckApiClient;
     private final ProjectService projectService;
     private final NotificationService notificationService;
+    private final CodeLocationNotificationPoller codeLocationNotificationPoller;
 
     public CodeLocationWaiter(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ProjectService projectService, NotificationService notificationService) {
+        this(logger, blackDuckApiClient, projectService, notificationService, null);
+    }
+
+    /**
+     * When a CodeLocationNotificationPoller is provided, waits subscribe to it rather than each requesting the notifications of the provided user.
+     */
+    public CodeLocationWaiter(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ProjectService projectService, NotificationService notificationService, CodeLocationNotificationPoller codeLocationNotificationPoller) {
         this.logger = logger;
         this.blackDuckApiClient = blackDuckApiClient;
         this.projectService = projectService;
         this.notificationService = notificationService;
+        this.codeLocationNotificationPoller = codeLocationNotificationPoller;
     }
 
     public CodeLocationWaitResult checkCodeLocationsAddedToBom(UserView userView, NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount,
         long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
-        CodeLocationWaitJobTask codeLocationWaitJobTask = new CodeLocationWaitJobTask(logger, blackDuckApiClient, projectService, notificationService, userView, notificationTaskRange, projectAndVersion, codeLocationNames,
-            expectedNotificationCount);
+        return checkCodeLocationsAddedToBom(userView, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds, CodeLocationWaitBackoff.createFixed(waitIntervalInSeconds));
+    }
+
+    public CodeLocationWaitResult checkCodeLocationsAddedToBom(UserView userView, NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount,
+        long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff) throws IntegrationException, InterruptedException {
+        Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications = new ConcurrentLinkedQueue<>();
+        try (CodeLocationNotificationSubscription subscription = subscribe(notificationTaskRange, deliveredNotifications)) {
+            CodeLocationWaitJobTask codeLocationWaitJobTask = createCodeLocationWaitJobTask(userView, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, deliveredNotifications);
+
+            // if a timeout of 0 is provided and the timeout check is done too quickly, w/o a do/while, no check will be performed
+            // regardless of the timeout provided, we always want to check at least once
+            boolean allCompleted = codeLocationWaitJobTask.isComplete();
+
+            long timeoutTime = calculateTimeoutTime(notificationTaskRange, timeoutInSeconds);
+            int attempt = 0;
+            while (!allCompleted) {
+                long remainingMillis = timeoutTime - System.currentTimeMillis();
+                if (remainingMillis <= 0) {
+                    break;
+                }
+
+                long intervalInMillis = calculateIntervalInMillis(codeLocationWaitBackoff, attempt, remainingMillis);
+                attempt++;
 
-        // if a timeout of 0 is provided and the timeout check is done too quickly, w/o a do/while, no check will be performed
-        // regardless of the timeout provided, we always want to check at least once
-        boolean allCompleted = codeLocationWaitJobTask.isComplete();
+                logger.debug(String.format("Checking the code locations again in %dms (check #%d).", intervalInMillis, attempt + 1));
+                Thread.sleep(intervalInMillis);
+                allCompleted = codeLocationWaitJobTask.isComplete();
+            }
 
-        // waitInterval needs to be less than the timeout
-        if (waitIntervalInSeconds > timeoutInSeconds) {
-            waitIntervalInSeconds = (int) timeoutInSeconds;
+            return createResult(codeLocationWaitJobTask, allCompleted, timeoutInSeconds);
         }
+    }
 
-        if (!allCompleted) {
-            WaitJob waitJob = WaitJob.create(logger, timeoutInSeconds, notificationTaskRange.getTaskStartTime(), waitIntervalInSeconds, codeLocationWaitJobTask);
-            allCompleted = waitJob.waitFor();
+    /**
+     * The same checks as checkCodeLocationsAddedToBom, but no thread waits between them: every check is a task scheduled on the provided scheduler,
+     * so many waits can share a few threads. The future completes with the result, or exceptionally if a check fails. Cancelling the future stops
+     * any further checks.
+     */
+    public CompletableFuture<CodeLocationWaitResult> checkCodeLocationsAddedToBomAsync(UserView userView, NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames,
+        int expectedNotificationCount, long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff, ScheduledExecutorService scheduledExecutorService) {
+        Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications = new ConcurrentLinkedQueue<>();
+        CodeLocationNotificationSubscription subscription = subscribe(notificationTaskRange, deliveredNotifications);
+        CodeLocationWaitJobTask codeLocationWaitJobTask = createCodeLocationWaitJobTask(userView, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, deliveredNotifications);
+
+        ScheduledCodeLocationWait scheduledCodeLocationWait = new ScheduledCodeLocationWait(codeLocationWaitJobTask, calculateTimeoutTime(notificationTaskRange, timeoutInSeconds), timeoutInSeconds, codeLocationWaitBackoff,
+            scheduledExecutorService);
+        if (null != subscription) {
+            scheduledCodeLocationWait.result.whenComplete((result, throwable) -> subscription.close());
+        }
+        scheduledExecutorService.execute(scheduledCodeLocationWait);
+
+        return scheduledCodeLocationWait.result;
+    }
+
+    private CodeLocationNotificationSubscription subscribe(NotificationTaskRange notificationTaskRange, Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications) {
+        if (null == codeLocationNotificationPoller) {
+            return null;
         }
+        return codeLocationNotificationPoller.subscribe(notificationTaskRange.getStartDate(), deliveredNotifications::add);
+    }
 
+    private CodeLocationWaitJobTask createCodeLocationWaitJobTask(UserView userView, NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount,
+        Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications) {
+        if (null != codeLocationNotificationPoller) {
+            return new CodeLocationWaitJobTask(logger, blackDuckApiClient, projectService, projectAndVersion, codeLocationNames, expectedNotificationCount, deliveredNotifications);
+        }
+        return new CodeLocationWaitJobTask(logger, blackDuckApiClient, projectService, notificationService, userView, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount);
+    }
+
+    private long calculateTimeoutTime(NotificationTaskRange notificationTaskRange, long timeoutInSeconds) {
+        return notificationTaskRange.getTaskStartTime() + timeoutInSeconds * 1000;
+    }
+
+    private long calculateIntervalInMillis(CodeLocationWaitBackoff codeLocationWaitBackoff, int attempt, long remainingMillis) {
+        // the wait can never go past the timeout, so the last check happens right at the timeout
+        long intervalInMillis = Math.max(MINIMUM_INTERVAL_IN_MILLIS, codeLocationWaitBackoff.calculateIntervalInMillis(attempt));
+        return Math.min(intervalInMillis, remainingMillis);
+    }
+
+    private CodeLocationWaitResult createResult(CodeLocationWaitJobTask codeLocationWaitJobTask, boolean allCompleted, long timeoutInSeconds) {
         if (!allCompleted) {
             return CodeLocationWaitResult
                        .PARTIAL(codeLocationWaitJobTask.getFoundCodeLocationNames(), String.format("It was not possible to verify the code locations were added to the BOM within the timeout (%ds) provided.", timeoutInSeconds));
@@ -76,4 +155,46 @@ public class CodeLocationWaiter {
         }
     }
 
+    private class ScheduledCodeLocationWait implements Runnable {
+        private final CompletableFuture<CodeLocationWaitResult> result = new CompletableFuture<>();
+        private final CodeLocationWaitJobTask codeLocationWaitJobTask;
+        private final long timeoutTime;
+        private final long timeoutInSeconds;
+        private final CodeLocationWaitBackoff codeLocationWaitBackoff;
+        private final ScheduledExecutorService scheduledExecutorService;
+        private int attempt = 0;
+
+        public ScheduledCodeLocationWait(CodeLocationWaitJobTask codeLocationWaitJobTask, long timeoutTime, long timeoutInSeconds, CodeLocationWaitBackoff codeLocationWaitBackoff, ScheduledExecutorService scheduledExecutorService) {
+            this.codeLocationWaitJobTask = codeLocationWaitJobTask;
+            this.timeoutTime = timeoutTime;
+            this.timeoutInSeconds = timeoutInSeconds;
+            this.codeLocationWaitBackoff = codeLocationWaitBackoff;
+            this.scheduledExecutorService = scheduledExecutorService;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+
+            try {
+                boolean allCompleted = codeLocationWaitJobTask.isComplete();
+                long remainingMillis = timeoutTime - System.currentTimeMillis();
+                if (allCompleted || remainingMillis <= 0) {
+                    result.complete(createResult(codeLocationWaitJobTask, allCompleted, timeoutInSeconds));
+                    return;
+                }
+
+                long intervalInMillis = calculateIntervalInMillis(codeLocationWaitBackoff, attempt, remainingMillis);
+                attempt++;
+
+                logger.debug(String.format("Checking the code locations again in %dms (check #%d).", intervalInMillis, attempt + 1));
+                scheduledExecutorService.schedule(this, intervalInMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
 }
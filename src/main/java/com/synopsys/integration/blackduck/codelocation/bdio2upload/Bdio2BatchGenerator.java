@@ -0,0 +1,101 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.bdio2upload;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import com.blackducksoftware.bdio2.BdioWriter;
+import com.synopsys.integration.blackduck.bdio2.Bdio2Factory;
+import com.synopsys.integration.blackduck.bdio2.Bdio2Writer;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadTarget;
+import com.synopsys.integration.util.IntegrationEscapeUtil;
+
+/**
+ * Generates the BDIO2 documents of many code locations in parallel on a fork-join pool. Each document is available as an UploadTarget as soon as it
+ * is written, so uploads can start while the remaining documents are still being generated (see UploadBdio2BatchRunner).
+ * <p>
+ * The overlap is between documents: a single document is written in full before its own upload starts. It is not piped into the upload while
+ * it is serialized because the upload body has to be repeatable - the http client sends a request again after re-authenticating.
+ */
+public class Bdio2BatchGenerator {
+    public static final String BDIO2_MEDIA_TYPE = "application/vnd.blackducksoftware.bdio+zip";
+    public static final String BDIO2_FILE_EXTENSION = ".bdio";
+
+    private final Bdio2Factory bdio2Factory;
+    private final Bdio2Writer bdio2Writer;
+    private final ForkJoinPool forkJoinPool;
+    private final IntegrationEscapeUtil integrationEscapeUtil = new IntegrationEscapeUtil();
+
+    public Bdio2BatchGenerator(Bdio2Factory bdio2Factory, Bdio2Writer bdio2Writer) {
+        this(bdio2Factory, bdio2Writer, ForkJoinPool.commonPool());
+    }
+
+    public Bdio2BatchGenerator(Bdio2Factory bdio2Factory, Bdio2Writer bdio2Writer, ForkJoinPool forkJoinPool) {
+        this.bdio2Factory = bdio2Factory;
+        this.bdio2Writer = bdio2Writer;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * @return one future per generation target, in the same order, each completing with the UploadTarget of the written document
+     */
+    public List<CompletableFuture<UploadTarget>> generateDocuments(List<Bdio2GenerationTarget> bdio2GenerationTargets, File outputDirectory) {
+        return bdio2GenerationTargets
+                   .stream()
+                   .map(bdio2GenerationTarget -> generateDocument(bdio2GenerationTarget, outputDirectory))
+                   .collect(Collectors.toList());
+    }
+
+    public CompletableFuture<UploadTarget> generateDocument(Bdio2GenerationTarget bdio2GenerationTarget, File outputDirectory) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeDocument(bdio2GenerationTarget, outputDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Could not write the BDIO2 document for %s: %s", bdio2GenerationTarget.getCodeLocationName(), e.getMessage()), e);
+            }
+        }, forkJoinPool);
+    }
+
+    public UploadTarget writeDocument(Bdio2GenerationTarget bdio2GenerationTarget, File outputDirectory) throws IOException {
+        // code location names can escape to the same file name, so each document gets a unique file
+        String filePrefix = integrationEscapeUtil.replaceWithUnderscore(bdio2GenerationTarget.getCodeLocationName()) + "_bdio_";
+        File bdio2File = File.createTempFile(filePrefix, BDIO2_FILE_EXTENSION, outputDirectory);
+
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(bdio2File))) {
+            BdioWriter bdioWriter = bdio2Writer.createBdioWriter(outputStream, bdio2GenerationTarget.getBdioMetadata());
+            bdio2Factory.writeBdio2Document(bdioWriter, bdio2GenerationTarget.getProject(), bdio2GenerationTarget.getDependencyGraph());
+        }
+
+        return UploadTarget.createWithMediaType(bdio2GenerationTarget.getProjectAndVersion(), bdio2GenerationTarget.getCodeLocationName(), bdio2File, BDIO2_MEDIA_TYPE);
+    }
+
+}
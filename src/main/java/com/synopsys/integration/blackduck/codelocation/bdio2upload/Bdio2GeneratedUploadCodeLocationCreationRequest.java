@@ -0,0 +1,53 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.bdio2upload;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationRequest;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatchOutput;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadTarget;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+
+public class Bdio2GeneratedUploadCodeLocationCreationRequest extends CodeLocationCreationRequest<UploadBatchOutput> {
+    private final Bdio2BatchGenerator bdio2BatchGenerator;
+    private final UploadBdio2BatchRunner uploadBdio2BatchRunner;
+    private final List<Bdio2GenerationTarget> bdio2GenerationTargets;
+    private final File outputDirectory;
+
+    public Bdio2GeneratedUploadCodeLocationCreationRequest(Bdio2BatchGenerator bdio2BatchGenerator, UploadBdio2BatchRunner uploadBdio2BatchRunner, List<Bdio2GenerationTarget> bdio2GenerationTargets, File outputDirectory) {
+        this.bdio2BatchGenerator = bdio2BatchGenerator;
+        this.uploadBdio2BatchRunner = uploadBdio2BatchRunner;
+        this.bdio2GenerationTargets = bdio2GenerationTargets;
+        this.outputDirectory = outputDirectory;
+    }
+
+    @Override
+    public UploadBatchOutput executeRequest() throws BlackDuckIntegrationException {
+        List<CompletableFuture<UploadTarget>> pendingUploadTargets = bdio2BatchGenerator.generateDocuments(bdio2GenerationTargets, outputDirectory);
+        return uploadBdio2BatchRunner.executeUploads(bdio2GenerationTargets, pendingUploadTargets);
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.bdio2upload;
+
+import com.blackducksoftware.bdio2.BdioMetadata;
+import com.blackducksoftware.bdio2.model.Project;
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.util.NameVersion;
+
+/**
+ * Everything needed to generate, and then upload, the BDIO2 document of one code location.
+ */
+public class Bdio2GenerationTarget {
+    private final NameVersion projectAndVersion;
+    private final String codeLocationName;
+    private final BdioMetadata bdioMetadata;
+    private final Project project;
+    private final DependencyGraph dependencyGraph;
+
+    public Bdio2GenerationTarget(NameVersion projectAndVersion, String codeLocationName, BdioMetadata bdioMetadata, Project project, DependencyGraph dependencyGraph) {
+        this.projectAndVersion = projectAndVersion;
+        this.codeLocationName = codeLocationName;
+        this.bdioMetadata = bdioMetadata;
+        this.project = project;
+        this.dependencyGraph = dependencyGraph;
+    }
+
+    public NameVersion getProjectAndVersion() {
+        return projectAndVersion;
+    }
+
+    public String getCodeLocationName() {
+        return codeLocationName;
+    }
+
+    public BdioMetadata getBdioMetadata() {
+        return bdioMetadata;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+}
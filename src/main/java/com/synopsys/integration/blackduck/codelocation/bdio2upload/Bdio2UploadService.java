@@ -22,8 +22,12 @@
  */
 package com.synopsys.integration.blackduck.codelocation.bdio2upload;
 
+import java.io.File;
+import java.util.List;
 import java.util.Set;
 
+import com.synopsys.integration.blackduck.bdio2.Bdio2Factory;
+import com.synopsys.integration.blackduck.bdio2.Bdio2Writer;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationData;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationRequest;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
@@ -40,17 +44,28 @@ import com.synopsys.integration.util.NameVersion;
 public class Bdio2UploadService extends DataService {
     private final UploadBdio2BatchRunner uploadBdio2BatchRunner;
     private final CodeLocationCreationService codeLocationCreationService;
+    private final Bdio2BatchGenerator bdio2BatchGenerator;
 
     public Bdio2UploadService(BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, IntLogger logger, UploadBdio2BatchRunner uploadBdio2BatchRunner, CodeLocationCreationService codeLocationCreationService) {
+        this(blackDuckApiClient, blackDuckRequestFactory, logger, uploadBdio2BatchRunner, codeLocationCreationService, new Bdio2BatchGenerator(new Bdio2Factory(), new Bdio2Writer()));
+    }
+
+    public Bdio2UploadService(BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, IntLogger logger, UploadBdio2BatchRunner uploadBdio2BatchRunner, CodeLocationCreationService codeLocationCreationService,
+        Bdio2BatchGenerator bdio2BatchGenerator) {
         super(blackDuckApiClient, blackDuckRequestFactory, logger);
         this.uploadBdio2BatchRunner = uploadBdio2BatchRunner;
         this.codeLocationCreationService = codeLocationCreationService;
+        this.bdio2BatchGenerator = bdio2BatchGenerator;
     }
 
     public Bdio2UploadCodeLocationCreationRequest createUploadRequest(UploadBatch uploadBatch) {
         return new Bdio2UploadCodeLocationCreationRequest(uploadBdio2BatchRunner, uploadBatch);
     }
 
+    public Bdio2GeneratedUploadCodeLocationCreationRequest createGeneratedUploadRequest(List<Bdio2GenerationTarget> bdio2GenerationTargets, File outputDirectory) {
+        return new Bdio2GeneratedUploadCodeLocationCreationRequest(bdio2BatchGenerator, uploadBdio2BatchRunner, bdio2GenerationTargets, outputDirectory);
+    }
+
     public CodeLocationCreationData<UploadBatchOutput> uploadBdio(CodeLocationCreationRequest<UploadBatchOutput> uploadRequest) throws IntegrationException {
         return codeLocationCreationService.createCodeLocations(uploadRequest);
     }
@@ -69,6 +84,16 @@ public class Bdio2UploadService extends DataService {
         return uploadBdioAndWait(uploadRequest, timeoutInSeconds);
     }
 
+    public CodeLocationCreationData<UploadBatchOutput> generateAndUploadBdio(List<Bdio2GenerationTarget> bdio2GenerationTargets, File outputDirectory) throws IntegrationException {
+        Bdio2GeneratedUploadCodeLocationCreationRequest uploadRequest = createGeneratedUploadRequest(bdio2GenerationTargets, outputDirectory);
+        return uploadBdio(uploadRequest);
+    }
+
+    public UploadBatchOutput generateAndUploadBdioAndWait(List<Bdio2GenerationTarget> bdio2GenerationTargets, File outputDirectory, long timeoutInSeconds) throws IntegrationException, InterruptedException {
+        Bdio2GeneratedUploadCodeLocationCreationRequest uploadRequest = createGeneratedUploadRequest(bdio2GenerationTargets, outputDirectory);
+        return uploadBdioAndWait(uploadRequest, timeoutInSeconds);
+    }
+
     public void waitForBdioUpload(NotificationTaskRange notificationTaskRange, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount, long timeoutInSeconds)
         throws IntegrationException, InterruptedException {
         codeLocationCreationService.waitForCodeLocations(notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, timeoutInSeconds);
@@ -24,6 +24,8 @@ package com.synopsys.integration.blackduck.codelocation.bdio2upload;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
@@ -31,6 +33,7 @@ import java.util.stream.Collectors;
 import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatch;
 import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatchOutput;
 import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadOutput;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadTarget;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
@@ -57,6 +60,57 @@ public class UploadBdio2BatchRunner {
         return uploadBatchOutput;
     }
 
+    /**
+     * Uploads targets that are still being generated - each upload starts as soon as its own target is available, rather than after the whole batch.
+     * The pending upload targets must be in the same order as the generation targets (as returned by Bdio2BatchGenerator.generateDocuments). A code
+     * location whose document could not be generated is reported as a failed upload, the rest of the batch is still uploaded.
+     */
+    public UploadBatchOutput executeUploads(List<Bdio2GenerationTarget> bdio2GenerationTargets, List<CompletableFuture<UploadTarget>> pendingUploadTargets) throws BlackDuckIntegrationException {
+        logger.info("Starting the codelocation file uploads as the files are generated.");
+        List<CompletableFuture<UploadOutput>> submitted = new ArrayList<>();
+        for (int i = 0; i < pendingUploadTargets.size(); i++) {
+            submitted.add(uploadWhenGenerated(bdio2GenerationTargets.get(i), pendingUploadTargets.get(i)));
+        }
+        UploadBatchOutput uploadBatchOutput = collectUploadOutputs(submitted);
+        logger.info("Completed the codelocation file uploads.");
+
+        return uploadBatchOutput;
+    }
+
+    private CompletableFuture<UploadOutput> uploadWhenGenerated(Bdio2GenerationTarget bdio2GenerationTarget, CompletableFuture<UploadTarget> pendingUploadTarget) {
+        return pendingUploadTarget.handleAsync((uploadTarget, throwable) -> {
+            if (null != throwable) {
+                return generationFailure(bdio2GenerationTarget, throwable);
+            }
+            return upload(uploadTarget);
+        }, executorService);
+    }
+
+    private UploadBatchOutput collectUploadOutputs(List<CompletableFuture<UploadOutput>> submitted) throws BlackDuckIntegrationException {
+        List<UploadOutput> uploadOutputs = new ArrayList<>();
+        try {
+            for (CompletableFuture<UploadOutput> future : submitted) {
+                uploadOutputs.add(future.get());
+            }
+        } catch (Exception e) {
+            throw new BlackDuckIntegrationException(String.format("Encountered a problem generating or uploading a file: %s", e.getMessage()), e);
+        }
+
+        return new UploadBatchOutput(uploadOutputs);
+    }
+
+    private UploadOutput upload(UploadTarget uploadTarget) {
+        return new UploadBdio2Callable(blackDuckApiClient, blackDuckRequestFactory, uploadTarget).call();
+    }
+
+    private UploadOutput generationFailure(Bdio2GenerationTarget bdio2GenerationTarget, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && null != throwable.getCause() ? throwable.getCause() : throwable;
+        Exception exception = cause instanceof Exception ? (Exception) cause : new Exception(cause);
+        String errorMessage = String.format("Failed to generate the BDIO2 document for %s because %s", bdio2GenerationTarget.getCodeLocationName(), cause.getMessage());
+        logger.error(errorMessage);
+        return UploadOutput.FAILURE(bdio2GenerationTarget.getProjectAndVersion(), bdio2GenerationTarget.getCodeLocationName(), errorMessage, exception);
+    }
+
     private UploadBatchOutput uploadTargets(UploadBatch uploadBatch) throws BlackDuckIntegrationException {
         List<UploadOutput> uploadOutputs = new ArrayList<>();
 
@@ -38,12 +38,21 @@ public class UploadBatchRunner {
     private final BlackDuckApiClient blackDuckApiClient;
     private final BlackDuckRequestFactory blackDuckRequestFactory;
     private final ExecutorService executorService;
+    private final boolean compressUploads;
 
     public UploadBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, ExecutorService executorService) {
+        this(logger, blackDuckApiClient, blackDuckRequestFactory, executorService, false);
+    }
+
+    /**
+     * When compressUploads is true, every BDIO file is gzipped before it is sent (see UploadCallable).
+     */
+    public UploadBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, ExecutorService executorService, boolean compressUploads) {
         this.logger = logger;
         this.blackDuckApiClient = blackDuckApiClient;
         this.blackDuckRequestFactory = blackDuckRequestFactory;
         this.executorService = executorService;
+        this.compressUploads = compressUploads;
     }
 
     public UploadBatchOutput executeUploads(UploadBatch uploadBatch) throws BlackDuckIntegrationException {
@@ -77,7 +86,7 @@ public class UploadBatchRunner {
     private List<UploadCallable> createCallables(UploadBatch uploadBatch) {
         List<UploadCallable> callables = uploadBatch.getUploadTargets()
                                              .stream()
-                                             .map(uploadTarget -> new UploadCallable(blackDuckApiClient, blackDuckRequestFactory, uploadTarget))
+                                             .map(uploadTarget -> new UploadCallable(blackDuckApiClient, blackDuckRequestFactory, uploadTarget, compressUploads))
                                              .collect(Collectors.toList());
 
         return callables;
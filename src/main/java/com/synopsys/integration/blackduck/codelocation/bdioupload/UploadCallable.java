@@ -22,13 +22,16 @@
  */
 package com.synopsys.integration.blackduck.codelocation.bdioupload;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Callable;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpHeaders;
 
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.http.body.GzipFileBodyContent;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.request.Request;
@@ -36,36 +39,50 @@ import com.synopsys.integration.rest.response.Response;
 import com.synopsys.integration.util.NameVersion;
 
 public class UploadCallable implements Callable<UploadOutput> {
+    public static final String GZIP_CONTENT_ENCODING = "gzip";
+
     private final BlackDuckApiClient blackDuckApiClient;
     private final BlackDuckRequestFactory blackDuckRequestFactory;
     private final UploadTarget uploadTarget;
     private final NameVersion projectAndVersion;
     private final String codeLocationName;
+    private final boolean compressUpload;
 
     public UploadCallable(BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, UploadTarget uploadTarget) {
+        this(blackDuckApiClient, blackDuckRequestFactory, uploadTarget, false);
+    }
+
+    /**
+     * The file is always streamed rather than read into memory. If compressUpload is true, it is gzipped while it is streamed and sent with a gzip
+     * Content-Encoding.
+     */
+    public UploadCallable(BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, UploadTarget uploadTarget, boolean compressUpload) {
         this.blackDuckApiClient = blackDuckApiClient;
         this.blackDuckRequestFactory = blackDuckRequestFactory;
         this.uploadTarget = uploadTarget;
         this.projectAndVersion = uploadTarget.getProjectAndVersion();
         this.codeLocationName = uploadTarget.getCodeLocationName();
+        this.compressUpload = compressUpload;
     }
 
     @Override
     public UploadOutput call() {
+        File uploadFile = uploadTarget.getUploadFile();
         try {
-            String jsonPayload;
-            try {
-                jsonPayload = FileUtils.readFileToString(uploadTarget.getUploadFile(), StandardCharsets.UTF_8);
-            } catch (IOException e) {
-                String errorMessage = String.format("Failed to initially read file: %s because %s", uploadTarget.getUploadFile().getAbsolutePath(), e.getMessage());
-                return UploadOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, e);
+            if (!uploadFile.isFile() || !uploadFile.canRead()) {
+                String errorMessage = String.format("Failed to initially read file: %s because it does not exist or can not be read", uploadFile.getAbsolutePath());
+                return UploadOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, new FileNotFoundException(errorMessage));
             }
 
             HttpUrl url = blackDuckApiClient.getUrl(BlackDuckApiClient.BOMIMPORT_PATH);
-            Request request = blackDuckRequestFactory
-                                  .createCommonPostRequestBuilder(url, jsonPayload)
-                                  .acceptMimeType(uploadTarget.getMediaType())
-                                  .build();
+            BlackDuckRequestBuilder requestBuilder = blackDuckRequestFactory
+                                                         .createCommonPostRequestBuilder(url, uploadFile)
+                                                         .acceptMimeType(uploadTarget.getMediaType());
+            if (compressUpload) {
+                requestBuilder.bodyContent(new GzipFileBodyContent(uploadFile));
+                requestBuilder.addHeader(HttpHeaders.CONTENT_ENCODING, GZIP_CONTENT_ENCODING);
+            }
+            Request request = requestBuilder.build();
             try (Response response = blackDuckApiClient.execute(request)) {
                 String responseString = response.getContentString();
                 return UploadOutput.SUCCESS(projectAndVersion, codeLocationName, responseString);
@@ -73,7 +90,7 @@ public class UploadCallable implements Callable<UploadOutput> {
                 return UploadOutput.FAILURE(projectAndVersion, codeLocationName, e.getMessage(), e);
             }
         } catch (Exception e) {
-            String errorMessage = String.format("Failed to upload file: %s because %s", uploadTarget.getUploadFile().getAbsolutePath(), e.getMessage());
+            String errorMessage = String.format("Failed to upload file: %s because %s", uploadFile.getAbsolutePath(), e.getMessage());
             return UploadOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, e);
         }
     }
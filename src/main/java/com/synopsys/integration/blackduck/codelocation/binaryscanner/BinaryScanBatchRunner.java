@@ -38,12 +38,24 @@ public class BinaryScanBatchRunner {
     private final BlackDuckApiClient blackDuckApiClient;
     private final BlackDuckRequestFactory blackDuckRequestFactory;
     private final ExecutorService executorService;
+    private final BinaryScanChunkSettings binaryScanChunkSettings;
+    private final BinaryScanProgressListener binaryScanProgressListener;
 
     public BinaryScanBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, ExecutorService executorService) {
+        this(logger, blackDuckApiClient, blackDuckRequestFactory, executorService, null, BinaryScanProgressListener.NO_OP);
+    }
+
+    /**
+     * Uploads every binary in chunks (see BinaryScanCallable), reporting the progress of each upload to the listener.
+     */
+    public BinaryScanBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, ExecutorService executorService, BinaryScanChunkSettings binaryScanChunkSettings,
+        BinaryScanProgressListener binaryScanProgressListener) {
         this.logger = logger;
         this.blackDuckApiClient = blackDuckApiClient;
         this.blackDuckRequestFactory = blackDuckRequestFactory;
         this.executorService = executorService;
+        this.binaryScanChunkSettings = binaryScanChunkSettings;
+        this.binaryScanProgressListener = binaryScanProgressListener;
     }
 
     public BinaryScanBatchOutput executeUploads(BinaryScanBatch binaryScanBatch) throws BlackDuckIntegrationException {
@@ -79,7 +91,7 @@ public class BinaryScanBatchRunner {
             uploadBatch
                 .getBinaryScans()
                 .stream()
-                .map(binaryScan -> new BinaryScanCallable(blackDuckApiClient, blackDuckRequestFactory, binaryScan))
+                .map(binaryScan -> new BinaryScanCallable(blackDuckApiClient, blackDuckRequestFactory, binaryScan, binaryScanChunkSettings, binaryScanProgressListener))
                 .collect(Collectors.toList());
 
         return callables;
@@ -28,32 +28,64 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+import com.google.gson.JsonObject;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.http.body.FileRegionBodyContent;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
 import com.synopsys.integration.util.NameVersion;
 
 public class BinaryScanCallable implements Callable<BinaryScanOutput> {
+    public static final String MULTIPART_UPLOAD_START_MEDIA_TYPE = "application/vnd.blackducksoftware.multipart-upload-start-1+json";
+    public static final String MULTIPART_UPLOAD_DATA_MEDIA_TYPE = "application/vnd.blackducksoftware.multipart-upload-data-1+octet-stream";
+    public static final String MULTIPART_UPLOAD_FINISH_MEDIA_TYPE = "application/vnd.blackducksoftware.multipart-upload-finish-1+json";
+    public static final String PARTS_PATH = "/parts";
+    public static final String COMPLETED_PATH = "/completed";
+
     private final BlackDuckApiClient blackDuckApiClient;
     private final BlackDuckRequestFactory blackDuckRequestFactory;
     private final BinaryScan binaryScan;
     private final NameVersion projectAndVersion;
     private final String codeLocationName;
+    private final BinaryScanChunkSettings binaryScanChunkSettings;
+    private final BinaryScanProgressListener binaryScanProgressListener;
 
     public BinaryScanCallable(BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, BinaryScan binaryScan) {
+        this(blackDuckApiClient, blackDuckRequestFactory, binaryScan, null, BinaryScanProgressListener.NO_OP);
+    }
+
+    /**
+     * If binaryScanChunkSettings is provided, the binary is uploaded in chunks rather than as one multipart POST, and a chunk that fails is sent again
+     * on its own. This is a retry within the call only - no upload state is kept, so an upload that fails as a whole starts over from the beginning.
+     */
+    public BinaryScanCallable(BlackDuckApiClient blackDuckApiClient, BlackDuckRequestFactory blackDuckRequestFactory, BinaryScan binaryScan, BinaryScanChunkSettings binaryScanChunkSettings,
+        BinaryScanProgressListener binaryScanProgressListener) {
         this.blackDuckApiClient = blackDuckApiClient;
         this.blackDuckRequestFactory = blackDuckRequestFactory;
         this.binaryScan = binaryScan;
         this.projectAndVersion = new NameVersion(binaryScan.getProjectName(), binaryScan.getProjectVersion());
         this.codeLocationName = binaryScan.getCodeLocationName();
+        this.binaryScanChunkSettings = binaryScanChunkSettings;
+        this.binaryScanProgressListener = binaryScanProgressListener;
     }
 
     @Override
     public BinaryScanOutput call() {
         try {
+            if (null != binaryScanChunkSettings) {
+                return uploadInChunks();
+            }
+
             Map<String, String> textParts = new HashMap<>();
             textParts.put("projectName", binaryScan.getProjectName());
             textParts.put("version", binaryScan.getProjectVersion());
@@ -71,7 +103,97 @@ public class BinaryScanCallable implements Callable<BinaryScanOutput> {
         } catch (IntegrationException | IOException e) {
             String errorMessage = String.format("Failed to upload binary file: %s because %s", binaryScan.getBinaryFile().getAbsolutePath(), e.getMessage());
             return BinaryScanOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String errorMessage = String.format("The upload of binary file: %s was interrupted", binaryScan.getBinaryFile().getAbsolutePath());
+            return BinaryScanOutput.FAILURE(projectAndVersion, codeLocationName, errorMessage, e);
+        }
+    }
+
+    private BinaryScanOutput uploadInChunks() throws IntegrationException, IOException, InterruptedException {
+        File binaryFile = binaryScan.getBinaryFile();
+        long totalBytes = binaryFile.length();
+        HttpUrl uploadUrl = startChunkedUpload(totalBytes);
+        HttpUrl partsUrl = new HttpUrl(uploadUrl.string() + PARTS_PATH);
+
+        long acknowledgedOffset = 0;
+        binaryScanProgressListener.uploadProgressed(binaryScan, acknowledgedOffset, totalBytes);
+        while (acknowledgedOffset < totalBytes) {
+            long chunkLength = Math.min(binaryScanChunkSettings.getChunkSizeInBytes(), totalBytes - acknowledgedOffset);
+            uploadChunk(partsUrl, binaryFile, acknowledgedOffset, chunkLength, totalBytes);
+
+            acknowledgedOffset += chunkLength;
+            binaryScanProgressListener.uploadProgressed(binaryScan, acknowledgedOffset, totalBytes);
+        }
+
+        return finishChunkedUpload(uploadUrl);
+    }
+
+    private HttpUrl startChunkedUpload(long totalBytes) throws IntegrationException, IOException {
+        JsonObject startRequest = new JsonObject();
+        startRequest.addProperty("fileName", binaryScan.getBinaryFile().getName());
+        startRequest.addProperty("fileSize", totalBytes);
+
+        HttpUrl uploadsUrl = blackDuckApiClient.getUrl(BlackDuckApiClient.UPLOADS_PATH);
+        Request request = blackDuckRequestFactory
+                              .createCommonPostRequestBuilder(uploadsUrl, startRequest.toString())
+                              .acceptMimeType(MULTIPART_UPLOAD_START_MEDIA_TYPE)
+                              .build();
+        try (Response response = blackDuckApiClient.execute(request)) {
+            String location = response.getHeaderValue(HttpHeaders.LOCATION);
+            if (StringUtils.isBlank(location)) {
+                throw new BlackDuckIntegrationException("The chunked upload could not be started - Black Duck did not provide an upload location.");
+            }
+            return new HttpUrl(location);
+        }
+    }
+
+    private void uploadChunk(HttpUrl partsUrl, File binaryFile, long offset, long chunkLength, long totalBytes) throws IntegrationException, IOException, InterruptedException {
+        String contentRange = String.format("bytes %d-%d/%d", offset, offset + chunkLength - 1, totalBytes);
+        int attempt = 0;
+        while (true) {
+            Request request = blackDuckRequestFactory
+                                  .createCommonPutRequestBuilder(partsUrl, binaryFile)
+                                  .bodyContent(new FileRegionBodyContent(binaryFile, offset, chunkLength))
+                                  .acceptMimeType(MULTIPART_UPLOAD_DATA_MEDIA_TYPE)
+                                  .addHeader(HttpHeaders.CONTENT_RANGE, contentRange)
+                                  .build();
+            try (Response response = blackDuckApiClient.execute(request)) {
+                return;
+            } catch (IntegrationException | IOException e) {
+                if (attempt >= binaryScanChunkSettings.getMaxChunkRetries() || !isRetryable(e)) {
+                    throw e;
+                }
+            }
+
+            // only this chunk is sent again, after an exponentially growing delay
+            Thread.sleep(binaryScanChunkSettings.getRetryDelayInMillis() * (1L << Math.min(attempt, 16)));
+            attempt++;
+        }
+    }
+
+    private BinaryScanOutput finishChunkedUpload(HttpUrl uploadUrl) throws IntegrationException, IOException {
+        JsonObject finishRequest = new JsonObject();
+        finishRequest.addProperty("projectName", binaryScan.getProjectName());
+        finishRequest.addProperty("version", binaryScan.getProjectVersion());
+        finishRequest.addProperty("codeLocationName", binaryScan.getCodeLocationName());
+
+        Request request = blackDuckRequestFactory
+                              .createCommonPostRequestBuilder(new HttpUrl(uploadUrl.string() + COMPLETED_PATH), finishRequest.toString())
+                              .acceptMimeType(MULTIPART_UPLOAD_FINISH_MEDIA_TYPE)
+                              .build();
+        try (Response response = blackDuckApiClient.execute(request)) {
+            return BinaryScanOutput.FROM_RESPONSE(projectAndVersion, codeLocationName, response);
+        }
+    }
+
+    private boolean isRetryable(Exception e) {
+        if (e instanceof IntegrationRestException) {
+            // client errors will not go away by sending the same chunk again, except for timeouts and throttling
+            int statusCode = ((IntegrationRestException) e).getHttpStatusCode();
+            return statusCode < 400 || statusCode >= 500 || statusCode == HttpStatus.SC_REQUEST_TIMEOUT || statusCode == 429;
         }
+        return true;
     }
 
 }
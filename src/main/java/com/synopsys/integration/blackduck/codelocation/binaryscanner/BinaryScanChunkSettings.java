@@ -0,0 +1,66 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.binaryscanner;
+
+/**
+ * Controls the chunked binary scan upload: the binary is sent in chunks of at most chunkSizeInBytes and a failed chunk is sent again, on its own,
+ * up to maxChunkRetries times with an exponentially growing delay. The retries only happen within one upload - it can not be resumed later.
+ */
+public class BinaryScanChunkSettings {
+    public static final long DEFAULT_CHUNK_SIZE_IN_BYTES = 8 * 1024 * 1024;
+    public static final int DEFAULT_MAX_CHUNK_RETRIES = 5;
+    public static final long DEFAULT_RETRY_DELAY_IN_MILLIS = 1000;
+
+    private final long chunkSizeInBytes;
+    private final int maxChunkRetries;
+    private final long retryDelayInMillis;
+
+    public static BinaryScanChunkSettings createDefault() {
+        return new BinaryScanChunkSettings(DEFAULT_CHUNK_SIZE_IN_BYTES, DEFAULT_MAX_CHUNK_RETRIES, DEFAULT_RETRY_DELAY_IN_MILLIS);
+    }
+
+    public BinaryScanChunkSettings(long chunkSizeInBytes, int maxChunkRetries, long retryDelayInMillis) {
+        if (chunkSizeInBytes <= 0) {
+            throw new IllegalArgumentException("The chunk size must be greater than zero.");
+        }
+        if (maxChunkRetries < 0 || retryDelayInMillis < 0) {
+            throw new IllegalArgumentException("The chunk retries and the retry delay can not be negative.");
+        }
+        this.chunkSizeInBytes = chunkSizeInBytes;
+        this.maxChunkRetries = maxChunkRetries;
+        this.retryDelayInMillis = retryDelayInMillis;
+    }
+
+    public long getChunkSizeInBytes() {
+        return chunkSizeInBytes;
+    }
+
+    public int getMaxChunkRetries() {
+        return maxChunkRetries;
+    }
+
+    public long getRetryDelayInMillis() {
+        return retryDelayInMillis;
+    }
+
+}
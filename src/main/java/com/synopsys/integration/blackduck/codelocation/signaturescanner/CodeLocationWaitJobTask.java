@@ -24,13 +24,16 @@ package com.synopsys.integration.blackduck.codelocation.signaturescanner;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
 import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
@@ -44,6 +47,7 @@ import com.synopsys.integration.blackduck.service.model.NotificationTaskRange;
 import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.util.NameVersion;
 import com.synopsys.integration.wait.WaitJobTask;
 
@@ -58,11 +62,33 @@ public class CodeLocationWaitJobTask implements WaitJobTask {
     private final NameVersion projectAndVersion;
     private final Set<String> codeLocationNames;
     private final int expectedNotificationCount;
+    // when present, notifications are delivered by a shared poller instead of being requested by this task
+    private final Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications;
 
     private final Set<String> foundCodeLocationNames = new HashSet<>();
 
+    // state carried across polls so that each poll only costs the new notifications
+    private ProjectVersionView projectVersionView;
+    private final Map<String, String> foundCodeLocations = new HashMap<>();
+    private Date notificationCursor;
+    private Set<String> notificationKeysAtCursor = new HashSet<>();
+    private int trackedNotificationCount = 0;
+
     public CodeLocationWaitJobTask(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ProjectService projectService, NotificationService notificationService, UserView userView, NotificationTaskRange notificationTaskRange,
         NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount) {
+        this(logger, blackDuckApiClient, projectService, notificationService, userView, notificationTaskRange, projectAndVersion, codeLocationNames, expectedNotificationCount, null);
+    }
+
+    /**
+     * The notifications are taken from the queue, typically filled by a CodeLocationNotificationSubscription, rather than requested from Black Duck.
+     */
+    public CodeLocationWaitJobTask(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ProjectService projectService, NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount,
+        Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications) {
+        this(logger, blackDuckApiClient, projectService, null, null, null, projectAndVersion, codeLocationNames, expectedNotificationCount, deliveredNotifications);
+    }
+
+    private CodeLocationWaitJobTask(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ProjectService projectService, NotificationService notificationService, UserView userView, NotificationTaskRange notificationTaskRange,
+        NameVersion projectAndVersion, Set<String> codeLocationNames, int expectedNotificationCount, Queue<VersionBomCodeLocationBomComputedNotificationUserView> deliveredNotifications) {
         this.logger = logger;
         this.blackDuckApiClient = blackDuckApiClient;
         this.projectService = projectService;
@@ -72,11 +98,12 @@ public class CodeLocationWaitJobTask implements WaitJobTask {
         this.projectAndVersion = projectAndVersion;
         this.codeLocationNames = codeLocationNames;
         this.expectedNotificationCount = expectedNotificationCount;
+        this.deliveredNotifications = deliveredNotifications;
     }
 
     @Override
     public boolean isComplete() throws IntegrationException {
-        int actualNotificationCount = retrieveCompletedCount(userView, notificationTaskRange);
+        int actualNotificationCount = retrieveCompletedCount();
 
         boolean complete = foundCodeLocationNames.containsAll(codeLocationNames) && actualNotificationCount >= expectedNotificationCount;
         if (!complete) {
@@ -90,45 +117,129 @@ public class CodeLocationWaitJobTask implements WaitJobTask {
         return foundCodeLocationNames;
     }
 
-    private int retrieveCompletedCount(UserView userView, NotificationTaskRange notificationTaskRange) throws IntegrationException {
-        Optional<ProjectVersionWrapper> projectVersionWrapper = projectService.getProjectVersion(projectAndVersion);
-        if (!projectVersionWrapper.isPresent()) {
+    private int retrieveCompletedCount() throws IntegrationException {
+        if (!findProjectVersionView().isPresent()) {
             return 0;
         }
-        ProjectVersionView projectVersionView = projectVersionWrapper.get().getProjectVersionView();
-
-        Map<String, String> foundCodeLocations = retrieveCodeLocations(projectVersionView);
-
-        int actualNotificationCount = 0;
-        if (foundCodeLocations.size() > 0) {
-            logger.debug("At least one code location has been found, now looking for notifications.");
-            List<VersionBomCodeLocationBomComputedNotificationUserView> notifications = getFilteredNotificationUserViews(userView, notificationTaskRange);
-            logger.debug(String.format("There were %d notifications found.", notifications.size()));
-
-            for (VersionBomCodeLocationBomComputedNotificationUserView notification : notifications) {
-                String codeLocationUrl = notification.getContent().getCodeLocation();
-                if (foundCodeLocations.containsKey(codeLocationUrl)) {
-                    String codeLocationName = foundCodeLocations.get(codeLocationUrl);
-                    foundCodeLocationNames.add(codeLocationName);
-                    actualNotificationCount++;
-                    logger.info(String.format("Found %s code location (%d of %d).", codeLocationName, actualNotificationCount, expectedNotificationCount));
+
+        if (!allCodeLocationsFound()) {
+            refreshCodeLocations();
+        }
+
+        if (foundCodeLocations.isEmpty()) {
+            return trackedNotificationCount;
+        }
+
+        if (null != deliveredNotifications) {
+            return countDeliveredNotifications();
+        }
+
+        logger.debug("At least one code location has been found, now looking for notifications.");
+        Date startDate = null != notificationCursor ? notificationCursor : notificationTaskRange.getStartDate();
+        List<VersionBomCodeLocationBomComputedNotificationUserView> notifications = getFilteredNotificationUserViews(startDate);
+        logger.debug(String.format("There were %d notifications found.", notifications.size()));
+
+        // the start date is inclusive, so notifications created exactly at the cursor can be returned again and must not be counted twice
+        Date previousCursor = notificationCursor;
+        Set<String> previousKeysAtCursor = notificationKeysAtCursor;
+        Date latestCreatedAt = notificationCursor;
+        Set<String> keysAtLatestCreatedAt = new HashSet<>(notificationKeysAtCursor);
+
+        // notifications without an href or creation date can't be tracked by the cursor, so they are counted fresh on every poll
+        int untrackedNotificationCount = 0;
+        boolean codeLocationsRefreshed = false;
+        for (VersionBomCodeLocationBomComputedNotificationUserView notification : notifications) {
+            Optional<String> notificationKey = findNotificationKey(notification);
+            Date createdAt = notification.getCreatedAt();
+            boolean cursored = notificationKey.isPresent() && null != createdAt;
+            if (cursored) {
+                if (null != previousCursor && (createdAt.before(previousCursor) || (createdAt.equals(previousCursor) && previousKeysAtCursor.contains(notificationKey.get())))) {
+                    continue;
+                }
+                if (null == latestCreatedAt || createdAt.after(latestCreatedAt)) {
+                    latestCreatedAt = createdAt;
+                    keysAtLatestCreatedAt = new HashSet<>();
+                }
+                if (createdAt.equals(latestCreatedAt)) {
+                    keysAtLatestCreatedAt.add(notificationKey.get());
                 }
             }
+
+            String codeLocationUrl = notification.getContent().getCodeLocation();
+            codeLocationsRefreshed = refreshCodeLocationsIfUnknown(codeLocationUrl, codeLocationsRefreshed);
+
+            if (foundCodeLocations.containsKey(codeLocationUrl)) {
+                String codeLocationName = foundCodeLocations.get(codeLocationUrl);
+                foundCodeLocationNames.add(codeLocationName);
+                if (cursored) {
+                    trackedNotificationCount++;
+                } else {
+                    untrackedNotificationCount++;
+                }
+                logger.info(String.format("Found %s code location (%d of %d).", codeLocationName, trackedNotificationCount + untrackedNotificationCount, expectedNotificationCount));
+            }
+        }
+
+        notificationCursor = latestCreatedAt;
+        notificationKeysAtCursor = keysAtLatestCreatedAt;
+
+        return trackedNotificationCount + untrackedNotificationCount;
+    }
+
+    private int countDeliveredNotifications() throws IntegrationException {
+        boolean codeLocationsRefreshed = false;
+        VersionBomCodeLocationBomComputedNotificationUserView notification;
+        while (null != (notification = deliveredNotifications.poll())) {
+            String codeLocationUrl = notification.getContent().getCodeLocation();
+            codeLocationsRefreshed = refreshCodeLocationsIfUnknown(codeLocationUrl, codeLocationsRefreshed);
+
+            if (foundCodeLocations.containsKey(codeLocationUrl)) {
+                String codeLocationName = foundCodeLocations.get(codeLocationUrl);
+                foundCodeLocationNames.add(codeLocationName);
+                trackedNotificationCount++;
+                logger.info(String.format("Found %s code location (%d of %d).", codeLocationName, trackedNotificationCount, expectedNotificationCount));
+            }
+        }
+
+        return trackedNotificationCount;
+    }
+
+    private boolean refreshCodeLocationsIfUnknown(String codeLocationUrl, boolean codeLocationsRefreshed) throws IntegrationException {
+        if (!foundCodeLocations.containsKey(codeLocationUrl) && !codeLocationsRefreshed && !allCodeLocationsFound()) {
+            // the code location may have been created after it was last listed - once this notification is processed it won't be seen again
+            refreshCodeLocations();
+            return true;
         }
+        return codeLocationsRefreshed;
+    }
 
-        return actualNotificationCount;
+    private Optional<ProjectVersionView> findProjectVersionView() throws IntegrationException {
+        if (null == projectVersionView) {
+            Optional<ProjectVersionWrapper> projectVersionWrapper = projectService.getProjectVersion(projectAndVersion);
+            projectVersionView = projectVersionWrapper.map(ProjectVersionWrapper::getProjectVersionView).orElse(null);
+        }
+        return Optional.ofNullable(projectVersionView);
     }
 
-    private Map<String, String> retrieveCodeLocations(ProjectVersionView projectVersionView) throws IntegrationException {
+    private boolean allCodeLocationsFound() {
+        return foundCodeLocations.values().containsAll(codeLocationNames);
+    }
+
+    private void refreshCodeLocations() throws IntegrationException {
         List<CodeLocationView> codeLocationViews = blackDuckApiClient.getAllResponses(projectVersionView, ProjectVersionView.CODELOCATIONS_LINK_RESPONSE);
-        return codeLocationViews
-                   .stream()
-                   .filter(codeLocationView -> codeLocationNames.contains(codeLocationView.getName()))
-                   .collect(Collectors.toMap(codeLocationView -> codeLocationView.getHref().string(), CodeLocationView::getName));
+        codeLocationViews
+            .stream()
+            .filter(codeLocationView -> codeLocationNames.contains(codeLocationView.getName()))
+            .forEach(codeLocationView -> foundCodeLocations.put(codeLocationView.getHref().string(), codeLocationView.getName()));
+    }
+
+    private Optional<String> findNotificationKey(NotificationUserView notification) {
+        return Optional.ofNullable(notification.getMeta())
+                   .map(ResourceMetadata::getHref)
+                   .map(HttpUrl::string);
     }
 
-    private List<VersionBomCodeLocationBomComputedNotificationUserView> getFilteredNotificationUserViews(UserView userView, NotificationTaskRange notificationTaskRange) throws IntegrationException {
-        Date startDate = notificationTaskRange.getStartDate();
+    private List<VersionBomCodeLocationBomComputedNotificationUserView> getFilteredNotificationUserViews(Date startDate) throws IntegrationException {
         Date endDate = notificationTaskRange.getEndDate();
         List<String> typesToInclude = Arrays.asList(NotificationType.VERSION_BOM_CODE_LOCATION_BOM_COMPUTED.name());
         List<NotificationUserView> notifications = notificationService.getFilteredUserNotifications(userView, startDate, endDate, typesToInclude);
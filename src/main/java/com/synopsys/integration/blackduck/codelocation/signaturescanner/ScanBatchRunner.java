@@ -31,11 +31,14 @@ import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanCommandRunner;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanPaths;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanPathsUtility;
+import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanProgressListener;
+import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanResourceBudget;
+import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScannerInstallCache;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScannerZipInstaller;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.keystore.KeyStoreHelper;
 import com.synopsys.integration.log.IntLogger;
-import com.synopsys.integration.util.CleanupZipExpander;
 import com.synopsys.integration.util.IntEnvironmentVariables;
 import com.synopsys.integration.util.OperatingSystemType;
 
@@ -47,17 +50,45 @@ public class ScanBatchRunner {
     private final File defaultInstallDirectory;
 
     public static ScanBatchRunner createDefault(IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService) {
+        return ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, executorService, null);
+    }
+
+    /**
+     * The scans are started only as fast as the scanResourceBudget allows - a null budget starts every scan of a batch at once.
+     */
+    public static ScanBatchRunner createDefault(IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService,
+        ScanResourceBudget scanResourceBudget) {
+        return ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, executorService, scanResourceBudget, null);
+    }
+
+    /**
+     * The scanner is installed from the host-wide ScannerInstallCache.createDefault cache, so it is downloaded and expanded once for all the install directories.
+     */
+    public static ScanBatchRunner createWithInstallCache(IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService) {
+        return ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, executorService, null, ScannerInstallCache.createDefault(logger));
+    }
+
+    /**
+     * @param scanResourceBudget if not null, the scans are started only as fast as the budget allows
+     * @param scannerInstallCache if not null, the scanner is installed from this host-wide cache
+     */
+    public static ScanBatchRunner createDefault(IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService,
+        ScanResourceBudget scanResourceBudget, ScannerInstallCache scannerInstallCache) {
         OperatingSystemType operatingSystemType = OperatingSystemType.determineFromSystem();
         ScanPathsUtility scanPathsUtility = new ScanPathsUtility(logger, intEnvironmentVariables, operatingSystemType);
-        ScanCommandRunner scanCommandRunner = new ScanCommandRunner(logger, intEnvironmentVariables, scanPathsUtility, executorService);
+        ScanCommandRunner scanCommandRunner = new ScanCommandRunner(logger, intEnvironmentVariables, scanPathsUtility, executorService, ScanProgressListener.NO_OP, scanResourceBudget);
 
-        return ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, scanPathsUtility, operatingSystemType, scanCommandRunner);
+        return ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, scanPathsUtility, operatingSystemType, scanCommandRunner, scannerInstallCache);
     }
 
     public static ScanBatchRunner createDefault(IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, IntEnvironmentVariables intEnvironmentVariables, ScanPathsUtility scanPathsUtility, OperatingSystemType operatingSystemType,
         ScanCommandRunner scanCommandRunner) {
-        CleanupZipExpander cleanupZipExpander = new CleanupZipExpander(logger);
-        ScannerZipInstaller scannerZipInstaller = new ScannerZipInstaller(logger, blackDuckHttpClient, cleanupZipExpander, scanPathsUtility, blackDuckHttpClient.getBaseUrl(), operatingSystemType);
+        return ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, scanPathsUtility, operatingSystemType, scanCommandRunner, null);
+    }
+
+    public static ScanBatchRunner createDefault(IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, IntEnvironmentVariables intEnvironmentVariables, ScanPathsUtility scanPathsUtility, OperatingSystemType operatingSystemType,
+        ScanCommandRunner scanCommandRunner, ScannerInstallCache scannerInstallCache) {
+        ScannerZipInstaller scannerZipInstaller = new ScannerZipInstaller(logger, blackDuckHttpClient, scanPathsUtility, new KeyStoreHelper(logger), blackDuckHttpClient.getBaseUrl(), operatingSystemType, scannerInstallCache);
 
         return new ScanBatchRunner(intEnvironmentVariables, scannerZipInstaller, scanPathsUtility, scanCommandRunner, null);
     }
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -51,8 +52,15 @@ public class ScanCommandCallable implements Callable<ScanCommandOutput> {
     private final String codeLocationName;
     private final boolean onlineScan;
     private final boolean cleanupOutput;
+    private final ScanProgressListener scanProgressListener;
+    private final ScanProgressParser scanProgressParser = new ScanProgressParser();
 
     public ScanCommandCallable(IntLogger logger, ScanPathsUtility scanPathsUtility, IntEnvironmentVariables intEnvironmentVariables, ScanCommand scanCommand, boolean cleanupOutput) {
+        this(logger, scanPathsUtility, intEnvironmentVariables, scanCommand, cleanupOutput, ScanProgressListener.NO_OP);
+    }
+
+    public ScanCommandCallable(IntLogger logger, ScanPathsUtility scanPathsUtility, IntEnvironmentVariables intEnvironmentVariables, ScanCommand scanCommand, boolean cleanupOutput,
+        ScanProgressListener scanProgressListener) {
         this.logger = logger;
         this.scanPathsUtility = scanPathsUtility;
         this.intEnvironmentVariables = intEnvironmentVariables;
@@ -61,6 +69,7 @@ public class ScanCommandCallable implements Callable<ScanCommandOutput> {
         this.codeLocationName = scanCommand.getName();
         this.onlineScan = !scanCommand.isDryRun();
         this.cleanupOutput = cleanupOutput;
+        this.scanProgressListener = scanProgressListener;
     }
 
     @Override
@@ -77,7 +86,7 @@ public class ScanCommandCallable implements Callable<ScanCommandOutput> {
 
             File standardOutFile = scanPathsUtility.createStandardOutFile(scanCommand.getOutputDirectory());
             try (FileOutputStream outputFileStream = new FileOutputStream(standardOutFile)) {
-                ScannerSplitStream splitOutputStream = new ScannerSplitStream(logger, outputFileStream);
+                ScannerSplitStream splitOutputStream = new ScannerSplitStream(logger, outputFileStream, ScannerSplitStream.DEFAULT_MAX_OUTPUT_LINES, createLineConsumer());
                 ProcessBuilder processBuilder = new ProcessBuilder(cmd);
                 processBuilder.environment().putAll(intEnvironmentVariables.getVariables());
 
@@ -135,6 +144,20 @@ public class ScanCommandCallable implements Callable<ScanCommandOutput> {
         return returnCode;
     }
 
+    private Consumer<String> createLineConsumer() {
+        if (ScanProgressListener.NO_OP == scanProgressListener) {
+            return null;
+        }
+        return line -> {
+            try {
+                scanProgressParser.parse(codeLocationName, line).ifPresent(scanProgressListener::scanProgressed);
+            } catch (RuntimeException e) {
+                // the CLI output must keep flowing, so a bad line or listener is only logged
+                logger.debug(String.format("Could not publish scan progress for '%s': %s", line, e.getMessage()));
+            }
+        };
+    }
+
     private void prepareEnvironmentWithCredentials(ProcessBuilder processBuilder) {
         if (!StringUtils.isEmpty(scanCommand.getBlackDuckApiToken())) {
             processBuilder.environment().put("BD_HUB_TOKEN", scanCommand.getBlackDuckApiToken());
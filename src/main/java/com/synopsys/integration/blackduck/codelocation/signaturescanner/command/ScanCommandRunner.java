@@ -24,6 +24,7 @@ package com.synopsys.integration.blackduck.codelocation.signaturescanner.command
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
@@ -37,12 +38,28 @@ public class ScanCommandRunner {
     private final IntEnvironmentVariables intEnvironmentVariables;
     private final ScanPathsUtility scanPathsUtility;
     private final ExecutorService executorService;
+    private final ScanProgressListener scanProgressListener;
+    private final ScanResourceBudget scanResourceBudget;
 
     public ScanCommandRunner(IntLogger logger, IntEnvironmentVariables intEnvironmentVariables, ScanPathsUtility scanPathsUtility, ExecutorService executorService) {
+        this(logger, intEnvironmentVariables, scanPathsUtility, executorService, ScanProgressListener.NO_OP);
+    }
+
+    public ScanCommandRunner(IntLogger logger, IntEnvironmentVariables intEnvironmentVariables, ScanPathsUtility scanPathsUtility, ExecutorService executorService, ScanProgressListener scanProgressListener) {
+        this(logger, intEnvironmentVariables, scanPathsUtility, executorService, scanProgressListener, null);
+    }
+
+    /**
+     * @param scanResourceBudget if not null, scans are only started while they fit in the budget, largest targets first - otherwise every scan is submitted at once
+     */
+    public ScanCommandRunner(IntLogger logger, IntEnvironmentVariables intEnvironmentVariables, ScanPathsUtility scanPathsUtility, ExecutorService executorService, ScanProgressListener scanProgressListener,
+        ScanResourceBudget scanResourceBudget) {
         this.logger = logger;
         this.intEnvironmentVariables = intEnvironmentVariables;
         this.scanPathsUtility = scanPathsUtility;
         this.executorService = executorService;
+        this.scanProgressListener = scanProgressListener;
+        this.scanResourceBudget = scanResourceBudget;
     }
 
     public List<ScanCommandOutput> executeScans(List<ScanCommand> scanCommands, boolean cleanupOutput) throws ScanFailedException {
@@ -56,6 +73,10 @@ public class ScanCommandRunner {
     private List<ScanCommandOutput> executeCommands(List<ScanCommand> scanCommands, boolean cleanupOutput) throws ScanFailedException {
         List<ScanCommandOutput> scanCommandOutputs = new ArrayList<>();
 
+        if (null != scanResourceBudget) {
+            return executeScheduledCommands(scanCommands, cleanupOutput);
+        }
+
         try {
             List<ScanCommandCallable> callables = createCallables(scanCommands, cleanupOutput);
             List<Future<ScanCommandOutput>> submitted = new ArrayList<>();
@@ -75,8 +96,27 @@ public class ScanCommandRunner {
         return scanCommandOutputs;
     }
 
+    private List<ScanCommandOutput> executeScheduledCommands(List<ScanCommand> scanCommands, boolean cleanupOutput) throws ScanFailedException {
+        ScanCommandScheduler scanCommandScheduler = new ScanCommandScheduler(logger, executorService, scanResourceBudget);
+        try {
+            return scanCommandScheduler.execute(scanCommands, scanCommand -> createCallable(scanCommand, cleanupOutput))
+                       .stream()
+                       .filter(Objects::nonNull)
+                       .collect(Collectors.toList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScanFailedException(String.format("Interrupted while waiting for a scan to finish. %s", e.getMessage()), e);
+        } catch (Exception e) {
+            throw new ScanFailedException(String.format("Encountered a problem waiting for a scan to finish. %s", e.getMessage()), e);
+        }
+    }
+
+    private ScanCommandCallable createCallable(ScanCommand scanCommand, boolean cleanupOutput) {
+        return new ScanCommandCallable(logger, scanPathsUtility, intEnvironmentVariables, scanCommand, cleanupOutput, scanProgressListener);
+    }
+
     private List<ScanCommandCallable> createCallables(List<ScanCommand> scanCommands, boolean cleanupOutput) {
-        List<ScanCommandCallable> callables = scanCommands.stream().map(scanCommand -> new ScanCommandCallable(logger, scanPathsUtility, intEnvironmentVariables, scanCommand, cleanupOutput)).collect(Collectors.toList());
+        List<ScanCommandCallable> callables = scanCommands.stream().map(scanCommand -> createCallable(scanCommand, cleanupOutput)).collect(Collectors.toList());
 
         return callables;
     }
@@ -0,0 +1,193 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Admits scan processes only while they fit in a ScanResourceBudget, starting the largest targets first so the longest scans do not end up running alone
+ * at the end of the batch. A scan that needs more memory than the whole budget is still run, but only when nothing else is running.
+ */
+public class ScanCommandScheduler {
+    public static final int DEFAULT_MAX_FILES_TO_ESTIMATE = 10000;
+
+    private final IntLogger logger;
+    private final ExecutorService executorService;
+    private final ScanResourceBudget scanResourceBudget;
+    private final ToLongFunction<ScanCommand> targetSizeEstimator;
+
+    public ScanCommandScheduler(IntLogger logger, ExecutorService executorService, ScanResourceBudget scanResourceBudget) {
+        this(logger, executorService, scanResourceBudget, ScanCommandScheduler::estimateTargetSize);
+    }
+
+    ScanCommandScheduler(IntLogger logger, ExecutorService executorService, ScanResourceBudget scanResourceBudget, ToLongFunction<ScanCommand> targetSizeEstimator) {
+        this.logger = logger;
+        this.executorService = executorService;
+        this.scanResourceBudget = scanResourceBudget;
+        this.targetSizeEstimator = targetSizeEstimator;
+    }
+
+    /**
+     * @return the outputs in the same order as the scan commands
+     */
+    public List<ScanCommandOutput> execute(List<ScanCommand> scanCommands, Function<ScanCommand, Callable<ScanCommandOutput>> callableFactory) throws InterruptedException, ExecutionException {
+        // the targets are estimated concurrently so one large tree does not hold back the start of every scan
+        List<Callable<Long>> estimates = new ArrayList<>();
+        for (ScanCommand scanCommand : scanCommands) {
+            estimates.add(() -> targetSizeEstimator.applyAsLong(scanCommand));
+        }
+        List<Future<Long>> targetSizes = executorService.invokeAll(estimates);
+
+        List<ScheduledScan> pending = new LinkedList<>();
+        for (int i = 0; i < scanCommands.size(); i++) {
+            pending.add(new ScheduledScan(i, scanCommands.get(i), targetSizes.get(i).get()));
+        }
+        pending.sort(Comparator.comparingLong(ScheduledScan::getTargetSize).reversed());
+
+        CompletionService<ScheduledScan> completionService = new ExecutorCompletionService<>(executorService);
+        ScanCommandOutput[] outputs = new ScanCommandOutput[scanCommands.size()];
+        int runningScans = 0;
+        long reservedMemoryInMegabytes = 0;
+
+        while (!pending.isEmpty() || runningScans > 0) {
+            ScheduledScan admitted = admitNext(pending, runningScans, reservedMemoryInMegabytes);
+            if (null != admitted) {
+                runningScans++;
+                reservedMemoryInMegabytes += admitted.getMemoryInMegabytes();
+                logger.debug(String.format("Starting the scan of %s (%d running, %d MB of %d MB reserved).", admitted.scanCommand.getTargetPath(), runningScans, reservedMemoryInMegabytes,
+                    scanResourceBudget.getMemoryBudgetInMegabytes()));
+                Callable<ScanCommandOutput> callable = callableFactory.apply(admitted.scanCommand);
+                completionService.submit(() -> {
+                    admitted.output = callable.call();
+                    return admitted;
+                });
+            } else {
+                Future<ScheduledScan> completed = completionService.take();
+                ScheduledScan finished = completed.get();
+                runningScans--;
+                reservedMemoryInMegabytes -= finished.getMemoryInMegabytes();
+                outputs[finished.index] = finished.output;
+            }
+        }
+
+        return new ArrayList<>(Arrays.asList(outputs));
+    }
+
+    private ScheduledScan admitNext(List<ScheduledScan> pending, int runningScans, long reservedMemoryInMegabytes) {
+        if (runningScans >= scanResourceBudget.getAvailableCores()) {
+            return null;
+        }
+
+        Iterator<ScheduledScan> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            ScheduledScan scheduledScan = iterator.next();
+            boolean fitsInBudget = reservedMemoryInMegabytes + scheduledScan.getMemoryInMegabytes() <= scanResourceBudget.getMemoryBudgetInMegabytes();
+            if (fitsInBudget || 0 == runningScans) {
+                iterator.remove();
+                return scheduledScan;
+            }
+        }
+        return null;
+    }
+
+    public static long estimateTargetSize(ScanCommand scanCommand) {
+        return estimateTargetSize(scanCommand, DEFAULT_MAX_FILES_TO_ESTIMATE);
+    }
+
+    /**
+     * Only the first maxFilesToEstimate files of a directory are counted - the size only orders the scans, so beyond that a target is simply large.
+     */
+    public static long estimateTargetSize(ScanCommand scanCommand, int maxFilesToEstimate) {
+        File target = new File(scanCommand.getTargetPath());
+        if (!target.isDirectory()) {
+            return target.length();
+        }
+
+        AtomicLong totalSize = new AtomicLong();
+        AtomicInteger filesEstimated = new AtomicInteger();
+        try {
+            Files.walkFileTree(target.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    totalSize.addAndGet(attributes.size());
+                    return filesEstimated.incrementAndGet() < maxFilesToEstimate ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // the size is only used to order the scans, so a partial total is good enough
+        }
+        return totalSize.get();
+    }
+
+    private static class ScheduledScan {
+        private final int index;
+        private final ScanCommand scanCommand;
+        private final long targetSize;
+        private ScanCommandOutput output;
+
+        public ScheduledScan(int index, ScanCommand scanCommand, long targetSize) {
+            this.index = index;
+            this.scanCommand = scanCommand;
+            this.targetSize = targetSize;
+        }
+
+        public long getTargetSize() {
+            return targetSize;
+        }
+
+        public long getMemoryInMegabytes() {
+            return scanCommand.getScanMemoryInMegabytes();
+        }
+
+    }
+
+}
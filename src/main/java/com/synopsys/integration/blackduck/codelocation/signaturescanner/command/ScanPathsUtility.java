@@ -25,12 +25,16 @@ package com.synopsys.integration.blackduck.codelocation.signaturescanner.command
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
@@ -60,6 +64,9 @@ public class ScanPathsUtility {
     // this will allow for multiple threads to always get a unique number
     private final AtomicInteger defaultMultiThreadingId = new AtomicInteger(0);
 
+    // resolved paths per directory, reused until the installer's version file changes
+    private final Map<String, ResolvedScanPaths> resolvedScanPaths = new ConcurrentHashMap<>();
+
     private final IntLogger logger;
     private final IntEnvironmentVariables intEnvironmentVariables;
     private final OperatingSystemType operatingSystemType;
@@ -80,6 +87,26 @@ public class ScanPathsUtility {
             throw new IllegalArgumentException("null is not a valid directory");
         }
 
+        final String key = directory.getAbsolutePath();
+        final String versionStamp = createVersionStamp(directory);
+        final ResolvedScanPaths resolved = resolvedScanPaths.get(key);
+        if (null != resolved && resolved.isCurrent(versionStamp)) {
+            return resolved.scanPaths;
+        }
+
+        final ScanPaths scanPaths = resolveSignatureScannerPaths(directory);
+        resolvedScanPaths.put(key, new ResolvedScanPaths(versionStamp, scanPaths));
+        return scanPaths;
+    }
+
+    /**
+     * Forgets the resolved paths of the directory, so the next lookup scans the install tree again.
+     */
+    public void invalidateSignatureScannerPaths(final File directory) {
+        resolvedScanPaths.remove(directory.getAbsolutePath());
+    }
+
+    private ScanPaths resolveSignatureScannerPaths(final File directory) throws BlackDuckIntegrationException {
         if (!directory.isDirectory()) {
             throw new IllegalArgumentException(String.format("%s is not a valid directory", directory.getAbsolutePath()));
         }
@@ -88,17 +115,66 @@ public class ScanPathsUtility {
             throw new IllegalArgumentException(String.format("%s does not exist.", directory.getAbsolutePath()));
         }
 
-        boolean managedByLibrary = false;
-        File installDirectory = directory;
         final File[] blackDuckScanInstallationDirectories = directory.listFiles(file -> ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY.equals(file.getName()));
         if (blackDuckScanInstallationDirectories.length == 1) {
             logger.debug("The directory structure was likely created by the installer");
-            installDirectory = findFirstFilteredFile(blackDuckScanInstallationDirectories[0], EXCLUDE_NON_SCAN_CLI_DIRECTORIES_FILTER, "No scan.cli directories could be found in %s.");
-            managedByLibrary = true;
+            final File installDirectory = findCurrentScanCliDirectory(blackDuckScanInstallationDirectories[0]);
+            return resolveScanCliPaths(installDirectory, true);
         } else {
-            logger.debug(String.format("The directory structure was likely created manually - be sure the jre folder exists in: %s", installDirectory.getAbsolutePath()));
+            logger.debug(String.format("The directory structure was likely created manually - be sure the jre folder exists in: %s", directory.getAbsolutePath()));
+            return resolveScanCliPaths(directory, false);
+        }
+    }
+
+    /**
+     * Resolves the paths of a scanner the installer expanded into the generation directory, whether or not it is the current scanner yet.
+     */
+    public ScanPaths determineInstalledScannerPaths(final File generationDirectory) throws BlackDuckIntegrationException {
+        final File installDirectory = findFirstFilteredFile(generationDirectory, EXCLUDE_NON_SCAN_CLI_DIRECTORIES_FILTER, "No scan.cli directories could be found in %s.");
+        return resolveScanCliPaths(installDirectory, true);
+    }
+
+    /**
+     * @return the generation directory the current scanner file names, or empty if the installer has not written one
+     */
+    public Optional<File> findCurrentScannerGeneration(final File scannerExpansionDirectory) throws BlackDuckIntegrationException {
+        final String currentScanner = readCurrentScanner(scannerExpansionDirectory);
+        if (StringUtils.isBlank(currentScanner)) {
+            return Optional.empty();
+        }
+
+        final File generationDirectory = new File(scannerExpansionDirectory, currentScanner);
+        if (!generationDirectory.isDirectory() || !scannerExpansionDirectory.getAbsoluteFile().equals(generationDirectory.getAbsoluteFile().getParentFile())) {
+            throw new BlackDuckIntegrationException(String.format("The current scanner %s could not be found in %s.", currentScanner, scannerExpansionDirectory.getAbsolutePath()));
         }
+        return Optional.of(generationDirectory);
+    }
+
+    private File findCurrentScanCliDirectory(final File scannerExpansionDirectory) throws BlackDuckIntegrationException {
+        final Optional<File> currentGeneration = findCurrentScannerGeneration(scannerExpansionDirectory);
+        if (currentGeneration.isPresent()) {
+            return findFirstFilteredFile(currentGeneration.get(), EXCLUDE_NON_SCAN_CLI_DIRECTORIES_FILTER, "No scan.cli directories could be found in %s.");
+        }
+
+        // installed before the current scanner file was introduced - the generations of an unfinished install are never used
+        return findFirstFilteredFile(scannerExpansionDirectory, file -> EXCLUDE_NON_SCAN_CLI_DIRECTORIES_FILTER.accept(file) && !file.getName().startsWith(ScannerZipInstaller.SCANNER_GENERATION_PREFIX),
+            "No scan.cli directories could be found in %s.");
+    }
+
+    private String readCurrentScanner(final File scannerExpansionDirectory) throws BlackDuckIntegrationException {
+        final File currentScannerFile = new File(scannerExpansionDirectory, ScannerZipInstaller.CURRENT_SCANNER_FILENAME);
+        if (!currentScannerFile.isFile()) {
+            return null;
+        }
+
+        try {
+            return new String(Files.readAllBytes(currentScannerFile.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (final IOException e) {
+            throw new BlackDuckIntegrationException(String.format("Could not read the current scanner from %s: %s", currentScannerFile.getAbsolutePath(), e.getMessage()), e);
+        }
+    }
 
+    private ScanPaths resolveScanCliPaths(final File installDirectory, final boolean managedByLibrary) throws BlackDuckIntegrationException {
         final File jreContentsDirectory = findFirstFilteredFile(installDirectory, JRE_DIRECTORY_FILTER, "Could not find the 'jre' directory in %s.");
 
         final String pathToCacerts = findPathToCacerts(jreContentsDirectory);
@@ -161,6 +237,18 @@ public class ScanPathsUtility {
         return standardOutFile;
     }
 
+    private String createVersionStamp(final File directory) {
+        final File scannerExpansionDirectory = new File(directory, ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY);
+        final File versionFile = new File(scannerExpansionDirectory, ScannerZipInstaller.VERSION_FILENAME);
+        String currentScanner;
+        try {
+            currentScanner = readCurrentScanner(scannerExpansionDirectory);
+        } catch (final BlackDuckIntegrationException e) {
+            currentScanner = null;
+        }
+        return versionFile.lastModified() + ":" + versionFile.length() + ":" + currentScanner + ":" + intEnvironmentVariables.getValue(BDS_JAVA_HOME);
+    }
+
     private String findPathToJavaExe(final File jreContentsDirectory) throws BlackDuckIntegrationException {
         File jdkBase = getJdkBase(jreContentsDirectory);
 
@@ -223,4 +311,20 @@ public class ScanPathsUtility {
         return potentialItems[0];
     }
 
+    private static class ResolvedScanPaths {
+        private final String versionStamp;
+        private final ScanPaths scanPaths;
+
+        public ResolvedScanPaths(final String versionStamp, final ScanPaths scanPaths) {
+            this.versionStamp = versionStamp;
+            this.scanPaths = scanPaths;
+        }
+
+        public boolean isCurrent(final String currentVersionStamp) {
+            // a manual install has no version file, so the executables are checked as well
+            return versionStamp.equals(currentVersionStamp) && new File(scanPaths.getPathToJavaExecutable()).isFile() && new File(scanPaths.getPathToOneJar()).isFile();
+        }
+
+    }
+
 }
@@ -0,0 +1,96 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.util.Optional;
+
+/**
+ * A typed progress event parsed from one line of the signature scanner CLI output.
+ */
+public class ScanProgressEvent {
+    private final String codeLocationName;
+    private final ScanProgressEventType type;
+    private final String line;
+    private final String phase;
+    private final Long fileCount;
+    private final Integer uploadPercent;
+    private final Long durationInMillis;
+
+    public static ScanProgressEvent PHASE(String codeLocationName, String line, String phase) {
+        return new ScanProgressEvent(codeLocationName, ScanProgressEventType.PHASE, line, phase, null, null, null);
+    }
+
+    public static ScanProgressEvent FILE_COUNT(String codeLocationName, String line, long fileCount) {
+        return new ScanProgressEvent(codeLocationName, ScanProgressEventType.FILE_COUNT, line, null, fileCount, null, null);
+    }
+
+    public static ScanProgressEvent UPLOAD(String codeLocationName, String line, Integer uploadPercent) {
+        return new ScanProgressEvent(codeLocationName, ScanProgressEventType.UPLOAD, line, null, null, uploadPercent, null);
+    }
+
+    public static ScanProgressEvent FINISHED(String codeLocationName, String line, Long durationInMillis) {
+        return new ScanProgressEvent(codeLocationName, ScanProgressEventType.FINISHED, line, null, null, null, durationInMillis);
+    }
+
+    private ScanProgressEvent(String codeLocationName, ScanProgressEventType type, String line, String phase, Long fileCount, Integer uploadPercent, Long durationInMillis) {
+        this.codeLocationName = codeLocationName;
+        this.type = type;
+        this.line = line;
+        this.phase = phase;
+        this.fileCount = fileCount;
+        this.uploadPercent = uploadPercent;
+        this.durationInMillis = durationInMillis;
+    }
+
+    public String getCodeLocationName() {
+        return codeLocationName;
+    }
+
+    public ScanProgressEventType getType() {
+        return type;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public Optional<String> getPhase() {
+        return Optional.ofNullable(phase);
+    }
+
+    public Optional<Long> getFileCount() {
+        return Optional.ofNullable(fileCount);
+    }
+
+    /**
+     * @return the upload percentage, if the CLI reported one
+     */
+    public Optional<Integer> getUploadPercent() {
+        return Optional.ofNullable(uploadPercent);
+    }
+
+    public Optional<Long> getDurationInMillis() {
+        return Optional.ofNullable(durationInMillis);
+    }
+
+}
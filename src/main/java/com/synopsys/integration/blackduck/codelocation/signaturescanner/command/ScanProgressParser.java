@@ -0,0 +1,102 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Turns lines of the signature scanner CLI output into progress events. The CLI output is not a stable format, so this is best-effort: lines that are not
+ * recognized simply produce no event.
+ */
+public class ScanProgressParser {
+    private static final Pattern LOG_LEVEL_PREFIX = Pattern.compile("^\\s*(?:ERROR|WARN|INFO|DEBUG|TRACE):\\s*");
+    private static final Pattern FINISHED = Pattern.compile("Finished in\\s+(\\d+(?:\\.\\d+)?)\\s*(ms|milliseconds?|s|secs?|seconds?|m|mins?|minutes?)?\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UPLOAD = Pattern.compile("\\bupload", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PERCENT = Pattern.compile("(\\d{1,3})\\s*%");
+    private static final Pattern TOTAL_FILE_COUNT = Pattern.compile("(?:total|number of|scanned)[a-z ]*?\\b(?:files|elements)\\b\\D*?(\\d[\\d,]*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FILE_COUNT = Pattern.compile("(\\d[\\d,]*)\\s+(?:files|elements)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PHASE = Pattern.compile("^(?:Starting|Scanning|Preparing|Initializing|Creating|Running|Post[- ]?Scan|Completed)\\b.*", Pattern.CASE_INSENSITIVE);
+
+    public Optional<ScanProgressEvent> parse(String codeLocationName, String line) {
+        if (StringUtils.isBlank(line)) {
+            return Optional.empty();
+        }
+
+        String message = LOG_LEVEL_PREFIX.matcher(line).replaceFirst("").trim();
+
+        Matcher finishedMatcher = FINISHED.matcher(message);
+        if (finishedMatcher.find()) {
+            Long durationInMillis = convertToMillis(finishedMatcher.group(1), finishedMatcher.group(2));
+            return Optional.of(ScanProgressEvent.FINISHED(codeLocationName, line, durationInMillis));
+        }
+
+        if (UPLOAD.matcher(message).find()) {
+            Matcher percentMatcher = PERCENT.matcher(message);
+            Integer uploadPercent = percentMatcher.find() ? Math.min(100, Integer.parseInt(percentMatcher.group(1))) : null;
+            return Optional.of(ScanProgressEvent.UPLOAD(codeLocationName, line, uploadPercent));
+        }
+
+        Optional<Long> fileCount = findFileCount(message, TOTAL_FILE_COUNT);
+        if (!fileCount.isPresent()) {
+            fileCount = findFileCount(message, FILE_COUNT);
+        }
+        if (fileCount.isPresent()) {
+            return Optional.of(ScanProgressEvent.FILE_COUNT(codeLocationName, line, fileCount.get()));
+        }
+
+        if (PHASE.matcher(message).matches()) {
+            return Optional.of(ScanProgressEvent.PHASE(codeLocationName, line, message));
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Long> findFileCount(String message, Pattern pattern) {
+        Matcher matcher = pattern.matcher(message);
+        if (matcher.find()) {
+            return Optional.of(Long.parseLong(matcher.group(1).replace(",", "")));
+        }
+        return Optional.empty();
+    }
+
+    private Long convertToMillis(String amount, String unit) {
+        if (null == unit) {
+            return null;
+        }
+
+        BigDecimal value = new BigDecimal(amount);
+        String lowerCaseUnit = unit.toLowerCase();
+        if (lowerCaseUnit.startsWith("ms") || lowerCaseUnit.startsWith("milli")) {
+            return value.longValue();
+        } else if (lowerCaseUnit.startsWith("m")) {
+            return value.multiply(BigDecimal.valueOf(60000)).longValue();
+        }
+        return value.multiply(BigDecimal.valueOf(1000)).longValue();
+    }
+
+}
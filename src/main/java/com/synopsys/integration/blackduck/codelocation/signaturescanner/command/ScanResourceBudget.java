@@ -0,0 +1,99 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * How many signature scan processes may run at once: each running scan holds one core and its scanMemoryInMegabytes of the memory budget.
+ */
+public class ScanResourceBudget {
+    public static final double DEFAULT_MEMORY_FRACTION = 0.75;
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+    private static final String PLATFORM_OPERATING_SYSTEM_MX_BEAN_CLASS_NAME = "com.sun.management.OperatingSystemMXBean";
+    // getTotalMemorySize replaces the deprecated getTotalPhysicalMemorySize from Java 14 on, older runtimes only have the latter
+    private static final String[] TOTAL_MEMORY_METHOD_NAMES = { "getTotalMemorySize", "getTotalPhysicalMemorySize" };
+
+    private final int availableCores;
+    private final long memoryBudgetInMegabytes;
+
+    /**
+     * Uses every available core and DEFAULT_MEMORY_FRACTION of the physical memory. If the physical memory cannot be determined, only the cores limit the scans.
+     */
+    public static ScanResourceBudget createFromSystem() {
+        int availableCores = Runtime.getRuntime().availableProcessors();
+        long memoryBudgetInMegabytes = Long.MAX_VALUE;
+
+        long totalMemoryInBytes = findTotalMemoryInBytes(ManagementFactory.getOperatingSystemMXBean());
+        if (totalMemoryInBytes > 0) {
+            memoryBudgetInMegabytes = (long) (totalMemoryInBytes / BYTES_PER_MEGABYTE * DEFAULT_MEMORY_FRACTION);
+        }
+
+        return new ScanResourceBudget(availableCores, memoryBudgetInMegabytes);
+    }
+
+    /**
+     * The total memory is only available from the platform specific bean, which is looked up reflectively so neither a missing bean nor a removed method breaks the budget.
+     * @return the total memory in bytes, or -1 if the runtime doesn't report it
+     */
+    static long findTotalMemoryInBytes(OperatingSystemMXBean operatingSystemMXBean) {
+        try {
+            Class<?> platformBeanClass = Class.forName(PLATFORM_OPERATING_SYSTEM_MX_BEAN_CLASS_NAME);
+            if (!platformBeanClass.isInstance(operatingSystemMXBean)) {
+                return -1;
+            }
+
+            for (String methodName : TOTAL_MEMORY_METHOD_NAMES) {
+                try {
+                    Method totalMemoryMethod = platformBeanClass.getMethod(methodName);
+                    Object totalMemoryInBytes = totalMemoryMethod.invoke(operatingSystemMXBean);
+                    if (totalMemoryInBytes instanceof Long) {
+                        return (Long) totalMemoryInBytes;
+                    }
+                } catch (NoSuchMethodException ignored) {
+                    // try the next name
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // the memory limit is optional
+        }
+
+        return -1;
+    }
+
+    public ScanResourceBudget(int availableCores, long memoryBudgetInMegabytes) {
+        this.availableCores = Math.max(1, availableCores);
+        this.memoryBudgetInMegabytes = Math.max(1, memoryBudgetInMegabytes);
+    }
+
+    public int getAvailableCores() {
+        return availableCores;
+    }
+
+    public long getMemoryBudgetInMegabytes() {
+        return memoryBudgetInMegabytes;
+    }
+
+}
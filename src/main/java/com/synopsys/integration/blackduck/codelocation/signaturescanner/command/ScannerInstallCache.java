@@ -0,0 +1,321 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * A host-wide cache of expanded signature scanners. Each download is stored once, under the SHA-256 of the zip, and every server (download url) records
+ * which entry it last served along with its last modified time. Install directories get hard links to the cached files (or copies, where hard links are not
+ * possible), so after the first job a scanner install is only a conditional request and a directory of links.
+ * <p>
+ * Every change is made while holding a file lock for the server, so concurrent jobs and processes on the same host download and expand a scanner once.
+ * <p>
+ * The cache holds executables, so where POSIX permissions are supported it is only used when the cache directory is owned by the current user and not
+ * writable by anyone else. The default cache directory is under the user's home directory.
+ */
+public class ScannerInstallCache {
+    public static final String DEFAULT_CACHE_DIRECTORY_NAME = ".blackduck-scanner-install-cache";
+
+    private static final String ENTRIES_DIRECTORY = "entries";
+    private static final String SERVERS_DIRECTORY = "servers";
+    private static final String LOCKS_DIRECTORY = "locks";
+    private static final String SHA_256_PROPERTY = "sha256";
+    private static final String LAST_MODIFIED_PROPERTY = "lastModified";
+    private static final String INSTALLED_ENTRY_MARKER = ".scannerInstallCacheEntry";
+    // an entry is only pruned once it has been unreferenced for a while, so one that another server is still storing is never removed
+    private static final long UNREFERENCED_ENTRY_GRACE_PERIOD_IN_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Set<PosixFilePermission> OWNER_ONLY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    // FileLock is held per JVM, so threads of the same JVM are serialized separately
+    private static final ConcurrentHashMap<String, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final IntLogger logger;
+    private final File cacheDirectory;
+    private volatile boolean cacheDirectoryVerified;
+
+    public static ScannerInstallCache createDefault(IntLogger logger) {
+        return new ScannerInstallCache(logger, new File(System.getProperty("user.home"), DEFAULT_CACHE_DIRECTORY_NAME));
+    }
+
+    public ScannerInstallCache(IntLogger logger, File cacheDirectory) {
+        this.logger = logger;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public String createServerKey(String downloadUrl) {
+        return sha256Hex(downloadUrl.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public <T> T withServerLock(String serverKey, CacheAction<T> cacheAction) throws Exception {
+        verifyCacheDirectory();
+        File lockFile = new File(new File(cacheDirectory, LOCKS_DIRECTORY), serverKey + ".lock");
+        lockFile.getParentFile().mkdirs();
+
+        ReentrantLock jvmLock = JVM_LOCKS.computeIfAbsent(lockFile.getAbsolutePath(), ignored -> new ReentrantLock());
+        jvmLock.lock();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(lockFile, "rw"); FileChannel fileChannel = randomAccessFile.getChannel(); FileLock ignored = fileChannel.lock()) {
+            return cacheAction.perform();
+        } finally {
+            jvmLock.unlock();
+        }
+    }
+
+    public Optional<ScannerInstallCacheEntry> findCurrentEntry(String serverKey) throws IOException {
+        File serverFile = getServerFile(serverKey);
+        if (!serverFile.isFile()) {
+            return Optional.empty();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(serverFile.toPath())) {
+            properties.load(inputStream);
+        }
+        String sha256 = properties.getProperty(SHA_256_PROPERTY);
+        String lastModified = properties.getProperty(LAST_MODIFIED_PROPERTY);
+        if (null == sha256 || null == lastModified) {
+            return Optional.empty();
+        }
+
+        ScannerInstallCacheEntry entry = new ScannerInstallCacheEntry(sha256, getEntryDirectory(sha256), Long.parseLong(lastModified));
+        if (!entry.getDirectory().isDirectory()) {
+            logger.debug(String.format("The cached scanner %s is missing so it will be downloaded again.", sha256));
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    /**
+     * Stores the downloaded zip (if no entry with the same content exists yet) and records it as the current entry of the server. Must be called while
+     * holding the server lock.
+     */
+    public ScannerInstallCacheEntry storeEntry(String serverKey, File downloadedZip, String sha256, long lastModified, ScannerZipExpander scannerZipExpander) throws IOException {
+        File entryDirectory = getEntryDirectory(sha256);
+        if (!entryDirectory.isDirectory()) {
+            File stagingDirectory = new File(entryDirectory.getParentFile(), sha256 + ".staging");
+            FileUtils.deleteQuietly(stagingDirectory);
+            stagingDirectory.mkdirs();
+            scannerZipExpander.expand(downloadedZip, stagingDirectory);
+            try {
+                Files.move(stagingDirectory.toPath(), entryDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // another host process sharing the cache without the lock won the race - its identical content is used
+                FileUtils.deleteQuietly(stagingDirectory);
+            }
+        } else {
+            logger.debug(String.format("The downloaded scanner is already cached as %s.", sha256));
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(SHA_256_PROPERTY, sha256);
+        properties.setProperty(LAST_MODIFIED_PROPERTY, Long.toString(lastModified));
+        File serverFile = getServerFile(serverKey);
+        serverFile.getParentFile().mkdirs();
+        File temporaryServerFile = new File(serverFile.getParentFile(), serverFile.getName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(temporaryServerFile.toPath())) {
+            properties.store(outputStream, null);
+        }
+        Files.move(temporaryServerFile.toPath(), serverFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        pruneUnreferencedEntries();
+        return new ScannerInstallCacheEntry(sha256, entryDirectory, lastModified);
+    }
+
+    /**
+     * Deletes the entries (and abandoned staging directories) that no server has referenced for the grace period. Install directories keep working, as
+     * they hold links or copies of the files rather than the entry itself.
+     */
+    public void pruneUnreferencedEntries() throws IOException {
+        File[] entryDirectories = new File(cacheDirectory, ENTRIES_DIRECTORY).listFiles(File::isDirectory);
+        if (null == entryDirectories) {
+            return;
+        }
+
+        Set<String> referencedEntries = new HashSet<>();
+        File[] serverFiles = new File(cacheDirectory, SERVERS_DIRECTORY).listFiles((directory, name) -> name.endsWith(".properties"));
+        if (null != serverFiles) {
+            for (File serverFile : serverFiles) {
+                Properties properties = new Properties();
+                try (InputStream inputStream = Files.newInputStream(serverFile.toPath())) {
+                    properties.load(inputStream);
+                }
+                Optional.ofNullable(properties.getProperty(SHA_256_PROPERTY)).ifPresent(referencedEntries::add);
+            }
+        }
+
+        long graceCutoff = System.currentTimeMillis() - UNREFERENCED_ENTRY_GRACE_PERIOD_IN_MILLIS;
+        for (File entryDirectory : entryDirectories) {
+            if (!referencedEntries.contains(entryDirectory.getName()) && entryDirectory.lastModified() < graceCutoff) {
+                logger.debug(String.format("Removing the unreferenced cached scanner %s.", entryDirectory.getName()));
+                FileUtils.deleteQuietly(entryDirectory);
+            }
+        }
+    }
+
+    public boolean isInstalled(ScannerInstallCacheEntry entry, File installedDirectory) throws IOException {
+        File marker = new File(installedDirectory, INSTALLED_ENTRY_MARKER);
+        return marker.isFile() && entry.getSha256().equals(new String(Files.readAllBytes(marker.toPath()), StandardCharsets.UTF_8).trim());
+    }
+
+    /**
+     * Fills the (new, empty) directory with links to the cached entry. The installer decides when it replaces the previous scanner.
+     */
+    public void install(ScannerInstallCacheEntry entry, File installedDirectory) throws IOException {
+        Path source = entry.getDirectory().toPath();
+        Path target = installedDirectory.toPath();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(directory).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Path link = target.resolve(source.relativize(file).toString());
+                Files.deleteIfExists(link);
+                try {
+                    Files.createLink(link, file);
+                } catch (IOException | UnsupportedOperationException e) {
+                    Files.copy(file, link, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        Files.write(new File(installedDirectory, INSTALLED_ENTRY_MARKER).toPath(), entry.getSha256().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Installed files are shared with the cache, so a file that will be modified in place (like cacerts) must first be replaced with a private copy.
+     */
+    public void detach(File installedFile) throws IOException {
+        if (!installedFile.isFile()) {
+            return;
+        }
+        File privateCopy = new File(installedFile.getParentFile(), installedFile.getName() + ".detached");
+        Files.copy(installedFile.toPath(), privateCopy.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        Files.move(privateCopy.toPath(), installedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    private void verifyCacheDirectory() throws IOException {
+        if (cacheDirectoryVerified) {
+            return;
+        }
+
+        Path cachePath = cacheDirectory.getAbsoluteFile().toPath();
+        boolean posix = Files.getFileStore(Files.createDirectories(cachePath.getParent())).supportsFileAttributeView(PosixFileAttributeView.class);
+        if (!Files.exists(cachePath, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                if (posix) {
+                    Files.createDirectory(cachePath, PosixFilePermissions.asFileAttribute(OWNER_ONLY_PERMISSIONS));
+                } else {
+                    Files.createDirectory(cachePath);
+                }
+            } catch (FileAlreadyExistsException e) {
+                // created concurrently - it is verified below like any existing directory
+            }
+        }
+
+        if (!Files.isDirectory(cachePath, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(String.format("The scanner install cache %s is not a directory.", cacheDirectory.getAbsolutePath()));
+        }
+        if (posix) {
+            // without POSIX permissions (Windows) the owner may be a group the user belongs to, so only the per-user location protects the cache
+            UserPrincipal currentUser = cachePath.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+            if (!currentUser.equals(Files.getOwner(cachePath, LinkOption.NOFOLLOW_LINKS))) {
+                throw new IOException(String.format("The scanner install cache %s is not owned by %s.", cacheDirectory.getAbsolutePath(), currentUser.getName()));
+            }
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(cachePath, LinkOption.NOFOLLOW_LINKS);
+            if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                throw new IOException(String.format("The scanner install cache %s can be written by other users.", cacheDirectory.getAbsolutePath()));
+            }
+        }
+        cacheDirectoryVerified = true;
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        return Hex.encodeHexString(createSha256Digest().digest(bytes));
+    }
+
+    private static MessageDigest createSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private File getEntryDirectory(String sha256) {
+        return new File(new File(cacheDirectory, ENTRIES_DIRECTORY), sha256);
+    }
+
+    private File getServerFile(String serverKey) {
+        return new File(new File(cacheDirectory, SERVERS_DIRECTORY), serverKey + ".properties");
+    }
+
+    @FunctionalInterface
+    public interface CacheAction<T> {
+        T perform() throws Exception;
+
+    }
+
+}
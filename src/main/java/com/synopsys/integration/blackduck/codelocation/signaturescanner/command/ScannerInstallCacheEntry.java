@@ -0,0 +1,53 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.io.File;
+
+public class ScannerInstallCacheEntry {
+    private final String sha256;
+    private final File directory;
+    private final long lastModified;
+
+    public ScannerInstallCacheEntry(String sha256, File directory, long lastModified) {
+        this.sha256 = sha256;
+        this.directory = directory;
+        this.lastModified = lastModified;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the last modified time the server reported for this download
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+}
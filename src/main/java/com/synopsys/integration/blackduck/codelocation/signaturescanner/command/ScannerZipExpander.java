@@ -0,0 +1,119 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Expands a downloaded scanner zip with several threads, verifying the CRC of every entry as it is written.
+ */
+public class ScannerZipExpander {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final IntLogger logger;
+    private final int parallelism;
+
+    public ScannerZipExpander(IntLogger logger) {
+        this(logger, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ScannerZipExpander(IntLogger logger, int parallelism) {
+        this.logger = logger;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void expand(File zipFile, File targetDirectory) throws IOException {
+        String canonicalTargetPath = targetDirectory.getCanonicalPath() + File.separator;
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            List<Future<?>> expandedEntries = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                File target = new File(targetDirectory, entry.getName());
+                if (!target.getCanonicalPath().startsWith(canonicalTargetPath)) {
+                    throw new IOException(String.format("The zip entry %s is outside of the target directory.", entry.getName()));
+                }
+
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target.toPath());
+                } else {
+                    expandedEntries.add(executorService.submit(() -> {
+                        expandEntry(zip, entry, target);
+                        return null;
+                    }));
+                }
+            }
+
+            for (Future<?> expandedEntry : expandedEntries) {
+                expandedEntry.get();
+            }
+            logger.debug(String.format("Expanded %d files from %s.", expandedEntries.size(), zipFile.getAbsolutePath()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while expanding " + zipFile.getAbsolutePath(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void expandEntry(ZipFile zip, ZipEntry entry, File target) throws IOException {
+        Files.createDirectories(target.getParentFile().toPath());
+
+        CRC32 crc32 = new CRC32();
+        try (InputStream entryStream = new CheckedInputStream(zip.getInputStream(entry), crc32); OutputStream targetStream = Files.newOutputStream(target.toPath())) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = entryStream.read(buffer)) >= 0) {
+                targetStream.write(buffer, 0, bytesRead);
+            }
+        }
+
+        if (-1 != entry.getCrc() && entry.getCrc() != crc32.getValue()) {
+            throw new IOException(String.format("The zip entry %s is corrupt - its CRC does not match.", entry.getName()));
+        }
+    }
+
+}
@@ -25,9 +25,23 @@ package com.synopsys.integration.blackduck.codelocation.signaturescanner.command
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
 
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.keystore.KeyStoreHelper;
@@ -48,13 +62,23 @@ public class ScannerZipInstaller {
     public static final String BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY = "Black_Duck_Scan_Installation";
     public static final String VERSION_FILENAME = "blackDuckVersion.txt";
 
+    public static final String CURRENT_SCANNER_FILENAME = "currentScanner.txt";
+    public static final String SCANNER_GENERATION_PREFIX = "generation-";
+
+    private static final String DOWNLOADED_ZIP_PREFIX = "scan.cli";
+    // a scan keeps using the scanner it started with, so a replaced scanner is only deleted once it has been retired for longer than any scan runs
+    private static final long RETIRED_SCANNER_GRACE_PERIOD_IN_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final String DIGEST_HEADER = "Digest";
+    private static final String DIGEST_SHA_256_PREFIX = "sha-256=";
+
     private final IntLogger logger;
     private final IntHttpClient intHttpClient;
-    private final CleanupZipExpander cleanupZipExpander;
     private final ScanPathsUtility scanPathsUtility;
     private final KeyStoreHelper keyStoreHelper;
     private final HttpUrl blackDuckServerUrl;
     private final OperatingSystemType operatingSystemType;
+    private final ScannerInstallCache scannerInstallCache;
+    private final ScannerZipExpander scannerZipExpander;
 
     @Deprecated
     /**
@@ -64,18 +88,30 @@ public class ScannerZipInstaller {
         this(logger, intHttpClient, cleanupZipExpander, scanPathsUtility, new KeyStoreHelper(logger), blackDuckServerUrl, operatingSystemType);
     }
 
+    /**
+     * The CleanupZipExpander is no longer used (scanners are expanded by a ScannerZipExpander) and is only accepted for compatibility.
+     */
     public ScannerZipInstaller(final IntLogger logger, final IntHttpClient intHttpClient, final CleanupZipExpander cleanupZipExpander, final ScanPathsUtility scanPathsUtility, final KeyStoreHelper keyStoreHelper, final HttpUrl blackDuckServerUrl, final OperatingSystemType operatingSystemType) {
+        this(logger, intHttpClient, scanPathsUtility, keyStoreHelper, blackDuckServerUrl, operatingSystemType, null);
+    }
+
+    /**
+     * @param scannerInstallCache if not null, scanners are downloaded and expanded once into this host-wide cache and linked into each install directory
+     */
+    public ScannerZipInstaller(IntLogger logger, IntHttpClient intHttpClient, ScanPathsUtility scanPathsUtility, KeyStoreHelper keyStoreHelper, HttpUrl blackDuckServerUrl, OperatingSystemType operatingSystemType,
+        ScannerInstallCache scannerInstallCache) {
         if (null == blackDuckServerUrl) {
             throw new IllegalArgumentException("A Black Duck server url must be provided.");
         }
 
         this.logger = logger;
         this.intHttpClient = intHttpClient;
-        this.cleanupZipExpander = cleanupZipExpander;
         this.scanPathsUtility = scanPathsUtility;
         this.keyStoreHelper = keyStoreHelper;
         this.blackDuckServerUrl = blackDuckServerUrl;
         this.operatingSystemType = operatingSystemType;
+        this.scannerInstallCache = scannerInstallCache;
+        this.scannerZipExpander = new ScannerZipExpander(logger);
     }
 
     /**
@@ -98,7 +134,12 @@ public class ScannerZipInstaller {
 
         HttpUrl downloadUrl = getDownloadUrl();
         try {
-            downloadIfModified(scannerExpansionDirectory, versionFile, downloadUrl);
+            if (null != scannerInstallCache) {
+                installFromCache(scannerExpansionDirectory, versionFile, downloadUrl);
+            } else {
+                downloadIfModified(scannerExpansionDirectory, versionFile, downloadUrl);
+            }
+            pruneRetiredScanners(scannerExpansionDirectory);
         } catch (Exception e) {
             throw new BlackDuckIntegrationException("The Black Duck Signature Scanner could not be downloaded successfully: " + e.getMessage(), e);
         }
@@ -138,7 +179,7 @@ public class ScannerZipInstaller {
         }
     }
 
-    private void downloadIfModified(File scannerExpansionDirectory, File versionFile, HttpUrl downloadUrl) throws IOException, IntegrationException, ArchiveException {
+    private void downloadIfModified(File scannerExpansionDirectory, File versionFile, HttpUrl downloadUrl) throws IOException, IntegrationException {
         long lastTimeDownloaded = versionFile.lastModified();
         logger.debug(String.format("last time downloaded: %d", lastTimeDownloaded));
 
@@ -146,34 +187,219 @@ public class ScannerZipInstaller {
         Optional<Response> optionalResponse = intHttpClient.executeGetRequestIfModifiedSince(downloadRequest, lastTimeDownloaded);
         if (optionalResponse.isPresent()) {
             Response response = optionalResponse.get();
+            File downloadedZip = null;
             try {
                 logger.info("Downloading the Black Duck Signature Scanner.");
-                try (InputStream responseStream = response.getContent()) {
-                    logger.info(String.format(
-                        "If your Black Duck server has changed, the contents of %s may change which could involve deleting files - please do not place items in the expansion directory as this directory is assumed to be under blackduck-common control.",
-                        scannerExpansionDirectory.getAbsolutePath()));
-                    cleanupZipExpander.expand(responseStream, scannerExpansionDirectory);
-                }
+                logger.info(String.format(
+                    "If your Black Duck server has changed, the contents of %s may change which could involve deleting files - please do not place items in the expansion directory as this directory is assumed to be under blackduck-common control.",
+                    scannerExpansionDirectory.getAbsolutePath()));
+                // the current scanner stays in use until the new one is downloaded, verified, expanded and prepared next to it
+                downloadedZip = File.createTempFile(DOWNLOADED_ZIP_PREFIX, ".zip", scannerExpansionDirectory);
+                spoolDownload(response, downloadedZip);
+                File zipToExpand = downloadedZip;
+                installGeneration(scannerExpansionDirectory, downloadUrl, generationDirectory -> scannerZipExpander.expand(zipToExpand, generationDirectory));
+
                 long lastModifiedOnServer = response.getLastModified();
                 versionFile.setLastModified(lastModifiedOnServer);
 
-                ScanPaths scanPaths = scanPathsUtility.determineSignatureScannerPaths(scannerExpansionDirectory.getParentFile());
-                File javaExecutable = new File(scanPaths.getPathToJavaExecutable());
-                File oneJar = new File(scanPaths.getPathToOneJar());
-                File scanExecutable = new File(scanPaths.getPathToScanExecutable());
-                javaExecutable.setExecutable(true);
-                oneJar.setExecutable(true);
-                scanExecutable.setExecutable(true);
-
-                keyStoreHelper.updateKeyStoreWithServerCertificate(downloadUrl, scanPaths.getPathToCacerts());
-
                 logger.info(String.format("Black Duck Signature Scanner downloaded successfully."));
             } finally {
                 response.close();
+                FileUtils.deleteQuietly(downloadedZip);
             }
         } else {
             logger.debug("The Black Duck Signature Scanner has not been modified since it was last downloaded - skipping download.");
         }
     }
 
+    private void installFromCache(File scannerExpansionDirectory, File versionFile, HttpUrl downloadUrl) throws Exception {
+        String serverKey = scannerInstallCache.createServerKey(downloadUrl.string());
+        scannerInstallCache.withServerLock(serverKey, () -> {
+            Optional<ScannerInstallCacheEntry> currentEntry = scannerInstallCache.findCurrentEntry(serverKey);
+            long lastTimeDownloaded = currentEntry.map(ScannerInstallCacheEntry::getLastModified).orElse(0L);
+            logger.debug(String.format("last time downloaded to the cache: %d", lastTimeDownloaded));
+
+            Request downloadRequest = new Request.Builder(downloadUrl).build();
+            Optional<Response> optionalResponse = intHttpClient.executeGetRequestIfModifiedSince(downloadRequest, lastTimeDownloaded);
+            ScannerInstallCacheEntry entry;
+            if (optionalResponse.isPresent()) {
+                entry = downloadToCache(serverKey, optionalResponse.get());
+            } else if (currentEntry.isPresent()) {
+                logger.debug("The Black Duck Signature Scanner has not been modified since it was last cached - skipping download.");
+                entry = currentEntry.get();
+            } else {
+                throw new BlackDuckIntegrationException("The Black Duck Signature Scanner was not downloaded and no cached scanner is available.");
+            }
+
+            Optional<File> currentGeneration = findCurrentScannerGeneration(scannerExpansionDirectory);
+            if (currentGeneration.isPresent() && scannerInstallCache.isInstalled(entry, currentGeneration.get())) {
+                logger.debug(String.format("The cached Black Duck Signature Scanner %s is already installed in %s.", entry.getSha256(), scannerExpansionDirectory.getAbsolutePath()));
+            } else {
+                logger.info(String.format("Installing the cached Black Duck Signature Scanner %s into %s.", entry.getSha256(), scannerExpansionDirectory.getAbsolutePath()));
+                installGeneration(scannerExpansionDirectory, downloadUrl, generationDirectory -> scannerInstallCache.install(entry, generationDirectory));
+                versionFile.setLastModified(entry.getLastModified());
+            }
+            return entry;
+        });
+    }
+
+    private ScannerInstallCacheEntry downloadToCache(String serverKey, Response response) throws IOException, IntegrationException {
+        try {
+            logger.info(String.format("Downloading the Black Duck Signature Scanner into the cache at %s.", scannerInstallCache.getCacheDirectory().getAbsolutePath()));
+            File downloadedZip = File.createTempFile("scan.cli", ".zip", scannerInstallCache.getCacheDirectory());
+            try {
+                String sha256 = spoolDownload(response, downloadedZip);
+                return scannerInstallCache.storeEntry(serverKey, downloadedZip, sha256, response.getLastModified(), scannerZipExpander);
+            } finally {
+                Files.deleteIfExists(downloadedZip.toPath());
+            }
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Copies the download to the file and verifies its length against the Content-Length. Its SHA-256 is only verified when the server sends a Digest
+     * header - without one, the CRCs of the entries (checked by the ScannerZipExpander) are the only check of the content.
+     * @return the hex encoded SHA-256 of the download
+     */
+    private String spoolDownload(Response response, File downloadedZip) throws IOException, IntegrationException {
+        MessageDigest sha256Digest = DigestUtils.getSha256Digest();
+        long downloadedLength;
+        try (InputStream responseStream = new DigestInputStream(response.getContent(), sha256Digest); OutputStream zipStream = Files.newOutputStream(downloadedZip.toPath())) {
+            downloadedLength = IOUtils.copyLarge(responseStream, zipStream);
+        }
+        byte[] sha256 = sha256Digest.digest();
+
+        String contentLength = response.getHeaderValue(HttpHeaders.CONTENT_LENGTH);
+        if (StringUtils.isNumeric(contentLength) && null == response.getHeaderValue(HttpHeaders.CONTENT_ENCODING) && Long.parseLong(contentLength) != downloadedLength) {
+            throw new BlackDuckIntegrationException(String.format("The Black Duck Signature Scanner download is incomplete: expected %s bytes but received %d.", contentLength, downloadedLength));
+        }
+
+        Optional<byte[]> expectedSha256 = findExpectedSha256(response.getHeaderValue(DIGEST_HEADER));
+        if (!expectedSha256.isPresent()) {
+            logger.warn("The server did not send a SHA-256 Digest for the Black Duck Signature Scanner download, so only its length and the CRCs of its entries can be verified.");
+        } else if (!MessageDigest.isEqual(expectedSha256.get(), sha256)) {
+            throw new BlackDuckIntegrationException("The Black Duck Signature Scanner download is corrupt: its SHA-256 does not match the Digest sent by the server.");
+        }
+
+        String sha256Hex = Hex.encodeHexString(sha256);
+        logger.debug(String.format("Downloaded %d bytes with a SHA-256 of %s.", downloadedLength, sha256Hex));
+        return sha256Hex;
+    }
+
+    private Optional<byte[]> findExpectedSha256(String digestHeader) {
+        if (StringUtils.isBlank(digestHeader)) {
+            return Optional.empty();
+        }
+
+        for (String digest : digestHeader.split(",")) {
+            String trimmedDigest = digest.trim();
+            if (StringUtils.startsWithIgnoreCase(trimmedDigest, DIGEST_SHA_256_PREFIX)) {
+                return Optional.of(Base64.getDecoder().decode(trimmedDigest.substring(DIGEST_SHA_256_PREFIX.length())));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes the scanner into a new generation directory and, once it is prepared, makes it the current scanner. A generation that fails is deleted, as
+     * nothing can be using it yet.
+     */
+    private void installGeneration(File scannerExpansionDirectory, HttpUrl downloadUrl, GenerationWriter generationWriter) throws IOException, IntegrationException {
+        File generationDirectory = Files.createTempDirectory(scannerExpansionDirectory.toPath(), SCANNER_GENERATION_PREFIX).toFile();
+        boolean activated = false;
+        try {
+            generationWriter.write(generationDirectory);
+            prepareInstalledScanner(generationDirectory, downloadUrl);
+            activate(scannerExpansionDirectory, generationDirectory);
+            activated = true;
+        } finally {
+            if (!activated) {
+                FileUtils.deleteQuietly(generationDirectory);
+            }
+        }
+    }
+
+    /**
+     * The current scanner file is replaced in a single atomic rename, so the scan paths lookup always finds either the previous scanner or the new one,
+     * both complete. The previous scanner is not touched beyond marking when it was retired - scans that already started with it keep running, and
+     * pruneRetiredScanners deletes it after the grace period.
+     */
+    private void activate(File scannerExpansionDirectory, File generationDirectory) throws IOException {
+        Optional<File> previousGeneration = findCurrentScannerGeneration(scannerExpansionDirectory);
+
+        File currentScannerFile = new File(scannerExpansionDirectory, CURRENT_SCANNER_FILENAME);
+        File temporaryCurrentScannerFile = File.createTempFile(CURRENT_SCANNER_FILENAME, ".tmp", scannerExpansionDirectory);
+        try {
+            Files.write(temporaryCurrentScannerFile.toPath(), generationDirectory.getName().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporaryCurrentScannerFile.toPath(), currentScannerFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryCurrentScannerFile.toPath());
+        }
+        scanPathsUtility.invalidateSignatureScannerPaths(scannerExpansionDirectory.getParentFile());
+
+        long retiredTime = System.currentTimeMillis();
+        if (previousGeneration.isPresent()) {
+            previousGeneration.get().setLastModified(retiredTime);
+        } else {
+            // installed before the current scanner file was introduced, so any of the other directories may be in use
+            File[] previousDirectories = scannerExpansionDirectory.listFiles(file -> file.isDirectory() && !file.getName().equals(generationDirectory.getName()));
+            if (null != previousDirectories) {
+                Arrays.stream(previousDirectories).forEach(previousDirectory -> previousDirectory.setLastModified(retiredTime));
+            }
+        }
+    }
+
+    /**
+     * Deletes the scanners that were retired (and the generations of installs that never finished) longer than the grace period ago.
+     */
+    private void pruneRetiredScanners(File scannerExpansionDirectory) {
+        Optional<File> currentGeneration = findCurrentScannerGeneration(scannerExpansionDirectory);
+        File[] directories = scannerExpansionDirectory.listFiles(File::isDirectory);
+        if (!currentGeneration.isPresent() || null == directories) {
+            // without a current scanner, the directory in use can't be told apart from the retired ones
+            return;
+        }
+
+        long graceCutoff = System.currentTimeMillis() - RETIRED_SCANNER_GRACE_PERIOD_IN_MILLIS;
+        for (File directory : directories) {
+            if (!directory.getName().equals(currentGeneration.get().getName()) && directory.lastModified() < graceCutoff) {
+                logger.debug(String.format("Removing the retired Black Duck Signature Scanner %s.", directory.getAbsolutePath()));
+                FileUtils.deleteQuietly(directory);
+            }
+        }
+    }
+
+    private Optional<File> findCurrentScannerGeneration(File scannerExpansionDirectory) {
+        try {
+            return scanPathsUtility.findCurrentScannerGeneration(scannerExpansionDirectory);
+        } catch (BlackDuckIntegrationException e) {
+            logger.debug(e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void prepareInstalledScanner(File generationDirectory, HttpUrl downloadUrl) throws IOException, IntegrationException {
+        ScanPaths scanPaths = scanPathsUtility.determineInstalledScannerPaths(generationDirectory);
+        File javaExecutable = new File(scanPaths.getPathToJavaExecutable());
+        File oneJar = new File(scanPaths.getPathToOneJar());
+        File scanExecutable = new File(scanPaths.getPathToScanExecutable());
+        javaExecutable.setExecutable(true);
+        oneJar.setExecutable(true);
+        scanExecutable.setExecutable(true);
+
+        if (null != scannerInstallCache) {
+            // the key store is updated in place, so it must not be shared with the cache
+            scannerInstallCache.detach(new File(scanPaths.getPathToCacerts()));
+        }
+        keyStoreHelper.updateKeyStoreWithServerCertificate(downloadUrl, scanPaths.getPathToCacerts());
+    }
+
+    @FunctionalInterface
+    private interface GenerationWriter {
+        void write(File generationDirectory) throws IOException;
+
+    }
+
 }
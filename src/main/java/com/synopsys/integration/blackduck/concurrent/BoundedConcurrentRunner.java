@@ -0,0 +1,149 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Runs tasks on an ExecutorService while never allowing more than maxConcurrentTasks of them (across every caller of this runner) to be
+ * submitted but not yet finished. A permit is acquired by the submitting thread, so no pool thread is ever parked waiting for one.
+ */
+public class BoundedConcurrentRunner {
+    // set while a pool thread runs a task of any runner, so a nested runAll can tell it would be waiting on its own pool
+    private static final ThreadLocal<Boolean> RUNNING_TASK = ThreadLocal.withInitial(() -> false);
+
+    private final ExecutorService executorService;
+    private final int maxConcurrentTasks;
+    private final Semaphore taskPermits;
+
+    public BoundedConcurrentRunner(ExecutorService executorService, int maxConcurrentTasks) {
+        if (null == executorService) {
+            throw new IllegalArgumentException("An ExecutorService is required to run tasks concurrently.");
+        }
+        this.executorService = executorService;
+        this.maxConcurrentTasks = Math.max(1, maxConcurrentTasks);
+        this.taskPermits = new Semaphore(this.maxConcurrentTasks);
+    }
+
+    /**
+     * Tasks are submitted as permits become available. Once a task fails, no more tasks are submitted, the submitted tasks that have not started yet
+     * are skipped and the failure is thrown - an IntegrationException is thrown as-is, anything else is wrapped.
+     * <p>
+     * A task that itself calls runAll (on this or any other runner) would park a pool thread waiting for tasks queued behind it, which can deadlock a
+     * fixed pool shared by both levels (for example a concurrent BOM lookup whose requests page concurrently on the same executor). Such nested calls
+     * therefore run their tasks one at a time on the calling thread, so only the outermost runAll is concurrent.
+     * @return the results of the tasks, in the same order as the tasks
+     */
+    public <T> List<T> runAll(List<Callable<T>> tasks) throws IntegrationException {
+        if (RUNNING_TASK.get()) {
+            return runInline(tasks);
+        }
+
+        List<Future<T>> submittedTasks = new ArrayList<>(tasks.size());
+        // futures are never cancelled, as a cancelled task that never started would never release its permit
+        AtomicBoolean skipRemainingTasks = new AtomicBoolean(false);
+        try {
+            for (Callable<T> task : tasks) {
+                if (skipRemainingTasks.get()) {
+                    break;
+                }
+                submittedTasks.add(submit(task, skipRemainingTasks));
+            }
+
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> submittedTask : submittedTasks) {
+                results.add(submittedTask.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException("Interrupted while waiting for tasks to complete: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw toIntegrationException(e.getCause());
+        } finally {
+            skipRemainingTasks.set(true);
+        }
+    }
+
+    public int getMaxConcurrentTasks() {
+        return maxConcurrentTasks;
+    }
+
+    int getAvailablePermits() {
+        return taskPermits.availablePermits();
+    }
+
+    private <T> Future<T> submit(Callable<T> task, AtomicBoolean skipRemainingTasks) throws InterruptedException {
+        taskPermits.acquire();
+        try {
+            return executorService.submit(() -> {
+                RUNNING_TASK.set(true);
+                try {
+                    if (skipRemainingTasks.get()) {
+                        return null;
+                    }
+                    return task.call();
+                } catch (Exception e) {
+                    skipRemainingTasks.set(true);
+                    throw e;
+                } finally {
+                    RUNNING_TASK.set(false);
+                    taskPermits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            taskPermits.release();
+            throw e;
+        }
+    }
+
+    private <T> List<T> runInline(List<Callable<T>> tasks) throws IntegrationException {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            try {
+                results.add(task.call());
+            } catch (Exception e) {
+                throw toIntegrationException(e);
+            }
+        }
+        return results;
+    }
+
+    private IntegrationException toIntegrationException(Throwable failure) {
+        if (failure instanceof IntegrationException) {
+            return (IntegrationException) failure;
+        }
+        return new BlackDuckIntegrationException(failure.getMessage(), failure);
+    }
+
+}
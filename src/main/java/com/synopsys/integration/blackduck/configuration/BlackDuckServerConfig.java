@@ -32,7 +32,9 @@ import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.generated.discovery.BlackDuckMediaTypeDiscovery;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
 import com.synopsys.integration.blackduck.http.client.ApiTokenBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.BlackDuckConnectionPoolConfig;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.CookieHeaderParser;
 import com.synopsys.integration.blackduck.http.client.CredentialsBlackDuckHttpClient;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.builder.Buildable;
@@ -68,24 +70,42 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
     private final BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery;
     private final ExecutorService executorService;
     private final BlackDuckRequestFactory blackDuckRequestFactory;
+    private final BlackDuckConnectionPoolConfig connectionPoolConfig;
 
     BlackDuckServerConfig(
         HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, Credentials credentials, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
         AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery,
         ExecutorService executorService, BlackDuckRequestFactory blackDuckRequestFactory) {
+        this(url, solutionDetails, timeoutSeconds, credentials, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, blackDuckMediaTypeDiscovery, executorService,
+            blackDuckRequestFactory, null);
+    }
+
+    BlackDuckServerConfig(
+        HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, Credentials credentials, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
+        AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery,
+        ExecutorService executorService, BlackDuckRequestFactory blackDuckRequestFactory, BlackDuckConnectionPoolConfig connectionPoolConfig) {
         this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, blackDuckMediaTypeDiscovery, executorService, credentials, null,
-            blackDuckRequestFactory);
+            blackDuckRequestFactory, connectionPoolConfig);
     }
 
     BlackDuckServerConfig(
         HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, String apiToken, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
         AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, ExecutorService executorService, BlackDuckRequestFactory blackDuckRequestFactory) {
+        this(url, solutionDetails, timeoutSeconds, apiToken, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, blackDuckMediaTypeDiscovery, executorService,
+            blackDuckRequestFactory, null);
+    }
+
+    BlackDuckServerConfig(
+        HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, String apiToken, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
+        AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, ExecutorService executorService, BlackDuckRequestFactory blackDuckRequestFactory,
+        BlackDuckConnectionPoolConfig connectionPoolConfig) {
         this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, blackDuckMediaTypeDiscovery, executorService, null, apiToken,
-            blackDuckRequestFactory);
+            blackDuckRequestFactory, connectionPoolConfig);
     }
 
     private BlackDuckServerConfig(HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
-        AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, ExecutorService executorService, Credentials credentials, String apiToken, BlackDuckRequestFactory blackDuckRequestFactory) {
+        AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, ExecutorService executorService, Credentials credentials, String apiToken, BlackDuckRequestFactory blackDuckRequestFactory,
+        BlackDuckConnectionPoolConfig connectionPoolConfig) {
         blackDuckUrl = url;
         this.solutionDetails = solutionDetails;
         this.credentials = credentials;
@@ -100,6 +120,7 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         this.blackDuckMediaTypeDiscovery = blackDuckMediaTypeDiscovery;
         this.executorService = executorService;
         this.blackDuckRequestFactory = blackDuckRequestFactory;
+        this.connectionPoolConfig = connectionPoolConfig;
     }
 
     public boolean shouldUseProxyForBlackDuck() {
@@ -123,6 +144,10 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         if (alwaysTrustServerCertificate) {
             logger.alwaysLog("--> Trust Black Duck certificate: " + isAlwaysTrustServerCertificate());
         }
+        if (connectionPoolConfig != null) {
+            logger.alwaysLog("--> Max Connections: " + connectionPoolConfig.getMaxConnectionsTotal());
+            logger.alwaysLog("--> Max Connections Per Route: " + connectionPoolConfig.getMaxConnectionsPerRoute());
+        }
         if (proxyInfo != null && proxyInfo.shouldUseProxy()) {
             if (StringUtils.isNotBlank(proxyInfo.getHost().orElse(null))) {
                 logger.alwaysLog("--> Proxy Host: " + proxyInfo.getHost());
@@ -194,12 +219,12 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
 
     public CredentialsBlackDuckHttpClient createCredentialsBlackDuckHttpClient(IntLogger logger) {
         return new CredentialsBlackDuckHttpClient(logger, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), authenticationSupport, getCredentials().orElse(null),
-            blackDuckMediaTypeDiscovery);
+            blackDuckMediaTypeDiscovery, new CookieHeaderParser(), connectionPoolConfig);
     }
 
     public ApiTokenBlackDuckHttpClient createApiTokenBlackDuckHttpClient(IntLogger logger) {
         return new ApiTokenBlackDuckHttpClient(logger, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), gson, authenticationSupport, getApiToken().orElse(null),
-            blackDuckMediaTypeDiscovery);
+            blackDuckMediaTypeDiscovery, connectionPoolConfig);
     }
 
     public boolean usingApiToken() {
@@ -226,6 +251,10 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         return proxyInfo;
     }
 
+    public Optional<BlackDuckConnectionPoolConfig> getConnectionPoolConfig() {
+        return Optional.ofNullable(connectionPoolConfig);
+    }
+
     public int getTimeout() {
         return timeoutSeconds;
     }
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -35,6 +36,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.generated.discovery.BlackDuckMediaTypeDiscovery;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.http.client.BlackDuckConnectionPoolConfig;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.builder.BuilderProperties;
 import com.synopsys.integration.builder.BuilderPropertyKey;
@@ -69,6 +71,11 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
     public static final BuilderPropertyKey PROXY_NTLM_DOMAIN_KEY = new BuilderPropertyKey("BLACKDUCK_PROXY_NTLM_DOMAIN");
     public static final BuilderPropertyKey PROXY_NTLM_WORKSTATION_KEY = new BuilderPropertyKey("BLACKDUCK_PROXY_NTLM_WORKSTATION");
     public static final BuilderPropertyKey TRUST_CERT_KEY = new BuilderPropertyKey("BLACKDUCK_TRUST_CERT");
+    public static final BuilderPropertyKey MAX_CONNECTIONS_KEY = new BuilderPropertyKey("BLACKDUCK_MAX_CONNECTIONS");
+    public static final BuilderPropertyKey MAX_CONNECTIONS_PER_ROUTE_KEY = new BuilderPropertyKey("BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE");
+    public static final BuilderPropertyKey CONNECTION_TTL_KEY = new BuilderPropertyKey("BLACKDUCK_CONNECTION_TTL");
+    public static final BuilderPropertyKey IDLE_CONNECTION_TIMEOUT_KEY = new BuilderPropertyKey("BLACKDUCK_IDLE_CONNECTION_TIMEOUT");
+    public static final BuilderPropertyKey SOCKET_BUFFER_SIZE_KEY = new BuilderPropertyKey("BLACKDUCK_SOCKET_BUFFER_SIZE");
 
     public static int DEFAULT_TIMEOUT_SECONDS = 120;
 
@@ -98,6 +105,11 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         propertyKeys.add(PROXY_NTLM_DOMAIN_KEY);
         propertyKeys.add(PROXY_NTLM_WORKSTATION_KEY);
         propertyKeys.add(TRUST_CERT_KEY);
+        propertyKeys.add(MAX_CONNECTIONS_KEY);
+        propertyKeys.add(MAX_CONNECTIONS_PER_ROUTE_KEY);
+        propertyKeys.add(CONNECTION_TTL_KEY);
+        propertyKeys.add(IDLE_CONNECTION_TIMEOUT_KEY);
+        propertyKeys.add(SOCKET_BUFFER_SIZE_KEY);
         builderProperties = new BuilderProperties(propertyKeys);
 
         builderProperties.set(TIMEOUT_KEY, Integer.toString(BlackDuckServerConfigBuilder.DEFAULT_TIMEOUT_SECONDS));
@@ -113,9 +125,10 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
 
         NameVersion solutionDetails = getSolutionDetails();
         ProxyInfo proxyInfo = getProxyInfo();
+        BlackDuckConnectionPoolConfig connectionPoolConfig = getConnectionPoolConfig();
         if (StringUtils.isNotBlank(getApiToken())) {
             return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimemoutInSeconds(), getApiToken(), proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, blackDuckMediaTypeDiscovery, executorService,
-                blackDuckRequestFactory);
+                blackDuckRequestFactory, connectionPoolConfig);
         } else {
             String username = getUsername();
             String password = getPassword();
@@ -124,7 +137,7 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
             Credentials credentials = credentialsBuilder.build();
 
             return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimemoutInSeconds(), credentials, proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, blackDuckMediaTypeDiscovery, executorService,
-                blackDuckRequestFactory);
+                blackDuckRequestFactory, connectionPoolConfig);
         }
     }
 
@@ -141,6 +154,20 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         if (getTimemoutInSeconds() <= 0) {
             builderStatus.addErrorMessage("The timeout must be greater than zero.");
         }
+
+        if (hasConnectionPoolProperties()) {
+            if (getMaxConnections() <= 0 || getMaxConnectionsPerRoute() <= 0) {
+                builderStatus.addErrorMessage("The maximum number of connections must be greater than zero.");
+            } else if (getMaxConnectionsPerRoute() > getMaxConnections()) {
+                builderStatus.addErrorMessage("The maximum number of connections per route can not exceed the maximum number of connections.");
+            }
+        }
+    }
+
+    private boolean hasConnectionPoolProperties() {
+        return Stream.of(MAX_CONNECTIONS_KEY, MAX_CONNECTIONS_PER_ROUTE_KEY, CONNECTION_TTL_KEY, IDLE_CONNECTION_TIMEOUT_KEY, SOCKET_BUFFER_SIZE_KEY)
+                   .map(builderProperties::get)
+                   .anyMatch(StringUtils::isNotBlank);
     }
 
     private void validateProxyDetails(BuilderStatus builderStatus) {
@@ -479,6 +506,86 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         return this;
     }
 
+    /**
+     * @return the connection pool settings, or null if none of the connection pool properties were set
+     */
+    public BlackDuckConnectionPoolConfig getConnectionPoolConfig() {
+        if (!hasConnectionPoolProperties()) {
+            return null;
+        }
+        return new BlackDuckConnectionPoolConfig(getMaxConnections(), getMaxConnectionsPerRoute(), getConnectionTimeToLiveInSeconds(), getIdleConnectionTimeoutInSeconds(), getSocketBufferSize());
+    }
+
+    public int getMaxConnections() {
+        return NumberUtils.toInt(builderProperties.get(MAX_CONNECTIONS_KEY), BlackDuckConnectionPoolConfig.DEFAULT_MAX_CONNECTIONS_TOTAL);
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnections(String maxConnections) {
+        builderProperties.set(MAX_CONNECTIONS_KEY, maxConnections);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnections(int maxConnections) {
+        setMaxConnections(String.valueOf(maxConnections));
+        return this;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return NumberUtils.toInt(builderProperties.get(MAX_CONNECTIONS_PER_ROUTE_KEY), BlackDuckConnectionPoolConfig.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnectionsPerRoute(String maxConnectionsPerRoute) {
+        builderProperties.set(MAX_CONNECTIONS_PER_ROUTE_KEY, maxConnectionsPerRoute);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        setMaxConnectionsPerRoute(String.valueOf(maxConnectionsPerRoute));
+        return this;
+    }
+
+    public int getConnectionTimeToLiveInSeconds() {
+        return NumberUtils.toInt(builderProperties.get(CONNECTION_TTL_KEY), BlackDuckConnectionPoolConfig.DEFAULT_CONNECTION_TTL_SECONDS);
+    }
+
+    public BlackDuckServerConfigBuilder setConnectionTimeToLiveInSeconds(String connectionTimeToLive) {
+        builderProperties.set(CONNECTION_TTL_KEY, connectionTimeToLive);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setConnectionTimeToLiveInSeconds(int connectionTimeToLive) {
+        setConnectionTimeToLiveInSeconds(String.valueOf(connectionTimeToLive));
+        return this;
+    }
+
+    public int getIdleConnectionTimeoutInSeconds() {
+        return NumberUtils.toInt(builderProperties.get(IDLE_CONNECTION_TIMEOUT_KEY), BlackDuckConnectionPoolConfig.DEFAULT_IDLE_CONNECTION_TIMEOUT_SECONDS);
+    }
+
+    public BlackDuckServerConfigBuilder setIdleConnectionTimeoutInSeconds(String idleConnectionTimeout) {
+        builderProperties.set(IDLE_CONNECTION_TIMEOUT_KEY, idleConnectionTimeout);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setIdleConnectionTimeoutInSeconds(int idleConnectionTimeout) {
+        setIdleConnectionTimeoutInSeconds(String.valueOf(idleConnectionTimeout));
+        return this;
+    }
+
+    public int getSocketBufferSize() {
+        return NumberUtils.toInt(builderProperties.get(SOCKET_BUFFER_SIZE_KEY), BlackDuckConnectionPoolConfig.DEFAULT_SOCKET_BUFFER_SIZE);
+    }
+
+    public BlackDuckServerConfigBuilder setSocketBufferSize(String socketBufferSize) {
+        builderProperties.set(SOCKET_BUFFER_SIZE_KEY, socketBufferSize);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setSocketBufferSize(int socketBufferSize) {
+        setSocketBufferSize(String.valueOf(socketBufferSize));
+        return this;
+    }
+
     public BlackDuckRequestFactory getRequestFactory() {
         return blackDuckRequestFactory;
     }
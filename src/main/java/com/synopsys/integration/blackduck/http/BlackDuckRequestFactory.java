@@ -115,6 +115,13 @@ public class BlackDuckRequestFactory {
                    .bodyContent(new MultipartBodyContent(bodyContentFileMap, bodyContentStringMap));
     }
 
+    public BlackDuckRequestBuilder createCommonPutRequestBuilder(HttpUrl url, File bodyContentFile) {
+        return createRequestBuilder()
+                   .url(url)
+                   .method(HttpMethod.PUT)
+                   .bodyContent(new FileBodyContent(bodyContentFile));
+    }
+
     public BlackDuckRequestBuilder createCommonPutRequestBuilder(HttpUrl url, String bodyContent) {
         return createRequestBuilder()
                    .url(url)
@@ -0,0 +1,123 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.body;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.synopsys.integration.rest.body.BodyContent;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * Sends length bytes of the file starting at offset, read straight from the file, so a part of a large file can be sent without copying it.
+ */
+public class FileRegionBodyContent implements BodyContent {
+    private final File bodyContentFile;
+    private final long offset;
+    private final long length;
+
+    public FileRegionBodyContent(File bodyContentFile, long offset, long length) {
+        this.bodyContentFile = bodyContentFile;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public HttpEntity createEntity(Request request) {
+        FileRegionEntity fileRegionEntity = new FileRegionEntity(bodyContentFile, offset, length);
+        fileRegionEntity.setContentType(ContentType.create(request.getAcceptMimeType(), request.getBodyEncoding()).toString());
+        return fileRegionEntity;
+    }
+
+    public File getBodyContentFile() {
+        return bodyContentFile;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    private static class FileRegionEntity extends AbstractHttpEntity {
+        private final File file;
+        private final long offset;
+        private final long length;
+
+        public FileRegionEntity(File file, long offset, long length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            FileInputStream fileInputStream = new FileInputStream(file);
+            try {
+                fileInputStream.getChannel().position(offset);
+            } catch (IOException e) {
+                fileInputStream.close();
+                throw e;
+            }
+            return new BoundedInputStream(fileInputStream, length);
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream inputStream = getContent()) {
+                long written = IOUtils.copyLarge(inputStream, outputStream);
+                if (written < length) {
+                    throw new IOException(String.format("Could not read the file %s past offset %d.", file.getAbsolutePath(), offset + written));
+                }
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+    }
+
+}
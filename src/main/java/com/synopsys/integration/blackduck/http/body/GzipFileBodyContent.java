@@ -0,0 +1,47 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.body;
+
+import java.io.File;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.GzipCompressingEntity;
+
+import com.synopsys.integration.rest.body.FileBodyContent;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * Gzips the file while it is being sent, so no compressed copy is written to disk. The compressed length is not known up front, so the body is
+ * sent chunked.
+ */
+public class GzipFileBodyContent extends FileBodyContent {
+    public GzipFileBodyContent(File bodyContentFile) {
+        super(bodyContentFile);
+    }
+
+    @Override
+    public HttpEntity createEntity(Request request) {
+        return new GzipCompressingEntity(super.createEntity(request));
+    }
+
+}
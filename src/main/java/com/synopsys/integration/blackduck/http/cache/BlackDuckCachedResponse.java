@@ -0,0 +1,67 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.cache;
+
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.util.Stringable;
+
+public class BlackDuckCachedResponse extends Stringable {
+    private final String json;
+    private final String entityTag;
+    private final String lastModified;
+    private final boolean fresh;
+
+    public BlackDuckCachedResponse(String json, String entityTag, String lastModified, boolean fresh) {
+        this.json = json;
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+        this.fresh = fresh;
+    }
+
+    /**
+     * @return true if the response can be used as-is, false if it must first be revalidated.
+     */
+    public boolean isFresh() {
+        return fresh;
+    }
+
+    public boolean canBeRevalidated() {
+        return getEntityTag().isPresent() || getLastModified().isPresent();
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public Optional<String> getEntityTag() {
+        return Optional.ofNullable(entityTag).filter(StringUtils::isNotBlank);
+    }
+
+    public Optional<String> getLastModified() {
+        return Optional.ofNullable(lastModified).filter(StringUtils::isNotBlank);
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.cache;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Holds the json of previously retrieved GET responses, along with any validators (ETag/Last-Modified) needed to revalidate them with
+ * a conditional request once they are no longer fresh. Implementations must be safe for use by multiple threads.
+ */
+public interface BlackDuckResponseCache {
+    /**
+     * @return the cached response for the key, whether fresh or not - a response that is not fresh should be revalidated before use.
+     */
+    Optional<BlackDuckCachedResponse> get(String key);
+
+    void put(String key, String json, String entityTag, String lastModified);
+
+    /**
+     * The server confirmed (304 Not Modified) that the cached response for the key is still current, so it can be considered fresh again.
+     */
+    void markRevalidated(String key);
+
+    void invalidate(String key);
+
+    /**
+     * Removes every cached response whose key matches. Implementations that can not search their keys may simply invalidate everything.
+     */
+    default void invalidateIf(Predicate<String> keyPredicate) {
+        invalidateAll();
+    }
+
+    void invalidateAll();
+
+    BlackDuckResponseCacheStatistics getStatistics();
+
+}
@@ -0,0 +1,92 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.cache;
+
+import com.synopsys.integration.util.Stringable;
+
+public class BlackDuckResponseCacheStatistics extends Stringable {
+    private final long hitCount;
+    private final long missCount;
+    private final long revalidationCount;
+    private final long notModifiedCount;
+    private final long evictionCount;
+    private final int size;
+
+    public BlackDuckResponseCacheStatistics(long hitCount, long missCount, long revalidationCount, long notModifiedCount, long evictionCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.revalidationCount = revalidationCount;
+        this.notModifiedCount = notModifiedCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * @return the number of lookups answered by a fresh cached response, without any request to Black Duck.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups with no usable cached response.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of lookups that found a cached response that had to be revalidated with a conditional request.
+     */
+    public long getRevalidationCount() {
+        return revalidationCount;
+    }
+
+    /**
+     * @return the number of revalidations where Black Duck confirmed the cached response was still current.
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount + revalidationCount;
+    }
+
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        if (0 == requestCount) {
+            return 0.0;
+        }
+        return (double) (hitCount + notModifiedCount) / requestCount;
+    }
+
+}
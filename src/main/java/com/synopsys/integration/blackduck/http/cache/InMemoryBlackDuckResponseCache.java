@@ -0,0 +1,151 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A least-recently-used cache bounded by the number of responses it holds. Responses are fresh for timeToLiveInMilliseconds after they are
+ * stored (or revalidated). Stale responses with validators are kept so they can be revalidated, while stale responses without validators
+ * are evicted as soon as they are found.
+ */
+public class InMemoryBlackDuckResponseCache implements BlackDuckResponseCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+    public static final long DEFAULT_TIME_TO_LIVE_IN_MILLISECONDS = 5 * 60 * 1000L;
+
+    private final int maximumSize;
+    private final long timeToLiveInMilliseconds;
+    private final LongSupplier currentTimeMillis;
+    private final LinkedHashMap<String, CacheEntry> cachedResponses = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hitCount;
+    private long missCount;
+    private long revalidationCount;
+    private long notModifiedCount;
+    private long evictionCount;
+
+    public InMemoryBlackDuckResponseCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE_IN_MILLISECONDS);
+    }
+
+    public InMemoryBlackDuckResponseCache(int maximumSize, long timeToLiveInMilliseconds) {
+        this(maximumSize, timeToLiveInMilliseconds, System::currentTimeMillis);
+    }
+
+    public InMemoryBlackDuckResponseCache(int maximumSize, long timeToLiveInMilliseconds, LongSupplier currentTimeMillis) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be at least 1.");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    @Override
+    public synchronized Optional<BlackDuckCachedResponse> get(String key) {
+        CacheEntry cacheEntry = cachedResponses.get(key);
+        if (null == cacheEntry) {
+            missCount++;
+            return Optional.empty();
+        }
+
+        boolean fresh = currentTimeMillis.getAsLong() < cacheEntry.expiresAt;
+        BlackDuckCachedResponse cachedResponse = new BlackDuckCachedResponse(cacheEntry.json, cacheEntry.entityTag, cacheEntry.lastModified, fresh);
+        if (fresh) {
+            hitCount++;
+        } else if (cachedResponse.canBeRevalidated()) {
+            revalidationCount++;
+        } else {
+            cachedResponses.remove(key);
+            evictionCount++;
+            missCount++;
+            return Optional.empty();
+        }
+        return Optional.of(cachedResponse);
+    }
+
+    @Override
+    public synchronized void put(String key, String json, String entityTag, String lastModified) {
+        long expiresAt = currentTimeMillis.getAsLong() + timeToLiveInMilliseconds;
+        cachedResponses.put(key, new CacheEntry(json, entityTag, lastModified, expiresAt));
+        evictLeastRecentlyUsed();
+    }
+
+    @Override
+    public synchronized void markRevalidated(String key) {
+        CacheEntry cacheEntry = cachedResponses.get(key);
+        if (null != cacheEntry) {
+            notModifiedCount++;
+            cacheEntry.expiresAt = currentTimeMillis.getAsLong() + timeToLiveInMilliseconds;
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String key) {
+        cachedResponses.remove(key);
+    }
+
+    @Override
+    public synchronized void invalidateIf(Predicate<String> keyPredicate) {
+        cachedResponses.keySet().removeIf(keyPredicate);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        cachedResponses.clear();
+    }
+
+    @Override
+    public synchronized BlackDuckResponseCacheStatistics getStatistics() {
+        return new BlackDuckResponseCacheStatistics(hitCount, missCount, revalidationCount, notModifiedCount, evictionCount, cachedResponses.size());
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = cachedResponses.entrySet().iterator();
+        while (cachedResponses.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static class CacheEntry {
+        private final String json;
+        private final String entityTag;
+        private final String lastModified;
+        private long expiresAt;
+
+        private CacheEntry(String json, String entityTag, String lastModified, long expiresAt) {
+            this.json = json;
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -48,7 +48,13 @@ public class ApiTokenBlackDuckHttpClient extends BlackDuckHttpClient {
     public ApiTokenBlackDuckHttpClient(
         IntLogger logger, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl baseUrl, NameVersion solutionDetails, Gson gson, AuthenticationSupport authenticationSupport, String apiToken,
         BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery) {
-        super(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, solutionDetails, authenticationSupport, blackDuckMediaTypeDiscovery);
+        this(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, solutionDetails, gson, authenticationSupport, apiToken, blackDuckMediaTypeDiscovery, null);
+    }
+
+    public ApiTokenBlackDuckHttpClient(
+        IntLogger logger, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl baseUrl, NameVersion solutionDetails, Gson gson, AuthenticationSupport authenticationSupport, String apiToken,
+        BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, BlackDuckConnectionPoolConfig connectionPoolConfig) {
+        super(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, solutionDetails, authenticationSupport, blackDuckMediaTypeDiscovery, connectionPoolConfig);
         this.gson = gson;
         this.apiToken = apiToken;
 
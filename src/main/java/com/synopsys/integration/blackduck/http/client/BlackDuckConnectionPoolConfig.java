@@ -0,0 +1,80 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import com.synopsys.integration.util.Stringable;
+
+/**
+ * Sizing and lifetime settings for the pooled connections of a {@link BlackDuckHttpClient}.
+ */
+public class BlackDuckConnectionPoolConfig extends Stringable {
+    public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 50;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    public static final int DEFAULT_CONNECTION_TTL_SECONDS = -1;
+    public static final int DEFAULT_IDLE_CONNECTION_TIMEOUT_SECONDS = 60;
+    public static final int DEFAULT_SOCKET_BUFFER_SIZE = 0;
+
+    private final int maxConnectionsTotal;
+    private final int maxConnectionsPerRoute;
+    private final int connectionTimeToLiveSeconds;
+    private final int idleConnectionTimeoutSeconds;
+    private final int socketBufferSize;
+
+    public static BlackDuckConnectionPoolConfig createDefault() {
+        return new BlackDuckConnectionPoolConfig(DEFAULT_MAX_CONNECTIONS_TOTAL, DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_CONNECTION_TTL_SECONDS, DEFAULT_IDLE_CONNECTION_TIMEOUT_SECONDS, DEFAULT_SOCKET_BUFFER_SIZE);
+    }
+
+    /**
+     * @param connectionTimeToLiveSeconds  a value of zero or less keeps connections for as long as the server allows
+     * @param idleConnectionTimeoutSeconds a value of zero or less never evicts idle connections
+     * @param socketBufferSize             a value of zero or less uses the system defaults
+     */
+    public BlackDuckConnectionPoolConfig(int maxConnectionsTotal, int maxConnectionsPerRoute, int connectionTimeToLiveSeconds, int idleConnectionTimeoutSeconds, int socketBufferSize) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectionTimeToLiveSeconds = connectionTimeToLiveSeconds;
+        this.idleConnectionTimeoutSeconds = idleConnectionTimeoutSeconds;
+        this.socketBufferSize = socketBufferSize;
+    }
+
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public int getConnectionTimeToLiveSeconds() {
+        return connectionTimeToLiveSeconds;
+    }
+
+    public int getIdleConnectionTimeoutSeconds() {
+        return idleConnectionTimeoutSeconds;
+    }
+
+    public int getSocketBufferSize() {
+        return socketBufferSize;
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import com.synopsys.integration.util.Stringable;
+
+/**
+ * A point-in-time snapshot of a {@link BlackDuckHttpClient} connection pool.
+ */
+public class BlackDuckConnectionPoolStats extends Stringable {
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    public BlackDuckConnectionPoolStats(int leased, int pending, int available, int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * @return the number of connections currently in use
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return the number of requests waiting for a connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return the number of idle connections ready to be reused
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+}
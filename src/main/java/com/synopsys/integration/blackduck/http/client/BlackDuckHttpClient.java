@@ -22,12 +22,27 @@
  */
 package com.synopsys.integration.blackduck.http.client;
 
+import java.security.GeneralSecurityException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
 
 import org.apache.http.HttpHeaders;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
 
 import com.synopsys.integration.blackduck.api.generated.discovery.BlackDuckMediaTypeDiscovery;
 import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
@@ -50,6 +65,8 @@ public abstract class BlackDuckHttpClient extends AuthenticatingIntHttpClient {
     private final HttpUrl baseUrl;
     private final BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery;
     private final String userAgentString;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final int idleConnectionTimeoutSeconds;
 
     protected final AuthenticationSupport authenticationSupport;
 
@@ -58,6 +75,11 @@ public abstract class BlackDuckHttpClient extends AuthenticatingIntHttpClient {
         this(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, new UserAgentItem(solutionDetails), BlackDuckCommon.createUserAgentItem(), authenticationSupport, blackDuckMediaTypeDiscovery);
     }
 
+    public BlackDuckHttpClient(IntLogger logger, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl baseUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport,
+        BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, BlackDuckConnectionPoolConfig connectionPoolConfig) {
+        this(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, new UserAgentItem(solutionDetails), BlackDuckCommon.createUserAgentItem(), authenticationSupport, blackDuckMediaTypeDiscovery, connectionPoolConfig);
+    }
+
     public BlackDuckHttpClient(IntLogger logger, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl baseUrl, UserAgentItem solutionUserAgentItem, AuthenticationSupport authenticationSupport,
         BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery) {
         this(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, solutionUserAgentItem, BlackDuckCommon.createUserAgentItem(), authenticationSupport, blackDuckMediaTypeDiscovery);
@@ -65,6 +87,14 @@ public abstract class BlackDuckHttpClient extends AuthenticatingIntHttpClient {
 
     public BlackDuckHttpClient(IntLogger logger, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl baseUrl, UserAgentItem solutionUserAgentItem, UserAgentItem blackDuckCommonUserAgentItem,
         AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery) {
+        this(logger, timeout, alwaysTrustServerCertificate, proxyInfo, baseUrl, solutionUserAgentItem, blackDuckCommonUserAgentItem, authenticationSupport, blackDuckMediaTypeDiscovery, null);
+    }
+
+    /**
+     * @param connectionPoolConfig when null, the default connection handling of the underlying http client is used
+     */
+    public BlackDuckHttpClient(IntLogger logger, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl baseUrl, UserAgentItem solutionUserAgentItem, UserAgentItem blackDuckCommonUserAgentItem,
+        AuthenticationSupport authenticationSupport, BlackDuckMediaTypeDiscovery blackDuckMediaTypeDiscovery, BlackDuckConnectionPoolConfig connectionPoolConfig) {
         super(logger, timeout, alwaysTrustServerCertificate, proxyInfo);
 
         if (null == baseUrl) {
@@ -80,6 +110,19 @@ public abstract class BlackDuckHttpClient extends AuthenticatingIntHttpClient {
         this.userAgentString = userAgentBuilder.createFullUserAgentString();
 
         this.authenticationSupport = authenticationSupport;
+
+        if (null != connectionPoolConfig) {
+            connectionManager = createConnectionManager(connectionPoolConfig, alwaysTrustServerCertificate);
+            idleConnectionTimeoutSeconds = connectionPoolConfig.getIdleConnectionTimeoutSeconds();
+
+            // the pool outlives any single client built from this builder, so it is shared rather than owned
+            HttpClientBuilder clientBuilder = getClientBuilder();
+            clientBuilder.setConnectionManager(connectionManager);
+            clientBuilder.setConnectionManagerShared(true);
+        } else {
+            connectionManager = null;
+            idleConnectionTimeoutSeconds = 0;
+        }
     }
 
     @Override
@@ -97,6 +140,7 @@ public abstract class BlackDuckHttpClient extends AuthenticatingIntHttpClient {
 
         request = requestBuilder.build();
 
+        evictStaleConnections();
         try {
             return super.execute(request);
         } catch (IntegrationRestException e) {
@@ -133,12 +177,77 @@ public abstract class BlackDuckHttpClient extends AuthenticatingIntHttpClient {
         return userAgentString;
     }
 
+    /**
+     * @return the current state of the connection pool, if this client was configured with a {@link BlackDuckConnectionPoolConfig}
+     */
+    public Optional<BlackDuckConnectionPoolStats> getConnectionPoolStats() {
+        if (null == connectionManager) {
+            return Optional.empty();
+        }
+
+        PoolStats totalStats = connectionManager.getTotalStats();
+        return Optional.of(new BlackDuckConnectionPoolStats(totalStats.getLeased(), totalStats.getPending(), totalStats.getAvailable(), totalStats.getMax()));
+    }
+
+    /**
+     * Closes every pooled connection. The client must not be used afterwards.
+     */
+    public void shutdownConnectionPool() {
+        if (null != connectionManager) {
+            connectionManager.shutdown();
+        }
+    }
+
     @Override
     protected void addToHttpClientBuilder(HttpClientBuilder httpClientBuilder, RequestConfig.Builder defaultRequestConfigBuilder) {
         super.addToHttpClientBuilder(httpClientBuilder, defaultRequestConfigBuilder);
         httpClientBuilder.setRedirectStrategy(new BlackDuckRedirectStrategy());
     }
 
+    private void evictStaleConnections() {
+        if (null == connectionManager) {
+            return;
+        }
+
+        connectionManager.closeExpiredConnections();
+        if (idleConnectionTimeoutSeconds > 0) {
+            connectionManager.closeIdleConnections(idleConnectionTimeoutSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private PoolingHttpClientConnectionManager createConnectionManager(BlackDuckConnectionPoolConfig connectionPoolConfig, boolean alwaysTrustServerCertificate) {
+        // a custom connection manager replaces the socket factories the builder would otherwise create, so trust handling is repeated here
+        SSLConnectionSocketFactory sslSocketFactory;
+        if (alwaysTrustServerCertificate) {
+            try {
+                SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+                sslSocketFactory = new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not create an ssl context that trusts the server certificate: " + e.getMessage(), e);
+            }
+        } else {
+            sslSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
+        }
+
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                                                                      .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                                                      .register("https", sslSocketFactory)
+                                                                      .build();
+
+        long timeToLiveSeconds = connectionPoolConfig.getConnectionTimeToLiveSeconds() > 0 ? connectionPoolConfig.getConnectionTimeToLiveSeconds() : -1;
+        PoolingHttpClientConnectionManager poolingConnectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, null, timeToLiveSeconds, TimeUnit.SECONDS);
+        poolingConnectionManager.setMaxTotal(connectionPoolConfig.getMaxConnectionsTotal());
+        poolingConnectionManager.setDefaultMaxPerRoute(connectionPoolConfig.getMaxConnectionsPerRoute());
+
+        int socketBufferSize = connectionPoolConfig.getSocketBufferSize();
+        if (socketBufferSize > 0) {
+            poolingConnectionManager.setDefaultSocketConfig(SocketConfig.custom().setRcvBufSize(socketBufferSize).setSndBufSize(socketBufferSize).build());
+            poolingConnectionManager.setDefaultConnectionConfig(ConnectionConfig.custom().setBufferSize(socketBufferSize).build());
+        }
+
+        return poolingConnectionManager;
+    }
+
     private IntegrationException transformException(IntegrationRestException e) {
         String httpResponseContent = e.getHttpResponseContent();
         Optional<ErrorResponse> optionalErrorResponse = extractErrorResponse(httpResponseContent);
@@ -23,10 +23,16 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -35,10 +41,10 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.flipkart.zjsonpatch.JsonDiff;
 import com.flipkart.zjsonpatch.JsonPatch;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
@@ -47,9 +53,13 @@ import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.response.Response;
 
 public class BlackDuckJsonTransformer {
+    private static final String TOTAL_COUNT_KEY = "totalCount";
+    private static final String ITEMS_KEY = "items";
+
     private final Gson gson;
     private final ObjectMapper objectMapper;
     private final IntLogger logger;
+    private final Map<Class<?>, Boolean> hasSubclassesByClass = new ConcurrentHashMap<>();
 
     public BlackDuckJsonTransformer(Gson gson, ObjectMapper objectMapper, IntLogger logger) {
         this.gson = gson;
@@ -65,7 +75,7 @@ public class BlackDuckJsonTransformer {
     public <T extends BlackDuckResponse> T getResponseAs(String json, Class<T> clazz) throws BlackDuckIntegrationException {
         try {
             JsonElement jsonElement = gson.fromJson(json, JsonElement.class);
-            return getResponseAs(jsonElement, clazz);
+            return createResponse(jsonElement, json, clazz);
         } catch (JsonSyntaxException e) {
             logger.error(String.format("Could not parse the provided json with Gson:%s%s", System.lineSeparator(), json));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
@@ -74,51 +84,50 @@ public class BlackDuckJsonTransformer {
 
     public <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, Class<T> clazz) throws BlackDuckIntegrationException {
         String json = gson.toJson(jsonElement);
-        try {
-            T blackDuckResponse = gson.fromJson(jsonElement, clazz);
-
-            if (blackDuckResponse.hasSubclasses()) {
-                // when a response can be subclassed, it will use its own state to
-                // determine the specific subclass that should be used
-                Class<? extends BlackDuckResponse> subclass = blackDuckResponse.getSubclass();
-                BlackDuckResponse subclassResponse = gson.fromJson(jsonElement, subclass);
-                blackDuckResponse = (T) subclassResponse;
-            }
-
-            blackDuckResponse.setGson(gson);
-            blackDuckResponse.setJsonElement(jsonElement);
-            blackDuckResponse.setJson(json);
-            setPatch(blackDuckResponse);
+        return createResponse(jsonElement, json, clazz);
+    }
 
-            return blackDuckResponse;
-        } catch (JsonSyntaxException e) {
-            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), json));
+    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(String json, Class<T> clazz) throws IntegrationException {
+        try (JsonReader jsonReader = new JsonReader(new StringReader(json))) {
+            return readResponses(jsonReader, clazz, this::readResponse);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            logger.error(String.format("Could not parse the provided json responses with Gson:%s%s", System.lineSeparator(), json));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
     }
 
-    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(String json, Class<T> clazz) throws IntegrationException {
-        try {
-            JsonObject jsonObject = gson.fromJson(json, JsonObject.class);
-            int totalCount = jsonObject.get("totalCount").getAsInt();
-            JsonArray items = jsonObject.get("items").getAsJsonArray();
-            List<T> itemList = new ArrayList<>();
-            for (JsonElement jsonElement : items) {
-                itemList.add(getResponseAs(jsonElement, clazz));
-            }
-
-            return new BlackDuckPageResponse<>(totalCount, itemList);
-        } catch (JsonSyntaxException e) {
-            logger.error(String.format("Could not parse the provided json responses with Gson:%s%s", System.lineSeparator(), json));
+    /**
+     * Reads the page directly from the content stream of the response and binds each item straight from the stream, so neither the body nor the
+     * items are held as a String or a JsonElement. The items therefore have no json of their own - the json needed to restore lost fields when one of
+     * them is updated is attached on demand (see attachJson).
+     */
+    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(Response response, Class<T> clazz) throws IntegrationException {
+        try (InputStream inputStream = response.getContent();
+             JsonReader jsonReader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return readResponses(jsonReader, clazz, this::bindResponse);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            logger.error(String.format("Could not parse the json responses with Gson: %s", e.getMessage()));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Attaches the json of a response that was bound without it, so producePatchedJson can restore the fields the response class does not map.
+     */
+    public void attachJson(BlackDuckResponse blackDuckResponse, String json) {
+        blackDuckResponse.setJsonElement(gson.fromJson(json, JsonElement.class));
+        blackDuckResponse.setJson(json);
+    }
+
     public String producePatchedJson(BlackDuckResponse blackDuckResponse) {
         String lossyJson = gson.toJson(blackDuckResponse);
         try {
             JsonNode target = objectMapper.readTree(lossyJson);
             JsonNode patch = blackDuckResponse.getPatch();
+            if (null == patch) {
+                patch = createPatch(blackDuckResponse);
+                blackDuckResponse.setPatch(patch);
+            }
 
             List<JsonNode> listOfPatches = transformPatchToListOfPatches(patch);
             for (JsonNode singleChangePatch : listOfPatches) {
@@ -154,17 +163,96 @@ public class BlackDuckJsonTransformer {
         return listOfPatches;
     }
 
-    private void setPatch(BlackDuckResponse blackDuckResponse) {
-        String lossyJson = gson.toJson(blackDuckResponse);
+    private <T extends BlackDuckResponse> BlackDuckPageResponse<T> readResponses(JsonReader jsonReader, Class<T> clazz, ItemReader itemReader) throws IOException, BlackDuckIntegrationException {
+        int totalCount = 0;
+        List<T> itemList = new ArrayList<>();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (TOTAL_COUNT_KEY.equals(name)) {
+                totalCount = jsonReader.nextInt();
+            } else if (ITEMS_KEY.equals(name)) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    itemList.add(itemReader.read(jsonReader, clazz));
+                }
+                jsonReader.endArray();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return new BlackDuckPageResponse<>(totalCount, itemList);
+    }
+
+    private <T extends BlackDuckResponse> T readResponse(JsonReader jsonReader, Class<T> clazz) throws BlackDuckIntegrationException {
+        JsonElement jsonElement = gson.fromJson(jsonReader, JsonElement.class);
+        return getResponseAs(jsonElement, clazz);
+    }
 
+    private <T extends BlackDuckResponse> T bindResponse(JsonReader jsonReader, Class<T> clazz) {
+        T blackDuckResponse;
+        if (hasSubclasses(clazz)) {
+            // the subclass depends on the item's own state, so it has to be read once before it can be bound
+            JsonElement jsonElement = gson.fromJson(jsonReader, JsonElement.class);
+            T baseResponse = gson.fromJson(jsonElement, clazz);
+            blackDuckResponse = (T) gson.fromJson(jsonElement, baseResponse.getSubclass());
+        } else {
+            blackDuckResponse = gson.fromJson(jsonReader, clazz);
+        }
+        blackDuckResponse.setGson(gson);
+        return blackDuckResponse;
+    }
+
+    private boolean hasSubclasses(Class<? extends BlackDuckResponse> clazz) {
+        return hasSubclassesByClass.computeIfAbsent(clazz, ignored -> gson.fromJson("{}", clazz).hasSubclasses());
+    }
+
+    private <T extends BlackDuckResponse> T createResponse(JsonElement jsonElement, String json, Class<T> clazz) throws BlackDuckIntegrationException {
         try {
-            JsonNode source = objectMapper.readTree(lossyJson);
-            JsonNode target = objectMapper.readTree(blackDuckResponse.getJson());
-            JsonNode patch = JsonDiff.asJson(source, target);
-            blackDuckResponse.setPatch(patch);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            T blackDuckResponse = gson.fromJson(jsonElement, clazz);
+
+            if (blackDuckResponse.hasSubclasses()) {
+                // when a response can be subclassed, it will use its own state to
+                // determine the specific subclass that should be used
+                Class<? extends BlackDuckResponse> subclass = blackDuckResponse.getSubclass();
+                BlackDuckResponse subclassResponse = gson.fromJson(jsonElement, subclass);
+                blackDuckResponse = (T) subclassResponse;
+            }
+
+            // the patch is only needed to restore lost fields when putting the response back, so it is created on demand in producePatchedJson
+            blackDuckResponse.setGson(gson);
+            blackDuckResponse.setJsonElement(jsonElement);
+            blackDuckResponse.setJson(json);
+
+            return blackDuckResponse;
+        } catch (JsonSyntaxException e) {
+            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), json));
+            throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
     }
 
+    private JsonNode createPatch(BlackDuckResponse blackDuckResponse) throws IOException {
+        if (null == blackDuckResponse.getJsonElement()) {
+            return JsonNodeFactory.instance.arrayNode();
+        }
+
+        // the response may have been modified since it was created, so the
+        // patch of lost fields is computed against a pristine copy
+        BlackDuckResponse pristineResponse = gson.fromJson(blackDuckResponse.getJsonElement(), blackDuckResponse.getClass());
+        String lossyJson = gson.toJson(pristineResponse);
+
+        JsonNode source = objectMapper.readTree(lossyJson);
+        JsonNode target = objectMapper.readTree(blackDuckResponse.getJson());
+        return JsonDiff.asJson(source, target);
+    }
+
+    @FunctionalInterface
+    private interface ItemReader {
+        <T extends BlackDuckResponse> T read(JsonReader jsonReader, Class<T> clazz) throws BlackDuckIntegrationException;
+
+    }
+
 }
@@ -0,0 +1,94 @@
+/**
+ * blackduck-common
+ *
+ * Copyright (c) 2020 Synopsys, Inc.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
+import com.synopsys.integration.blackduck.http.PagedRequest;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Lazily walks every page of a paged request. The next page is only requested once the items of the current page have been consumed, so at
+ * most one page of items is held at a time. Since an Iterator can't throw checked exceptions, any IntegrationException encountered while
+ * retrieving a page is thrown as the cause of a RuntimeException.
+ */
+public class BlackDuckPageIterator<T extends BlackDuckResponse> implements Iterator<T> {
+    private final BlackDuckResponsesTransformer blackDuckResponsesTransformer;
+    private final PagedRequest pagedRequest;
+    private final Class<T> responseClass;
+
+    private Iterator<T> currentPageItems = Collections.emptyIterator();
+    private int nextOffset;
+    private int totalCount = -1;
+
+    public BlackDuckPageIterator(BlackDuckResponsesTransformer blackDuckResponsesTransformer, PagedRequest pagedRequest, Class<T> responseClass) {
+        this.blackDuckResponsesTransformer = blackDuckResponsesTransformer;
+        this.pagedRequest = pagedRequest;
+        this.responseClass = responseClass;
+        this.nextOffset = pagedRequest.getOffset();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPageItems.hasNext()) {
+            if (!hasMorePages()) {
+                return false;
+            }
+            retrieveNextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPageItems.next();
+    }
+
+    private boolean hasMorePages() {
+        return totalCount < 0 || nextOffset < totalCount;
+    }
+
+    private void retrieveNextPage() {
+        PagedRequest offsetPagedRequest = new PagedRequest(pagedRequest.getRequestBuilder(), nextOffset, pagedRequest.getLimit());
+        try {
+            BlackDuckPageResponse<T> blackDuckPageResponse = blackDuckResponsesTransformer.getPage(offsetPagedRequest, responseClass);
+            totalCount = blackDuckPageResponse.getTotalCount();
+            currentPageItems = blackDuckPageResponse.getItems().iterator();
+            if (blackDuckPageResponse.getItems().isEmpty()) {
+                // guard against a totalCount that no longer matches the items that are actually available
+                totalCount = nextOffset;
+            }
+            nextOffset += pagedRequest.getLimit();
+        } catch (IntegrationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -23,25 +23,107 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 
 import com.google.gson.JsonElement;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ComponentVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.LicenseView;
+import com.synopsys.integration.blackduck.api.generated.view.PolicyRuleView;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.cache.BlackDuckCachedResponse;
+import com.synopsys.integration.blackduck.http.cache.BlackDuckResponseCache;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
 import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
 
 public class BlackDuckResponseTransformer {
+    /**
+     * Metadata that rarely changes once it exists - anything else (reports, project versions, bom entries...) is always retrieved.
+     */
+    public static final Set<Class<? extends BlackDuckResponse>> DEFAULT_CACHEABLE_RESPONSE_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ComponentVersionView.class, LicenseView.class, PolicyRuleView.class)));
+
     private final BlackDuckHttpClient blackDuckHttpClient;
     private final BlackDuckJsonTransformer blackDuckJsonTransformer;
+    private final BlackDuckResponseCache blackDuckResponseCache;
+    private final Set<Class<? extends BlackDuckResponse>> cacheableResponseClasses;
+    private final Map<String, CompletableFuture<String>> inFlightRequests = new ConcurrentHashMap<>();
 
     public BlackDuckResponseTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer) {
+        this(blackDuckHttpClient, blackDuckJsonTransformer, null);
+    }
+
+    public BlackDuckResponseTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer, BlackDuckResponseCache blackDuckResponseCache) {
+        this(blackDuckHttpClient, blackDuckJsonTransformer, blackDuckResponseCache, DEFAULT_CACHEABLE_RESPONSE_CLASSES);
+    }
+
+    /**
+     * When a BlackDuckResponseCache is provided, the json of GET responses for the cacheable response classes is cached and a fresh cached
+     * response is transformed without any request to Black Duck. Stale cached responses are revalidated with If-None-Match/If-Modified-Since.
+     * GET responses of any other class are never cached.
+     */
+    public BlackDuckResponseTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer, BlackDuckResponseCache blackDuckResponseCache,
+        Set<Class<? extends BlackDuckResponse>> cacheableResponseClasses) {
         this.blackDuckHttpClient = blackDuckHttpClient;
         this.blackDuckJsonTransformer = blackDuckJsonTransformer;
+        this.blackDuckResponseCache = blackDuckResponseCache;
+        this.cacheableResponseClasses = cacheableResponseClasses;
     }
 
     public <T extends BlackDuckResponse> T getResponse(Request request, Class<T> clazz) throws IntegrationException {
+        Request.Builder requestBuilder = request.createBuilder();
+        if (HttpMethod.GET != requestBuilder.getMethod()) {
+            return getUncachedResponse(request, clazz);
+        }
+
+        String requestKey = createRequestKey(requestBuilder);
+        boolean cacheable = null != blackDuckResponseCache && cacheableResponseClasses.contains(clazz);
+        String json = retrieveJsonOnce(requestKey, requestBuilder, cacheable);
+        return blackDuckJsonTransformer.getResponseAs(json, clazz);
+    }
+
+    public <T extends BlackDuckResponse> T getResponseAs(String json, Class<T> clazz) throws BlackDuckIntegrationException {
+        return blackDuckJsonTransformer.getResponseAs(json, clazz);
+    }
+
+    public <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, Class<T> clazz) throws BlackDuckIntegrationException {
+        return blackDuckJsonTransformer.getResponseAs(jsonElement, clazz);
+    }
+
+    public Optional<BlackDuckResponseCache> getBlackDuckResponseCache() {
+        return Optional.ofNullable(blackDuckResponseCache);
+    }
+
+    /**
+     * Removes the cached responses for the url and for anything beneath it, e.g. after the url was the target of a PUT, DELETE or POST.
+     */
+    public void invalidateCachedResponses(HttpUrl url) {
+        if (null == blackDuckResponseCache) {
+            return;
+        }
+
+        String urlKeyPrefix = url.string() + " ";
+        String childUrlKeyPrefix = url.string().endsWith("/") ? url.string() : url.string() + "/";
+        blackDuckResponseCache.invalidateIf(key -> key.startsWith(urlKeyPrefix) || key.startsWith(childUrlKeyPrefix));
+    }
+
+    private <T extends BlackDuckResponse> T getUncachedResponse(Request request, Class<T> clazz) throws IntegrationException {
         try (Response response = blackDuckHttpClient.execute(request)) {
             blackDuckHttpClient.throwExceptionForError(response);
             return blackDuckJsonTransformer.getResponse(response, clazz);
@@ -50,12 +132,88 @@ public class BlackDuckResponseTransformer {
         }
     }
 
-    public <T extends BlackDuckResponse> T getResponseAs(String json, Class<T> clazz) throws BlackDuckIntegrationException {
-        return blackDuckJsonTransformer.getResponseAs(json, clazz);
+    /**
+     * Identical GET requests made concurrently share a single request to Black Duck - the first caller makes the request and the others wait
+     * for its json. Each caller still transforms the json into its own response object, as responses are mutable.
+     */
+    private String retrieveJsonOnce(String requestKey, Request.Builder requestBuilder, boolean cacheable) throws IntegrationException {
+        CompletableFuture<String> newRequest = new CompletableFuture<>();
+        // cacheable and uncacheable requests for the same url are not shared, so a request never waits on one with different caching
+        String inFlightKey = cacheable + " " + requestKey;
+        CompletableFuture<String> inFlightRequest = inFlightRequests.putIfAbsent(inFlightKey, newRequest);
+        if (null != inFlightRequest) {
+            return waitForInFlightRequest(inFlightRequest);
+        }
+
+        try {
+            String json = cacheable ? retrieveCachedJson(requestKey, requestBuilder) : retrieveJson(requestBuilder);
+            newRequest.complete(json);
+            return json;
+        } catch (IntegrationException | RuntimeException e) {
+            newRequest.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(inFlightKey, newRequest);
+        }
     }
 
-    public <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, Class<T> clazz) throws BlackDuckIntegrationException {
-        return blackDuckJsonTransformer.getResponseAs(jsonElement, clazz);
+    private String waitForInFlightRequest(CompletableFuture<String> inFlightRequest) throws IntegrationException {
+        try {
+            return inFlightRequest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException("Interrupted while waiting for an identical request: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IntegrationException) {
+                throw (IntegrationException) e.getCause();
+            }
+            throw new BlackDuckIntegrationException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private String retrieveJson(Request.Builder requestBuilder) throws IntegrationException {
+        try (Response response = blackDuckHttpClient.execute(requestBuilder.build())) {
+            blackDuckHttpClient.throwExceptionForError(response);
+            return response.getContentString();
+        } catch (IOException e) {
+            throw new BlackDuckIntegrationException(e.getMessage(), e);
+        }
+    }
+
+    private String retrieveCachedJson(String requestKey, Request.Builder requestBuilder) throws IntegrationException {
+        Optional<BlackDuckCachedResponse> optionalCachedResponse = blackDuckResponseCache.get(requestKey);
+        if (optionalCachedResponse.isPresent() && optionalCachedResponse.get().isFresh()) {
+            return optionalCachedResponse.get().getJson();
+        }
+
+        if (optionalCachedResponse.isPresent()) {
+            BlackDuckCachedResponse cachedResponse = optionalCachedResponse.get();
+            cachedResponse.getEntityTag().ifPresent(entityTag -> requestBuilder.addHeader(HttpHeaders.IF_NONE_MATCH, entityTag));
+            cachedResponse.getLastModified().ifPresent(lastModified -> requestBuilder.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+        }
+
+        try (Response response = blackDuckHttpClient.execute(requestBuilder.build())) {
+            if (optionalCachedResponse.isPresent() && HttpStatus.SC_NOT_MODIFIED == response.getStatusCode()) {
+                blackDuckResponseCache.markRevalidated(requestKey);
+                return optionalCachedResponse.get().getJson();
+            }
+
+            blackDuckHttpClient.throwExceptionForError(response);
+            String json = response.getContentString();
+            blackDuckResponseCache.put(requestKey, json, response.getHeaderValue(HttpHeaders.ETAG), response.getHeaderValue(HttpHeaders.LAST_MODIFIED));
+            return json;
+        } catch (IOException e) {
+            throw new BlackDuckIntegrationException(e.getMessage(), e);
+        }
+    }
+
+    private String createRequestKey(Request.Builder requestBuilder) {
+        // query parameters are sorted so that equivalent requests share a key, and the url leads so that keys can be invalidated by url
+        Map<String, Set<String>> sortedQueryParameters = new TreeMap<>();
+        if (null != requestBuilder.getQueryParameters()) {
+            requestBuilder.getQueryParameters().forEach((key, values) -> sortedQueryParameters.put(key, new TreeSet<>(values)));
+        }
+        return String.format("%s %s %s", requestBuilder.getUrl().string(), requestBuilder.getAcceptMimeType(), sortedQueryParameters);
     }
 
 }
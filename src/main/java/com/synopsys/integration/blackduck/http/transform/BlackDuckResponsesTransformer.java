@@ -23,14 +23,23 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.jetbrains.annotations.NotNull;
 
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.concurrent.BoundedConcurrentRunner;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.PagedRequest;
@@ -40,12 +49,31 @@ import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
 
 public class BlackDuckResponsesTransformer {
+    public static final int DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS = 1;
+
     private final BlackDuckHttpClient blackDuckHttpClient;
     private final BlackDuckJsonTransformer blackDuckJsonTransformer;
+    private final int maxConcurrentPageRequests;
+    private final BoundedConcurrentRunner pageRunner;
 
     public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer) {
+        this(blackDuckHttpClient, blackDuckJsonTransformer, null, DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS);
+    }
+
+    /**
+     * When maxConcurrentPageRequests is greater than one, once the totalCount is known from the first page, the remaining pages will be requested
+     * concurrently with the provided ExecutorService. At most maxConcurrentPageRequests page requests will be in flight at any time for this
+     * transformer (and therefore for its BlackDuckHttpClient). Matching requests (with a Predicate) are always retrieved sequentially, as the
+     * number of pages needed can't be known in advance.
+     */
+    public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer, ExecutorService executorService, int maxConcurrentPageRequests) {
+        if (maxConcurrentPageRequests > DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS && null == executorService) {
+            throw new IllegalArgumentException("An ExecutorService is required to request pages concurrently.");
+        }
         this.blackDuckHttpClient = blackDuckHttpClient;
         this.blackDuckJsonTransformer = blackDuckJsonTransformer;
+        this.maxConcurrentPageRequests = Math.max(DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS, maxConcurrentPageRequests);
+        this.pageRunner = isRequestingPagesConcurrently() ? new BoundedConcurrentRunner(executorService, this.maxConcurrentPageRequests) : null;
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getSomeMatchingResponses(PagedRequest pagedRequest, Class<T> clazz, Predicate<T> predicate, int totalLimit) throws IntegrationException {
@@ -53,52 +81,93 @@ public class BlackDuckResponsesTransformer {
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getAllResponses(PagedRequest pagedRequest, Class<T> clazz) throws IntegrationException {
-        return getInternalMatchingResponse(pagedRequest, clazz, Integer.MAX_VALUE, alwaysTrue());
+        return getInternalResponses(pagedRequest, clazz, Integer.MAX_VALUE);
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getSomeResponses(PagedRequest pagedRequest, Class<T> clazz, int totalLimit) throws IntegrationException {
-        return getInternalMatchingResponse(pagedRequest, clazz, totalLimit, alwaysTrue());
+        return getInternalResponses(pagedRequest, clazz, totalLimit);
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getOnePageOfResponses(PagedRequest pagedRequest, Class<T> clazz) throws IntegrationException {
         return getInternalMatchingResponse(pagedRequest, clazz, pagedRequest.getLimit(), alwaysTrue());
     }
 
+    public <T extends BlackDuckResponse> Iterator<T> getResponsesIterator(PagedRequest pagedRequest, Class<T> clazz) {
+        return new BlackDuckPageIterator<>(this, pagedRequest, clazz);
+    }
+
+    public <T extends BlackDuckResponse> Stream<T> getResponsesStream(PagedRequest pagedRequest, Class<T> clazz) {
+        Iterator<T> iterator = getResponsesIterator(pagedRequest, clazz);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public boolean isRequestingPagesConcurrently() {
+        return maxConcurrentPageRequests > DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS;
+    }
+
+    public int getMaxConcurrentPageRequests() {
+        return maxConcurrentPageRequests;
+    }
+
     private <T extends BlackDuckResponse> Predicate<T> alwaysTrue() {
         return (blackDuckResponse) -> true;
     }
 
+    private <T extends BlackDuckResponse> BlackDuckPageResponse<T> getInternalResponses(PagedRequest pagedRequest, Class<T> clazz, int maxToReturn) throws IntegrationException {
+        if (isRequestingPagesConcurrently()) {
+            return getInternalResponsesConcurrently(pagedRequest, clazz, maxToReturn);
+        }
+        return getInternalMatchingResponse(pagedRequest, clazz, maxToReturn, alwaysTrue());
+    }
+
     private <T extends BlackDuckResponse> BlackDuckPageResponse<T> getInternalMatchingResponse(PagedRequest pagedRequest, Class<T> clazz, int maxToReturn, Predicate<T> predicate) throws IntegrationException {
         List<T> allResponses = new LinkedList<>();
-        int totalCount = 0;
         int currentOffset = pagedRequest.getOffset();
-        Request request = pagedRequest.createRequest();
-        try (Response initialResponse = blackDuckHttpClient.execute(request)) {
-            blackDuckHttpClient.throwExceptionForError(initialResponse);
-            String initialJsonResponse = initialResponse.getContentString();
-            BlackDuckPageResponse<T> blackDuckPageResponse = blackDuckJsonTransformer.getResponses(initialJsonResponse, clazz);
 
+        BlackDuckPageResponse<T> blackDuckPageResponse = getPage(pagedRequest, clazz);
+        allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
+
+        int totalCount = blackDuckPageResponse.getTotalCount();
+        int totalItemsToRetrieve = Math.min(totalCount, maxToReturn);
+
+        while (allResponses.size() < totalItemsToRetrieve && currentOffset < totalCount) {
+            currentOffset += pagedRequest.getLimit();
+            PagedRequest offsetPagedRequest = new PagedRequest(pagedRequest.getRequestBuilder(), currentOffset, pagedRequest.getLimit());
+            blackDuckPageResponse = getPage(offsetPagedRequest, clazz);
             allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
+        }
+
+        allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
+        return new BlackDuckPageResponse<>(totalCount, allResponses);
+    }
+
+    private <T extends BlackDuckResponse> BlackDuckPageResponse<T> getInternalResponsesConcurrently(PagedRequest pagedRequest, Class<T> clazz, int maxToReturn) throws IntegrationException {
+        BlackDuckPageResponse<T> firstPageResponse = getPage(pagedRequest, clazz);
+        List<T> allResponses = new ArrayList<>(firstPageResponse.getItems());
+
+        int totalCount = firstPageResponse.getTotalCount();
+        int lastOffset = pagedRequest.getOffset() + Math.min(totalCount - pagedRequest.getOffset(), maxToReturn);
 
-            totalCount = blackDuckPageResponse.getTotalCount();
-            int totalItemsToRetrieve = Math.min(totalCount, maxToReturn);
-
-            while (allResponses.size() < totalItemsToRetrieve && currentOffset < totalCount) {
-                currentOffset += pagedRequest.getLimit();
-                PagedRequest offsetPagedRequest = new PagedRequest(pagedRequest.getRequestBuilder(), currentOffset, pagedRequest.getLimit());
-                request = offsetPagedRequest.createRequest();
-                try (Response response = blackDuckHttpClient.execute(request)) {
-                    blackDuckHttpClient.throwExceptionForError(response);
-                    String jsonResponse = response.getContentString();
-                    blackDuckPageResponse = blackDuckJsonTransformer.getResponses(jsonResponse, clazz);
-                    allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
-                } catch (IOException e) {
-                    throw new BlackDuckIntegrationException(e);
-                }
-            }
-
-            allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
-            return new BlackDuckPageResponse<>(totalCount, allResponses);
+        List<Callable<BlackDuckPageResponse<T>>> pageRequests = new ArrayList<>();
+        for (int offset = pagedRequest.getOffset() + pagedRequest.getLimit(); offset < lastOffset; offset += pagedRequest.getLimit()) {
+            PagedRequest offsetPagedRequest = new PagedRequest(pagedRequest.getRequestBuilder(), offset, pagedRequest.getLimit());
+            pageRequests.add(() -> getPage(offsetPagedRequest, clazz));
+        }
+
+        // the results are in the order of the requests, so the items are assembled in offset order
+        for (BlackDuckPageResponse<T> pageResponse : pageRunner.runAll(pageRequests)) {
+            allResponses.addAll(pageResponse.getItems());
+        }
+
+        allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
+        return new BlackDuckPageResponse<>(totalCount, allResponses);
+    }
+
+    <T extends BlackDuckResponse> BlackDuckPageResponse<T> getPage(PagedRequest pagedRequest, Class<T> clazz) throws IntegrationException {
+        Request request = pagedRequest.createRequest();
+        try (Response response = blackDuckHttpClient.execute(request)) {
+            blackDuckHttpClient.throwExceptionForError(response);
+            return blackDuckJsonTransformer.getResponses(response, clazz);
         } catch (IOException e) {
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
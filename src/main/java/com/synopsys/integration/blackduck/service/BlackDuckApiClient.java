@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.core.BlackDuckComponent;
@@ -118,6 +119,16 @@ public class BlackDuckApiClient {
         return getBlackDuckPathResponses(blackDuckPathMultipleResponses, requestBuilder, (pagedRequest, responseClass) -> blackDuckResponsesTransformer.getSomeResponses(pagedRequest, responseClass, totalLimit));
     }
 
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckPathMultipleResponses<T> blackDuckPathMultipleResponses) throws IntegrationException {
+        return streamAllResponses(blackDuckPathMultipleResponses, blackDuckRequestFactory.createCommonGetRequestBuilder());
+    }
+
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckPathMultipleResponses<T> blackDuckPathMultipleResponses, BlackDuckRequestBuilder requestBuilder) throws IntegrationException {
+        HttpUrl url = blackDuckBaseUrl.appendRelativeUrl(blackDuckPathMultipleResponses.getBlackDuckPath().getPath());
+        requestBuilder.url(url);
+        return blackDuckResponsesTransformer.getResponsesStream(new PagedRequest(requestBuilder), blackDuckPathMultipleResponses.getResponseClass());
+    }
+
     public <T extends BlackDuckResponse> T getResponse(BlackDuckPathSingleResponse<T> blackDuckPathSingleResponse, BlackDuckRequestBuilder requestBuilder) throws IntegrationException {
         HttpUrl url = blackDuckBaseUrl.appendRelativeUrl(blackDuckPathSingleResponse.getBlackDuckPath().getPath());
         requestBuilder.url(url);
@@ -157,6 +168,16 @@ public class BlackDuckApiClient {
         return getBlackDuckViewResponses(blackDuckView, linkMultipleResponses, requestBuilder, (pagedRequest, responseClass) -> blackDuckResponsesTransformer.getSomeResponses(pagedRequest, responseClass, totalLimit));
     }
 
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckView blackDuckView, LinkMultipleResponses<T> linkMultipleResponses) throws IntegrationException {
+        return streamAllResponses(blackDuckView, linkMultipleResponses, blackDuckRequestFactory.createCommonGetRequestBuilder());
+    }
+
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckView blackDuckView, LinkMultipleResponses<T> linkMultipleResponses, BlackDuckRequestBuilder requestBuilder) throws IntegrationException {
+        HttpUrl url = blackDuckView.getFirstLink(linkMultipleResponses.getLink());
+        requestBuilder.url(url);
+        return blackDuckResponsesTransformer.getResponsesStream(new PagedRequest(requestBuilder), linkMultipleResponses.getResponseClass());
+    }
+
     public <T extends BlackDuckResponse> Optional<T> getResponse(BlackDuckView blackDuckView, LinkSingleResponse<T> linkSingleResponse) throws IntegrationException {
         try {
             HttpUrl url = blackDuckView.getFirstLink(linkSingleResponse.getLink());
@@ -180,6 +201,11 @@ public class BlackDuckApiClient {
         return blackDuckResponsesTransformer.getSomeResponses(new PagedRequest(requestBuilder), responseClass, totalLimit).getItems();
     }
 
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(HttpUrl url, Class<T> responseClass) {
+        BlackDuckRequestBuilder requestBuilder = blackDuckRequestFactory.createCommonGetRequestBuilder(url);
+        return blackDuckResponsesTransformer.getResponsesStream(new PagedRequest(requestBuilder), responseClass);
+    }
+
     // ------------------------------------------------
     // getting responses from a Request.Builder
     // ------------------------------------------------
@@ -191,6 +217,10 @@ public class BlackDuckApiClient {
         return blackDuckResponsesTransformer.getSomeResponses(new PagedRequest(requestBuilder), responseClass, totalLimit).getItems();
     }
 
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckRequestBuilder requestBuilder, Class<T> responseClass) {
+        return blackDuckResponsesTransformer.getResponsesStream(new PagedRequest(requestBuilder), responseClass);
+    }
+
     public <T extends BlackDuckResponse> T getResponse(HttpUrl url, Class<T> responseClass) throws IntegrationException {
         Request request = blackDuckRequestFactory.createCommonGetRequest(url);
         return blackDuckResponseTransformer.getResponse(request, responseClass);
@@ -240,6 +270,14 @@ public class BlackDuckApiClient {
     // ------------------------------------------------
     public void put(BlackDuckView blackDuckView) throws IntegrationException {
         HttpUrl url = blackDuckView.getHref();
+        if (null == blackDuckView.getJsonElement()) {
+            // views streamed from a page are bound without their json, so the current json is retrieved to know what could have been lost
+            try (Response response = get(url)) {
+                blackDuckJsonTransformer.attachJson(blackDuckView, response.getContentString());
+            } catch (IOException e) {
+                throw new IntegrationException(e.getMessage(), e);
+            }
+        }
         // add the 'missing' pieces back from view that could have been lost
         String json = blackDuckJsonTransformer.producePatchedJson(blackDuckView);
         Request request = blackDuckRequestFactory.createCommonPutRequestBuilder(url, json).build();
@@ -274,9 +312,16 @@ public class BlackDuckApiClient {
     }
 
     public Response execute(Request request) throws IntegrationException {
-        Response response = blackDuckHttpClient.execute(request);
-        blackDuckHttpClient.throwExceptionForError(response);
-        return response;
+        try {
+            Response response = blackDuckHttpClient.execute(request);
+            blackDuckHttpClient.throwExceptionForError(response);
+            return response;
+        } finally {
+            // a PUT or DELETE changes the view at its href and a POST changes the collection it was made to
+            if (HttpMethod.GET != request.getMethod()) {
+                blackDuckResponseTransformer.invalidateCachedResponses(request.getUrl());
+            }
+        }
     }
 
     // ------------------------------------------------
@@ -23,6 +23,7 @@
 package com.synopsys.integration.blackduck.service;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -31,6 +32,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationNotificationPoller;
 import com.synopsys.integration.blackduck.codelocation.CodeLocationWaiter;
 import com.synopsys.integration.blackduck.codelocation.bdio2upload.Bdio2UploadService;
 import com.synopsys.integration.blackduck.codelocation.bdio2upload.UploadBdio2BatchRunner;
@@ -40,7 +42,10 @@ import com.synopsys.integration.blackduck.codelocation.binaryscanner.BinaryScanB
 import com.synopsys.integration.blackduck.codelocation.binaryscanner.BinaryScanUploadService;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.ScanBatchRunner;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.SignatureScannerService;
+import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanResourceBudget;
+import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScannerInstallCache;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.http.cache.BlackDuckResponseCache;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckJsonTransformer;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckResponseTransformer;
@@ -101,6 +106,24 @@ public class BlackDuckServicesFactory {
 
     public BlackDuckServicesFactory(
         IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper, ExecutorService executorService, BlackDuckHttpClient blackDuckHttpClient, IntLogger logger, BlackDuckRequestFactory blackDuckRequestFactory) {
+        this(intEnvironmentVariables, gson, objectMapper, executorService, blackDuckHttpClient, logger, blackDuckRequestFactory, BlackDuckResponsesTransformer.DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS);
+    }
+
+    /**
+     * A maxConcurrentPageRequests greater than one opts in to requesting the pages of a multi-page response concurrently, using the provided ExecutorService.
+     */
+    public BlackDuckServicesFactory(
+        IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper, ExecutorService executorService, BlackDuckHttpClient blackDuckHttpClient, IntLogger logger, BlackDuckRequestFactory blackDuckRequestFactory,
+        int maxConcurrentPageRequests) {
+        this(intEnvironmentVariables, gson, objectMapper, executorService, blackDuckHttpClient, logger, blackDuckRequestFactory, maxConcurrentPageRequests, null);
+    }
+
+    /**
+     * A BlackDuckResponseCache, if provided, will be used for single-response GETs of rarely changing metadata (see BlackDuckResponseTransformer).
+     */
+    public BlackDuckServicesFactory(
+        IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper, ExecutorService executorService, BlackDuckHttpClient blackDuckHttpClient, IntLogger logger, BlackDuckRequestFactory blackDuckRequestFactory,
+        int maxConcurrentPageRequests, BlackDuckResponseCache blackDuckResponseCache) {
         this.intEnvironmentVariables = intEnvironmentVariables;
         this.gson = gson;
         this.objectMapper = objectMapper;
@@ -110,8 +133,8 @@ public class BlackDuckServicesFactory {
         this.blackDuckRequestFactory = blackDuckRequestFactory;
 
         blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, logger);
-        blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
-        blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer, blackDuckResponseCache);
+        blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, executorService, maxConcurrentPageRequests);
 
         blackDuckApiClient = new BlackDuckApiClient(blackDuckHttpClient, gson, blackDuckJsonTransformer, blackDuckResponseTransformer, blackDuckResponsesTransformer, blackDuckRequestFactory);
     }
@@ -133,6 +156,21 @@ public class BlackDuckServicesFactory {
         return createSignatureScannerService(scanBatchRunner);
     }
 
+    /**
+     * The scans of each batch will share the scanResourceBudget, for example ScanResourceBudget.createFromSystem().
+     */
+    public SignatureScannerService createSignatureScannerService(ScanResourceBudget scanResourceBudget) {
+        return createSignatureScannerService(scanResourceBudget, null);
+    }
+
+    /**
+     * Either argument may be null. The scanner will be installed from the scannerInstallCache, for example ScannerInstallCache.createDefault(logger).
+     */
+    public SignatureScannerService createSignatureScannerService(ScanResourceBudget scanResourceBudget, ScannerInstallCache scannerInstallCache) {
+        ScanBatchRunner scanBatchRunner = ScanBatchRunner.createDefault(logger, blackDuckHttpClient, intEnvironmentVariables, executorService, scanResourceBudget, scannerInstallCache);
+        return createSignatureScannerService(scanBatchRunner);
+    }
+
     public SignatureScannerService createSignatureScannerService(ScanBatchRunner scanBatchRunner) {
         return new SignatureScannerService(blackDuckApiClient, blackDuckRequestFactory, logger, scanBatchRunner, createCodeLocationCreationService());
     }
@@ -142,13 +180,24 @@ public class BlackDuckServicesFactory {
     }
 
     public CodeLocationCreationService createCodeLocationCreationService() {
+        return createCodeLocationCreationService(null);
+    }
+
+    /**
+     * Every wait of the returned service will be served by the provided poller, which should be shared by all the services that wait on code locations.
+     */
+    public CodeLocationCreationService createCodeLocationCreationService(CodeLocationNotificationPoller codeLocationNotificationPoller) {
         ProjectService projectService = createProjectService();
         NotificationService notificationService = createNotificationService();
-        CodeLocationWaiter codeLocationWaiter = new CodeLocationWaiter(logger, blackDuckApiClient, projectService, notificationService);
+        CodeLocationWaiter codeLocationWaiter = new CodeLocationWaiter(logger, blackDuckApiClient, projectService, notificationService, codeLocationNotificationPoller);
 
         return new CodeLocationCreationService(blackDuckApiClient, blackDuckRequestFactory, logger, codeLocationWaiter, notificationService);
     }
 
+    public CodeLocationNotificationPoller createCodeLocationNotificationPoller(ScheduledExecutorService scheduledExecutorService) {
+        return new CodeLocationNotificationPoller(logger, blackDuckApiClient, createNotificationService(), scheduledExecutorService);
+    }
+
     public CodeLocationService createCodeLocationService() {
         return new CodeLocationService(blackDuckApiClient, blackDuckRequestFactory, logger);
     }
@@ -24,8 +24,13 @@ package com.synopsys.integration.blackduck.service.dataservice;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -37,6 +42,7 @@ import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionCompo
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolicyStatusView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
 import com.synopsys.integration.blackduck.api.manual.throwaway.generated.view.VulnerableComponentView;
+import com.synopsys.integration.blackduck.concurrent.BoundedConcurrentRunner;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.DataService;
@@ -85,6 +91,44 @@ public class ProjectBomService extends DataService {
         return componentVersionVulnerabilitiesList;
     }
 
+    /**
+     * Produces the same list as getComponentVersionVulnerabilities, but each distinct component version is only retrieved once, and the
+     * retrievals are made on the provided ExecutorService with at most maxConcurrentRequests in progress at any time.
+     */
+    public List<ComponentVersionVulnerabilities> getComponentVersionVulnerabilities(ProjectVersionView projectVersionView, ExecutorService executorService, int maxConcurrentRequests) throws IntegrationException {
+        List<ProjectVersionComponentView> projectVersionComponentViews = getComponentsForProjectVersion(projectVersionView);
+        List<String> componentVersionUrls = projectVersionComponentViews
+                                                .stream()
+                                                .map(ProjectVersionComponentView::getComponentVersion)
+                                                .filter(StringUtils::isNotBlank)
+                                                .collect(Collectors.toList());
+        List<String> distinctComponentVersionUrls = componentVersionUrls
+                                                        .stream()
+                                                        .distinct()
+                                                        .collect(Collectors.toList());
+
+        List<Callable<ComponentVersionVulnerabilities>> vulnerabilityLookups = new ArrayList<>();
+        for (String componentVersionUrl : distinctComponentVersionUrls) {
+            vulnerabilityLookups.add(() -> {
+                ComponentVersionView componentVersionView = blackDuckApiClient.getResponse(new HttpUrl(componentVersionUrl), ComponentVersionView.class);
+                return componentService.getComponentVersionVulnerabilities(componentVersionView);
+            });
+        }
+        BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, maxConcurrentRequests);
+        List<ComponentVersionVulnerabilities> distinctVulnerabilities = boundedConcurrentRunner.runAll(vulnerabilityLookups);
+
+        Map<String, ComponentVersionVulnerabilities> vulnerabilitiesByUrl = new HashMap<>();
+        for (int i = 0; i < distinctComponentVersionUrls.size(); i++) {
+            vulnerabilitiesByUrl.put(distinctComponentVersionUrls.get(i), distinctVulnerabilities.get(i));
+        }
+
+        // one entry per BOM component, in BOM order, just like the sequential version
+        return componentVersionUrls
+                   .stream()
+                   .map(vulnerabilitiesByUrl::get)
+                   .collect(Collectors.toList());
+    }
+
     public List<VersionBomComponentModel> getComponentsWithMatchedFilesForProjectVersion(ProjectVersionView version) throws IntegrationException {
         List<ProjectVersionComponentView> bomComponents = blackDuckApiClient.getAllResponses(version, ProjectVersionView.COMPONENTS_LINK_RESPONSE);
         List<VersionBomComponentModel> modelBomComponents = new ArrayList<>(bomComponents.size());
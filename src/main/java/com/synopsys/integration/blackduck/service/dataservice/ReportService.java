@@ -29,7 +29,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
@@ -47,6 +50,7 @@ import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
 import com.synopsys.integration.blackduck.api.generated.view.ReportView;
 import com.synopsys.integration.blackduck.api.manual.throwaway.generated.enumeration.ReportType;
+import com.synopsys.integration.blackduck.concurrent.BoundedConcurrentRunner;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.exception.RiskReportException;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
@@ -125,45 +129,35 @@ public class ReportService extends DataService {
     }
 
     public ReportData getRiskReportData(ProjectView project, ProjectVersionView version) throws IntegrationException {
-        HttpUrl originalProjectUrl = project.getHref();
-        HttpUrl originalVersionUrl = version.getHref();
-        ReportData reportData = new ReportData();
-        reportData.setProjectName(project.getName());
-        reportData.setProjectURL(getReportProjectUrl(originalProjectUrl));
-        reportData.setProjectVersion(version.getVersionName());
-        reportData.setProjectVersionURL(getReportVersionUrl(originalVersionUrl, false));
-        reportData.setPhase(version.getPhase().toString());
-        reportData.setDistribution(version.getDistribution().toString());
+        ReportData reportData = createReportData(project, version);
         List<BomComponent> components = new ArrayList<>();
         logger.trace("Getting the Report Contents using the Aggregate Bom Rest Server");
         List<ProjectVersionComponentView> bomEntries = blackDuckApiClient.getAllResponses(version, ProjectVersionView.COMPONENTS_LINK_RESPONSE);
-        boolean policyFailure = false;
-        for (ProjectVersionComponentView ProjectVersionComponentView : bomEntries) {
-            String policyStatus = ProjectVersionComponentView.getApprovalStatus().toString();
-            if (StringUtils.isBlank(policyStatus)) {
-                HttpUrl componentPolicyStatusURL = null;
-                if (!StringUtils.isBlank(ProjectVersionComponentView.getComponentVersion())) {
-                    componentPolicyStatusURL = getComponentPolicyURL(originalVersionUrl, ProjectVersionComponentView.getComponentVersion());
-                } else {
-                    componentPolicyStatusURL = getComponentPolicyURL(originalVersionUrl, ProjectVersionComponentView.getComponent());
-                }
-                if (!policyFailure) {
-                    // FIXME if we could check if Black Duck has the policy module we could remove a lot of the mess
-                    try {
-                        PolicyStatusView bomPolicyStatus = blackDuckApiClient.getResponse(componentPolicyStatusURL, PolicyStatusView.class);
-                        policyStatus = bomPolicyStatus.getApprovalStatus().toString();
-                    } catch (IntegrationException e) {
-                        policyFailure = true;
-                        logger.debug("Could not get the component policy status, the Black Duck policy module is not enabled");
-                    }
-                }
-            }
+        AtomicBoolean policyFailure = new AtomicBoolean(false);
+        for (ProjectVersionComponentView projectVersionComponentView : bomEntries) {
+            components.add(createBomComponent(version.getHref(), projectVersionComponentView, policyFailure));
+        }
+        reportData.setComponents(components);
+        return reportData;
+    }
+
+    /**
+     * Collects the same ReportData as getRiskReportData, but the policy lookups for each component are made on the provided ExecutorService,
+     * with at most maxConcurrentRequests components being looked up at any time. The components are kept in BOM order.
+     */
+    public ReportData getRiskReportData(ProjectView project, ProjectVersionView version, ExecutorService executorService, int maxConcurrentRequests) throws IntegrationException {
+        ReportData reportData = createReportData(project, version);
+        logger.trace("Getting the Report Contents using the Aggregate Bom Rest Server");
+        List<ProjectVersionComponentView> bomEntries = blackDuckApiClient.getAllResponses(version, ProjectVersionView.COMPONENTS_LINK_RESPONSE);
+        AtomicBoolean policyFailure = new AtomicBoolean(false);
 
-            BomComponent component = createBomComponentFromBomComponentView(ProjectVersionComponentView);
-            component.setPolicyStatus(policyStatus);
-            populatePolicyRuleInfo(component, ProjectVersionComponentView);
-            components.add(component);
+        List<Callable<BomComponent>> componentLookups = new ArrayList<>();
+        for (ProjectVersionComponentView projectVersionComponentView : bomEntries) {
+            componentLookups.add(() -> createBomComponent(version.getHref(), projectVersionComponentView, policyFailure));
         }
+        BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, maxConcurrentRequests);
+        List<BomComponent> components = boundedConcurrentRunner.runAll(componentLookups);
+
         reportData.setComponents(components);
         return reportData;
     }
@@ -208,6 +202,45 @@ public class ReportService extends DataService {
         }
     }
 
+    private ReportData createReportData(ProjectView project, ProjectVersionView version) throws IntegrationException {
+        ReportData reportData = new ReportData();
+        reportData.setProjectName(project.getName());
+        reportData.setProjectURL(getReportProjectUrl(project.getHref()));
+        reportData.setProjectVersion(version.getVersionName());
+        reportData.setProjectVersionURL(getReportVersionUrl(version.getHref(), false));
+        reportData.setPhase(version.getPhase().toString());
+        reportData.setDistribution(version.getDistribution().toString());
+        return reportData;
+    }
+
+    private BomComponent createBomComponent(HttpUrl originalVersionUrl, ProjectVersionComponentView projectVersionComponentView, AtomicBoolean policyFailure) throws IntegrationException {
+        PolicyStatusType approvalStatus = projectVersionComponentView.getApprovalStatus();
+        String policyStatus = null == approvalStatus ? null : approvalStatus.toString();
+        if (StringUtils.isBlank(policyStatus)) {
+            HttpUrl componentPolicyStatusURL = null;
+            if (!StringUtils.isBlank(projectVersionComponentView.getComponentVersion())) {
+                componentPolicyStatusURL = getComponentPolicyURL(originalVersionUrl, projectVersionComponentView.getComponentVersion());
+            } else {
+                componentPolicyStatusURL = getComponentPolicyURL(originalVersionUrl, projectVersionComponentView.getComponent());
+            }
+            if (!policyFailure.get()) {
+                // FIXME if we could check if Black Duck has the policy module we could remove a lot of the mess
+                try {
+                    PolicyStatusView bomPolicyStatus = blackDuckApiClient.getResponse(componentPolicyStatusURL, PolicyStatusView.class);
+                    policyStatus = bomPolicyStatus.getApprovalStatus().toString();
+                } catch (IntegrationException e) {
+                    policyFailure.set(true);
+                    logger.debug("Could not get the component policy status, the Black Duck policy module is not enabled");
+                }
+            }
+        }
+
+        BomComponent component = createBomComponentFromBomComponentView(projectVersionComponentView);
+        component.setPolicyStatus(policyStatus);
+        populatePolicyRuleInfo(component, projectVersionComponentView);
+        return component;
+    }
+
     private HttpUrl getComponentPolicyURL(HttpUrl versionURL, String componentURL) throws IntegrationException {
         String componentVersionSegments = componentURL.substring(componentURL.indexOf("components"));
         return new HttpUrl(versionURL.string() + "/" + componentVersionSegments + "/" + "policy-status");
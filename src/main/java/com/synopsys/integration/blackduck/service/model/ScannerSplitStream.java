@@ -25,14 +25,23 @@ package com.synopsys.integration.blackduck.service.model;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.synopsys.integration.log.IntLogger;
 
+/**
+ * Copies the scanner output to a file while logging the significant lines. Bytes are collected in a reusable buffer and only decoded (as UTF-8) once a
+ * whole line has arrived, so multi-byte characters split across writes are decoded correctly. Only the last maxOutputLines logged lines are retained.
+ */
 public class ScannerSplitStream extends OutputStream {
+    public static final int DEFAULT_MAX_OUTPUT_LINES = 1000;
+
     // https://www.cs.cmu.edu/~pattis/15-1XX/common/handouts/ascii.html
     private static final int EOF = -1; // End of file
 
@@ -44,6 +53,8 @@ public class ScannerSplitStream extends OutputStream {
 
     private static final int CR = 13; // Carriage return
 
+    private static final int INITIAL_LINE_CAPACITY = 256;
+
     private static final String EXCEPTION = "Exception:";
 
     private static final String FINISHED = "Finished in";
@@ -64,25 +75,52 @@ public class ScannerSplitStream extends OutputStream {
 
     private final IntLogger logger;
 
-    private String output = "";
+    private final int maxOutputLines;
+
+    private final Consumer<String> lineConsumer;
 
-    private String lineBuffer = "";
+    private final Deque<String> outputLines = new ArrayDeque<>();
 
-    private String currentLine = "";
+    private final StringBuilder lineBuffer = new StringBuilder();
 
-    private int previousCodePoint = -1;
+    private byte[] currentLine = new byte[INITIAL_LINE_CAPACITY];
+
+    private int currentLineLength = 0;
+
+    private boolean previousWasCarriageReturn = false;
 
     public ScannerSplitStream(IntLogger logger, OutputStream outputFileStream) {
+        this(logger, outputFileStream, DEFAULT_MAX_OUTPUT_LINES);
+    }
+
+    public ScannerSplitStream(IntLogger logger, OutputStream outputFileStream, int maxOutputLines) {
+        this(logger, outputFileStream, maxOutputLines, null);
+    }
+
+    /**
+     * @param lineConsumer if not null, receives every complete line of output, whether or not it is logged
+     */
+    public ScannerSplitStream(IntLogger logger, OutputStream outputFileStream, int maxOutputLines, Consumer<String> lineConsumer) {
         this.outputFileStream = outputFileStream;
         this.logger = logger;
+        this.maxOutputLines = Math.max(1, maxOutputLines);
+        this.lineConsumer = lineConsumer;
     }
 
+    /**
+     * @return the last logged lines (at most maxOutputLines of them), each followed by a line separator
+     */
     public String getOutput() {
-        return output;
+        StringBuilder outputBuilder = new StringBuilder();
+        for (String outputLine : outputLines) {
+            outputBuilder.append(outputLine);
+            outputBuilder.append(LINE_SEPARATOR);
+        }
+        return outputBuilder.toString();
     }
 
     public Boolean hasOutput() {
-        return StringUtils.isNotBlank(output);
+        return !outputLines.isEmpty();
     }
 
     @Override
@@ -93,30 +131,67 @@ public class ScannerSplitStream extends OutputStream {
             throw new EOFException();
         }
 
-        boolean atLineEnd = false;
-        if (ETX == codePoint || EOT == codePoint) {
-            atLineEnd = true;
-        } else if (LF == codePoint && CR != previousCodePoint) {
-            atLineEnd = true;
-        } else if (LF == codePoint && CR == previousCodePoint) {
-            atLineEnd = true;
-            // also need to remove the previously consumed CR
-            currentLine = currentLine.substring(0, currentLine.length() - 1);
-        } else if (LF != codePoint && CR == previousCodePoint) {
-            processLine(currentLine);
-            currentLine = "";
+        consume(codePoint & 0xFF);
+    }
+
+    @Override
+    public void write(byte[] byteArray) throws IOException {
+        write(byteArray, 0, byteArray.length);
+    }
+
+    @Override
+    public void write(byte[] byteArray, int offset, int length) throws IOException {
+        outputFileStream.write(byteArray, offset, length);
+
+        for (int i = offset; i < offset + length; i++) {
+            consume(byteArray[i] & 0xFF);
+        }
+    }
+
+    private void consume(int currentByte) {
+        if (previousWasCarriageReturn) {
+            previousWasCarriageReturn = false;
+            if (LF == currentByte) {
+                // the line already ended at the CR of this CRLF
+                return;
+            }
         }
-        previousCodePoint = codePoint;
 
-        if (atLineEnd) {
-            processLine(currentLine);
-            currentLine = "";
+        if (ETX == currentByte || EOT == currentByte || LF == currentByte) {
+            endLine();
+        } else if (CR == currentByte) {
+            previousWasCarriageReturn = true;
+            endLine();
         } else {
-            String stringAscii = new String(Character.toChars(codePoint));
-            currentLine += stringAscii;
+            appendToCurrentLine(currentByte);
+        }
+    }
+
+    private void appendToCurrentLine(int currentByte) {
+        if (currentLineLength == currentLine.length) {
+            currentLine = Arrays.copyOf(currentLine, currentLine.length * 2);
+        }
+        currentLine[currentLineLength++] = (byte) currentByte;
+    }
+
+    private void endLine() {
+        String line = decodeCurrentLine();
+        consumeLine(line);
+        processLine(line);
+    }
+
+    private void consumeLine(String line) {
+        if (null != lineConsumer) {
+            lineConsumer.accept(line);
         }
     }
 
+    private String decodeCurrentLine() {
+        String line = new String(currentLine, 0, currentLineLength, StandardCharsets.UTF_8);
+        currentLineLength = 0;
+        return line;
+    }
+
     private Boolean isLoggableLine(String line) {
         String trimmedLine = line.trim();
         if (trimmedLine.startsWith(ERROR)) {
@@ -140,60 +215,24 @@ public class ScannerSplitStream extends OutputStream {
         return StringUtils.containsIgnoreCase(trimmedLine, FINISHED);
     }
 
-    private void processLine(String line) throws UnsupportedEncodingException {
+    private void processLine(String line) {
         if (lineBuffer.length() == 0) {
             // First log line found, put it in the buffer
-            lineBuffer = line;
+            lineBuffer.append(line);
         } else if (isLoggableLine(line)) {
             // next real log message came in, print the log in the buffer
-            // print stored lines
-            writeToConsole(lineBuffer);
+            writeToConsole(lineBuffer.toString());
 
             // replace with the current line
-            lineBuffer = line;
+            lineBuffer.setLength(0);
+            lineBuffer.append(line);
         } else {
             // We assume that each new log starts with the log level, if this
             // line does not contain a log level it
             // must only be a piece of a log
             // needs to be added into the buffer
-            StringBuilder builder = new StringBuilder();
-            builder.append(lineBuffer);
-
-            builder.append(LINE_SEPARATOR);
-            builder.append(line);
-            lineBuffer = builder.toString();
-        }
-    }
-
-    @Override
-    public void write(byte[] byteArray) throws IOException {
-        outputFileStream.write(byteArray);
-
-        String currentLine = new String(byteArray, StandardCharsets.UTF_8);
-        if (currentLine.contains(LINE_SEPARATOR)) {
-            String[] splitLines = currentLine.split(LINE_SEPARATOR);
-
-            for (String line : splitLines) {
-                processLine(line);
-            }
-        } else {
-            processLine(currentLine);
-        }
-    }
-
-    @Override
-    public void write(byte[] byteArray, int offset, int length) throws IOException {
-        outputFileStream.write(byteArray, offset, length);
-
-        String currentLine = new String(byteArray, offset, length, StandardCharsets.UTF_8);
-        if (currentLine.contains(LINE_SEPARATOR)) {
-            String[] splitLines = currentLine.split(LINE_SEPARATOR);
-
-            for (String line : splitLines) {
-                processLine(line);
-            }
-        } else {
-            processLine(currentLine);
+            lineBuffer.append(LINE_SEPARATOR);
+            lineBuffer.append(line);
         }
     }
 
@@ -202,12 +241,13 @@ public class ScannerSplitStream extends OutputStream {
         outputFileStream.flush();
 
         // Print whatever is left in the buffer
-        writeToConsole(lineBuffer);
-        lineBuffer = "";
+        writeToConsole(lineBuffer.toString());
+        lineBuffer.setLength(0);
         // Print whatever is left in the buffer
-        if (StringUtils.isNotBlank(currentLine)) {
-            writeToConsole(currentLine);
-            currentLine = "";
+        String remainingLine = decodeCurrentLine();
+        if (StringUtils.isNotBlank(remainingLine)) {
+            consumeLine(remainingLine);
+            writeToConsole(remainingLine);
         }
     }
 
@@ -225,32 +265,30 @@ public class ScannerSplitStream extends OutputStream {
             // We dont want to print Debug or Trace logs to the logger
             return;
         }
-        StringBuilder outputBuilder = new StringBuilder();
-        outputBuilder.append(output);
         if (trimmedLine.startsWith(ERROR)) {
-            outputBuilder.append(trimmedLine);
-            outputBuilder.append(LINE_SEPARATOR);
+            retainOutput(trimmedLine);
             logger.error(trimmedLine);
         } else if (trimmedLine.startsWith(WARN)) {
-            outputBuilder.append(trimmedLine);
-            outputBuilder.append(LINE_SEPARATOR);
+            retainOutput(trimmedLine);
             logger.warn(trimmedLine);
         } else if (trimmedLine.startsWith(INFO)) {
-            outputBuilder.append(trimmedLine);
-            outputBuilder.append(LINE_SEPARATOR);
+            retainOutput(trimmedLine);
             logger.info(trimmedLine);
         } else if (StringUtils.containsIgnoreCase(trimmedLine, EXCEPTION)) {
             // looking for 'Exception in thread' type messages
-            outputBuilder.append(trimmedLine);
-            outputBuilder.append(LINE_SEPARATOR);
+            retainOutput(trimmedLine);
             logger.error(trimmedLine);
         } else if (StringUtils.containsIgnoreCase(trimmedLine, FINISHED)) {
-            outputBuilder.append(trimmedLine);
-            outputBuilder.append(LINE_SEPARATOR);
+            retainOutput(trimmedLine);
             logger.info(trimmedLine);
         }
+    }
 
-        output = outputBuilder.toString();
+    private void retainOutput(String trimmedLine) {
+        if (outputLines.size() == maxOutputLines) {
+            outputLines.removeFirst();
+        }
+        outputLines.addLast(trimmedLine);
     }
 
 }
@@ -30,6 +30,8 @@ import java.io.OutputStream;
  * Remember to close the Streams when they are done being used.
  */
 public class StreamRedirectThread extends Thread {
+    private static final int BUFFER_SIZE = 8192;
+
     private final InputStream in;
 
     private final OutputStream out;
@@ -43,12 +45,10 @@ public class StreamRedirectThread extends Thread {
     @Override
     public void run() {
         try {
-            int i;
-            while ((i = in.read()) >= 0) {
-                if (i == -1) {
-                    break;
-                }
-                out.write(i);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, bytesRead);
             }
         } catch (final IOException e) {
             // Ignore
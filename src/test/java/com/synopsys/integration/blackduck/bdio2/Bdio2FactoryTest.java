@@ -0,0 +1,73 @@
+package com.synopsys.integration.blackduck.bdio2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.blackducksoftware.bdio2.model.Component;
+import com.blackducksoftware.bdio2.model.Project;
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+public class Bdio2FactoryTest {
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+    private final Bdio2Factory bdio2Factory = new Bdio2Factory();
+
+    @Test
+    public void testVeryDeepGraphDoesNotOverflowTheStack() {
+        MutableDependencyGraph dependencyGraph = new MutableMapDependencyGraph();
+        Dependency parent = createDependency(0);
+        dependencyGraph.addChildToRoot(parent);
+        for (int i = 1; i < 100000; i++) {
+            Dependency child = createDependency(i);
+            dependencyGraph.addParentWithChild(parent, child);
+            parent = child;
+        }
+
+        List<Component> components = bdio2Factory.createAndLinkComponents(dependencyGraph, createProject());
+
+        assertEquals(100000, components.size());
+    }
+
+    @Test
+    public void testSharedDependenciesAreEmittedOnce() {
+        Dependency left = createDependency(1);
+        Dependency right = createDependency(2);
+        Dependency shared = createDependency(3);
+        Dependency sharedChild = createDependency(4);
+
+        MutableDependencyGraph dependencyGraph = new MutableMapDependencyGraph();
+        dependencyGraph.addChildrenToRoot(left, right);
+        dependencyGraph.addParentWithChild(left, shared);
+        dependencyGraph.addParentWithChild(right, shared);
+        dependencyGraph.addParentWithChild(shared, sharedChild);
+
+        List<Component> emitted = new ArrayList<>();
+        bdio2Factory.createAndLinkComponents(dependencyGraph, createProject(), emitted::add);
+
+        Set<String> emittedIds = emitted.stream().map(component -> String.valueOf(component.get("@id"))).collect(Collectors.toSet());
+        assertEquals(4, emitted.size());
+        assertEquals(4, emittedIds.size());
+    }
+
+    private Project createProject() {
+        ExternalId projectExternalId = externalIdFactory.createMavenExternalId("group", "project", "1.0");
+        return bdio2Factory.createProject(projectExternalId, "project", "1.0");
+    }
+
+    private Dependency createDependency(int index) {
+        String name = "component" + index;
+        ExternalId externalId = externalIdFactory.createNameVersionExternalId(Forge.MAVEN, name, "1.0");
+        return new Dependency(name, "1.0", externalId);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.synopsys.integration.blackduck.codelocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.util.NameVersion;
+
+public class CodeLocationCreationServiceTest {
+    @Test
+    public void testCreationRunsOnTheCreationExecutorAndChecksOnTheScheduler() throws Exception {
+        UserView userView = new UserView();
+        BlackDuckApiClient mockBlackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(mockBlackDuckApiClient.getResponse(ApiDiscovery.CURRENT_USER_LINK_RESPONSE)).thenReturn(userView);
+        NotificationService mockNotificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(mockNotificationService.getLatestUserNotificationDate(userView)).thenReturn(new Date());
+
+        CodeLocationBatchOutput<?> mockOutput = Mockito.mock(CodeLocationBatchOutput.class);
+        Mockito.when(mockOutput.getProjectAndVersion()).thenReturn(new NameVersion("project", "version"));
+        Mockito.when(mockOutput.getSuccessfulCodeLocationNames()).thenReturn(Collections.singleton("code location"));
+        Mockito.when(mockOutput.getExpectedNotificationCount()).thenReturn(1);
+
+        AtomicReference<String> creationThread = new AtomicReference<>();
+        CodeLocationCreationRequest<CodeLocationBatchOutput<?>> codeLocationCreationRequest = new CodeLocationCreationRequest<CodeLocationBatchOutput<?>>() {
+            @Override
+            public CodeLocationBatchOutput<?> executeRequest() {
+                creationThread.set(Thread.currentThread().getName());
+                return mockOutput;
+            }
+        };
+
+        AtomicReference<String> checkThread = new AtomicReference<>();
+        CodeLocationWaiter mockCodeLocationWaiter = Mockito.mock(CodeLocationWaiter.class);
+        Mockito.when(mockCodeLocationWaiter.checkCodeLocationsAddedToBomAsync(Mockito.eq(userView), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyLong(), Mockito.any(), Mockito.any()))
+            .thenAnswer(invocation -> {
+                checkThread.set(Thread.currentThread().getName());
+                return CompletableFuture.completedFuture(CodeLocationWaitResult.COMPLETE(Collections.singleton("code location")));
+            });
+
+        CodeLocationCreationService codeLocationCreationService = new CodeLocationCreationService(mockBlackDuckApiClient, new BlackDuckRequestFactory(), new BufferedIntLogger(), mockCodeLocationWaiter, mockNotificationService);
+        ExecutorService creationExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "creation"));
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "scheduler"));
+        try {
+            CodeLocationBatchOutput<?> output = codeLocationCreationService.createCodeLocationsAndWaitAsync(codeLocationCreationRequest, 60, creationExecutor, scheduledExecutorService).get(5, TimeUnit.SECONDS);
+
+            assertSame(mockOutput, output);
+            assertEquals("creation", creationThread.get());
+            assertEquals("scheduler", checkThread.get());
+        } finally {
+            creationExecutor.shutdownNow();
+            scheduledExecutorService.shutdownNow();
+        }
+    }
+
+}
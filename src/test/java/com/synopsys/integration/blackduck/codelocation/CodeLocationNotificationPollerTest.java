@@ -0,0 +1,144 @@
+package com.synopsys.integration.blackduck.codelocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.component.VersionBomCodeLocationBomComputedNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationUserView;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.dataservice.NotificationService;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class CodeLocationNotificationPollerTest {
+    @Test
+    public void testOneQueryPerTickForAllSubscribers() throws IntegrationException {
+        UserView userView = new UserView();
+        BlackDuckApiClient mockBlackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(mockBlackDuckApiClient.getResponse(ApiDiscovery.CURRENT_USER_LINK_RESPONSE)).thenReturn(userView);
+
+        ScheduledFuture<?> mockScheduledFuture = Mockito.mock(ScheduledFuture.class);
+        ScheduledExecutorService mockScheduledExecutorService = Mockito.mock(ScheduledExecutorService.class);
+        Mockito.doReturn(mockScheduledFuture).when(mockScheduledExecutorService).scheduleWithFixedDelay(Mockito.any(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any());
+
+        VersionBomCodeLocationBomComputedNotificationUserView first = createNotification("one", 1, new Date(2000));
+        VersionBomCodeLocationBomComputedNotificationUserView second = createNotification("two", 2, new Date(3000));
+        VersionBomCodeLocationBomComputedNotificationUserView third = createNotification("three", 3, new Date(4000));
+        NotificationService mockNotificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(mockNotificationService.getFilteredUserNotifications(Mockito.eq(userView), Mockito.any(), Mockito.any(), Mockito.anyList()))
+            .thenReturn(Arrays.<NotificationUserView>asList(first, second), Arrays.<NotificationUserView>asList(second, third));
+
+        CodeLocationNotificationPoller codeLocationNotificationPoller = new CodeLocationNotificationPoller(new BufferedIntLogger(), mockBlackDuckApiClient, mockNotificationService, mockScheduledExecutorService, 1000);
+
+        List<VersionBomCodeLocationBomComputedNotificationUserView> fromStart = new ArrayList<>();
+        List<VersionBomCodeLocationBomComputedNotificationUserView> fromLater = new ArrayList<>();
+        CodeLocationNotificationSubscription fromStartSubscription = codeLocationNotificationPoller.subscribe(new Date(1000), fromStart::add);
+        CodeLocationNotificationSubscription fromLaterSubscription = codeLocationNotificationPoller.subscribe(new Date(2500), fromLater::add);
+
+        codeLocationNotificationPoller.poll();
+        codeLocationNotificationPoller.poll();
+
+        assertEquals(Arrays.asList(first, second, third), fromStart);
+        assertEquals(Arrays.asList(second, third), fromLater);
+        Mockito.verify(mockNotificationService, Mockito.times(2)).getFilteredUserNotifications(Mockito.eq(userView), Mockito.any(), Mockito.any(), Mockito.anyList());
+        Mockito.verify(mockScheduledExecutorService, Mockito.times(1)).scheduleWithFixedDelay(Mockito.any(), Mockito.eq(0L), Mockito.eq(1000L), Mockito.eq(TimeUnit.MILLISECONDS));
+
+        // a late subscriber is caught up from what was already retrieved
+        List<VersionBomCodeLocationBomComputedNotificationUserView> lateSubscriber = new ArrayList<>();
+        CodeLocationNotificationSubscription lateSubscription = codeLocationNotificationPoller.subscribe(new Date(3500), lateSubscriber::add);
+        assertEquals(Arrays.asList(third), lateSubscriber);
+
+        fromStartSubscription.close();
+        fromLaterSubscription.close();
+        Mockito.verify(mockScheduledFuture, Mockito.never()).cancel(Mockito.anyBoolean());
+        lateSubscription.close();
+        Mockito.verify(mockScheduledFuture).cancel(false);
+        assertEquals(0, codeLocationNotificationPoller.getSubscriptionCount());
+    }
+
+    @Test
+    public void testSubscribingDoesNotWaitForAFetchInFlight() throws Exception {
+        UserView userView = new UserView();
+        BlackDuckApiClient mockBlackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(mockBlackDuckApiClient.getResponse(ApiDiscovery.CURRENT_USER_LINK_RESPONSE)).thenReturn(userView);
+
+        ScheduledExecutorService mockScheduledExecutorService = Mockito.mock(ScheduledExecutorService.class);
+        Mockito.doReturn(Mockito.mock(ScheduledFuture.class)).when(mockScheduledExecutorService).scheduleWithFixedDelay(Mockito.any(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any());
+
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        VersionBomCodeLocationBomComputedNotificationUserView later = createNotification("later", 1, new Date(5000));
+        List<Date> cursors = new CopyOnWriteArrayList<>();
+        NotificationService mockNotificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(mockNotificationService.getFilteredUserNotifications(Mockito.eq(userView), Mockito.any(), Mockito.any(), Mockito.anyList())).thenAnswer(invocation -> {
+            cursors.add(invocation.getArgument(1));
+            if (cursors.size() == 1) {
+                fetchStarted.countDown();
+                releaseFetch.await();
+            }
+            return Arrays.<NotificationUserView>asList(later);
+        });
+
+        CodeLocationNotificationPoller codeLocationNotificationPoller = new CodeLocationNotificationPoller(new BufferedIntLogger(), mockBlackDuckApiClient, mockNotificationService, mockScheduledExecutorService, 1000);
+        codeLocationNotificationPoller.subscribe(new Date(2000), notification -> {});
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> poll = executorService.submit(() -> {
+                codeLocationNotificationPoller.poll();
+                return null;
+            });
+            fetchStarted.await();
+
+            List<VersionBomCodeLocationBomComputedNotificationUserView> earlier = new ArrayList<>();
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> codeLocationNotificationPoller.subscribe(new Date(1000), earlier::add));
+            releaseFetch.countDown();
+            poll.get();
+
+            assertEquals(Arrays.asList(later), earlier);
+            // the fetch in flight started from the old cursor, so the cursor stays where the new subscription put it
+            codeLocationNotificationPoller.poll();
+            assertEquals(Arrays.asList(new Date(2000), new Date(1000)), cursors);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private VersionBomCodeLocationBomComputedNotificationUserView createNotification(String codeLocationName, int id, Date createdAt) throws IntegrationException {
+        VersionBomCodeLocationBomComputedNotificationContent content = new VersionBomCodeLocationBomComputedNotificationContent();
+        content.setCodeLocation("https://www.blackducksoftware.com/" + codeLocationName);
+
+        ResourceMetadata resourceMetadata = new ResourceMetadata();
+        resourceMetadata.setHref(new HttpUrl("https://www.blackducksoftware.com/api/notifications/" + id));
+
+        VersionBomCodeLocationBomComputedNotificationUserView notificationView = new VersionBomCodeLocationBomComputedNotificationUserView();
+        notificationView.setContent(content);
+        notificationView.setMeta(resourceMetadata);
+        notificationView.setCreatedAt(createdAt);
+
+        return notificationView;
+    }
+
+}
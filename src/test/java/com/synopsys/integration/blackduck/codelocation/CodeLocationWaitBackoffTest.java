@@ -0,0 +1,80 @@
+package com.synopsys.integration.blackduck.codelocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class CodeLocationWaitBackoffTest {
+    @Test
+    public void testIntervalsGrowExponentiallyUpToTheCap() {
+        CodeLocationWaitBackoff codeLocationWaitBackoff = new CodeLocationWaitBackoff(1000, 10000, 2.0, 0.2, () -> 0.5);
+
+        assertEquals(1000, codeLocationWaitBackoff.calculateIntervalInMillis(0));
+        assertEquals(2000, codeLocationWaitBackoff.calculateIntervalInMillis(1));
+        assertEquals(4000, codeLocationWaitBackoff.calculateIntervalInMillis(2));
+        assertEquals(8000, codeLocationWaitBackoff.calculateIntervalInMillis(3));
+        assertEquals(10000, codeLocationWaitBackoff.calculateIntervalInMillis(4));
+        assertEquals(10000, codeLocationWaitBackoff.calculateIntervalInMillis(100));
+    }
+
+    @Test
+    public void testJitterSpreadsTheInterval() {
+        CodeLocationWaitBackoff lowest = new CodeLocationWaitBackoff(1000, 10000, 2.0, 0.2, () -> 0.0);
+        CodeLocationWaitBackoff highest = new CodeLocationWaitBackoff(1000, 10000, 2.0, 0.2, () -> 1.0);
+
+        assertEquals(1600, lowest.calculateIntervalInMillis(1));
+        assertEquals(2400, highest.calculateIntervalInMillis(1));
+        // the jitter is applied to the capped interval so capped waiters do not line up
+        assertEquals(8000, lowest.calculateIntervalInMillis(10));
+        assertEquals(12000, highest.calculateIntervalInMillis(10));
+    }
+
+    @Test
+    public void testCappedIntervalsStillVary() {
+        CodeLocationWaitBackoff codeLocationWaitBackoff = CodeLocationWaitBackoff.createDefault();
+        Set<Long> intervals = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            long interval = codeLocationWaitBackoff.calculateIntervalInMillis(20);
+            assertTrue(interval >= 48000 && interval <= 72000, "Unexpected interval: " + interval);
+            intervals.add(interval);
+        }
+        assertTrue(intervals.size() > 1);
+    }
+
+    @Test
+    public void testDefaultBackoffCapsAtTheDefaultWaitInterval() {
+        CodeLocationWaitBackoff codeLocationWaitBackoff = CodeLocationWaitBackoff.createDefault();
+
+        assertEquals(CodeLocationCreationService.DEFAULT_WAIT_INTERVAL_IN_SECONDS * 1000L, codeLocationWaitBackoff.getMaxIntervalInMillis());
+    }
+
+    @Test
+    public void testRandomJitterStaysInRange() {
+        CodeLocationWaitBackoff codeLocationWaitBackoff = CodeLocationWaitBackoff.createDefault();
+        for (int i = 0; i < 1000; i++) {
+            long interval = codeLocationWaitBackoff.calculateIntervalInMillis(0);
+            assertTrue(interval >= 1600 && interval <= 2400, "Unexpected interval: " + interval);
+        }
+    }
+
+    @Test
+    public void testFixedInterval() {
+        CodeLocationWaitBackoff codeLocationWaitBackoff = CodeLocationWaitBackoff.createFixed(5);
+
+        assertEquals(5000, codeLocationWaitBackoff.calculateIntervalInMillis(0));
+        assertEquals(5000, codeLocationWaitBackoff.calculateIntervalInMillis(7));
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new CodeLocationWaitBackoff(2000, 1000, 2.0, 0.2));
+        assertThrows(IllegalArgumentException.class, () -> new CodeLocationWaitBackoff(1000, 2000, 0.5, 0.2));
+        assertThrows(IllegalArgumentException.class, () -> new CodeLocationWaitBackoff(1000, 2000, 2.0, 1.5));
+    }
+
+}
@@ -16,6 +16,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -129,6 +136,43 @@ public class CodeLocationWaiterTest {
         assertTrue(codeLocationWaitResult.getErrorMessage().isPresent());
     }
 
+    @Test
+    public void testAsyncWaitSharesOneSchedulerThread() throws InterruptedException, ExecutionException, TimeoutException, IntegrationException {
+        BufferedIntLogger logger = new BufferedIntLogger();
+
+        MockCodeLocationData mockCodeLocationData = twoCodeLocations();
+
+        NotificationUserView first = createTestNotification("one");
+        NotificationUserView second = createTestNotification("two");
+        AtomicInteger checkCount = new AtomicInteger();
+        NotificationService mockNotificationService = Mockito.mock(NotificationService.class);
+        Mockito.when(mockNotificationService.getFilteredUserNotifications(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyList()))
+            .thenAnswer(invocation -> checkCount.incrementAndGet() < 3 ? Arrays.asList(first) : Arrays.asList(first, second));
+
+        NotificationTaskRange notificationTaskRange = createTestRange();
+        Set<String> codeLocationNames = new HashSet<>(Arrays.asList("one", "two"));
+        CodeLocationWaitBackoff codeLocationWaitBackoff = new CodeLocationWaitBackoff(100, 400, 2.0, 0.0);
+
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CodeLocationWaiter codeLocationWaiter = new CodeLocationWaiter(logger, mockCodeLocationData.mockBlackDuckApiClient, mockCodeLocationData.mockProjectService, mockNotificationService);
+            CompletableFuture<CodeLocationWaitResult> completeWait = codeLocationWaiter.checkCodeLocationsAddedToBomAsync(new UserView(), notificationTaskRange, mockCodeLocationData.testProjectAndVersion, codeLocationNames, 2, 30,
+                codeLocationWaitBackoff, scheduledExecutorService);
+            CompletableFuture<CodeLocationWaitResult> partialWait = codeLocationWaiter.checkCodeLocationsAddedToBomAsync(new UserView(), notificationTaskRange, mockCodeLocationData.testProjectAndVersion,
+                new HashSet<>(Arrays.asList("one", "three")), 2, 1, codeLocationWaitBackoff, scheduledExecutorService);
+
+            CodeLocationWaitResult completeResult = completeWait.get(10, TimeUnit.SECONDS);
+            assertEquals(CodeLocationWaitResult.Status.COMPLETE, completeResult.getStatus());
+            assertTrue(completeResult.getCodeLocationNames().containsAll(codeLocationNames));
+
+            CodeLocationWaitResult partialResult = partialWait.get(10, TimeUnit.SECONDS);
+            assertEquals(CodeLocationWaitResult.Status.PARTIAL, partialResult.getStatus());
+            assertTrue(partialResult.getErrorMessage().isPresent());
+        } finally {
+            scheduledExecutorService.shutdownNow();
+        }
+    }
+
     @ParameterizedTest
     @CsvSource({
         "20, 30",
@@ -0,0 +1,81 @@
+package com.synopsys.integration.blackduck.codelocation.bdio2upload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.blackduck.bdio2.Bdio2Factory;
+import com.synopsys.integration.blackduck.bdio2.Bdio2Writer;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadTarget;
+
+public class Bdio2BatchGeneratorTest {
+    private final Bdio2Factory bdio2Factory = new Bdio2Factory();
+
+    @Test
+    public void testDocumentsAreGeneratedInParallelAndInOrder() throws Exception {
+        File outputDirectory = Files.createTempDirectory("bdio2-batch").toFile();
+        ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+        try {
+            List<Bdio2GenerationTarget> bdio2GenerationTargets = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                bdio2GenerationTargets.add(Bdio2GenerationTargetUtil.createGenerationTarget("code location/" + i));
+            }
+
+            Bdio2BatchGenerator bdio2BatchGenerator = new Bdio2BatchGenerator(bdio2Factory, new Bdio2Writer(), forkJoinPool);
+            List<CompletableFuture<UploadTarget>> pendingUploadTargets = bdio2BatchGenerator.generateDocuments(bdio2GenerationTargets, outputDirectory);
+
+            assertEquals(4, pendingUploadTargets.size());
+            for (int i = 0; i < 4; i++) {
+                UploadTarget uploadTarget = pendingUploadTargets.get(i).get();
+                assertEquals("code location/" + i, uploadTarget.getCodeLocationName());
+                assertEquals(Bdio2BatchGenerator.BDIO2_MEDIA_TYPE, uploadTarget.getMediaType());
+                assertEquals(outputDirectory, uploadTarget.getUploadFile().getParentFile());
+                assertTrue(uploadTarget.getUploadFile().length() > 0);
+            }
+        } finally {
+            forkJoinPool.shutdown();
+            FileUtils.deleteDirectory(outputDirectory);
+        }
+    }
+
+    @Test
+    public void testNamesThatEscapeAlikeGetTheirOwnFiles() throws Exception {
+        File outputDirectory = Files.createTempDirectory("bdio2-batch").toFile();
+        try {
+            Bdio2BatchGenerator bdio2BatchGenerator = new Bdio2BatchGenerator(bdio2Factory, new Bdio2Writer());
+            UploadTarget slash = bdio2BatchGenerator.writeDocument(Bdio2GenerationTargetUtil.createGenerationTarget("code/location"), outputDirectory);
+            UploadTarget colon = bdio2BatchGenerator.writeDocument(Bdio2GenerationTargetUtil.createGenerationTarget("code:location"), outputDirectory);
+
+            assertNotEquals(slash.getUploadFile(), colon.getUploadFile());
+            assertEquals(2, outputDirectory.list().length);
+            assertTrue(slash.getUploadFile().getName().endsWith(Bdio2BatchGenerator.BDIO2_FILE_EXTENSION));
+        } finally {
+            FileUtils.deleteDirectory(outputDirectory);
+        }
+    }
+
+    @Test
+    public void testGenerationFailureCompletesExceptionally() throws IOException {
+        File notADirectory = File.createTempFile("bdio2-batch", ".txt");
+        try {
+            Bdio2BatchGenerator bdio2BatchGenerator = new Bdio2BatchGenerator(bdio2Factory, new Bdio2Writer());
+            CompletableFuture<UploadTarget> pendingUploadTarget = bdio2BatchGenerator.generateDocument(Bdio2GenerationTargetUtil.createGenerationTarget("broken"), notADirectory);
+
+            assertTrue(pendingUploadTarget.handle((uploadTarget, throwable) -> throwable != null).join());
+        } finally {
+            Files.delete(notADirectory.toPath());
+        }
+    }
+
+}
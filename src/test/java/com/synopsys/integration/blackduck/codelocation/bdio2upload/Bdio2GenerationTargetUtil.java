@@ -0,0 +1,33 @@
+package com.synopsys.integration.blackduck.codelocation.bdio2upload;
+
+import java.time.ZonedDateTime;
+
+import com.blackducksoftware.bdio2.BdioMetadata;
+import com.blackducksoftware.bdio2.model.Project;
+import com.blackducksoftware.common.value.ProductList;
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.blackduck.bdio2.Bdio2Factory;
+import com.synopsys.integration.util.NameVersion;
+
+public class Bdio2GenerationTargetUtil {
+    public static Bdio2GenerationTarget createGenerationTarget(String codeLocationName) {
+        ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        Bdio2Factory bdio2Factory = new Bdio2Factory();
+
+        NameVersion projectAndVersion = new NameVersion("project", "version");
+        BdioMetadata bdioMetadata = bdio2Factory.createBdioMetadata(codeLocationName, ZonedDateTime.now(), new ProductList.Builder());
+        Project project = bdio2Factory.createProject(externalIdFactory.createMavenExternalId("group", "project", "version"), "project", "version");
+
+        MutableDependencyGraph dependencyGraph = new MutableMapDependencyGraph();
+        Dependency parent = new Dependency("parent", "1.0", externalIdFactory.createMavenExternalId("group", "parent", "1.0"));
+        Dependency child = new Dependency("child", "1.0", externalIdFactory.createMavenExternalId("group", "child", "1.0"));
+        dependencyGraph.addChildToRoot(parent);
+        dependencyGraph.addParentWithChild(parent, child);
+
+        return new Bdio2GenerationTarget(projectAndVersion, codeLocationName, bdioMetadata, project, dependencyGraph);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.synopsys.integration.blackduck.codelocation.bdio2upload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatchOutput;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadOutput;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadTarget;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.util.NameVersion;
+
+public class UploadBdio2BatchRunnerTest {
+    @Test
+    public void testGenerationFailureOnlyFailsItsOwnCodeLocation() throws IntegrationException, IOException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getContentString()).thenReturn("");
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getUrl(BlackDuckApiClient.SCAN_DATA_PATH)).thenReturn(new HttpUrl("https://blackduck.com/api/scan/data"));
+        Mockito.when(blackDuckApiClient.execute(Mockito.any(Request.class))).thenReturn(response);
+
+        NameVersion projectAndVersion = new NameVersion("project", "version");
+        Bdio2GenerationTarget generated = new Bdio2GenerationTarget(projectAndVersion, "generated", null, null, null);
+        Bdio2GenerationTarget broken = new Bdio2GenerationTarget(projectAndVersion, "broken", null, null, null);
+        File generatedFile = File.createTempFile("generated", Bdio2BatchGenerator.BDIO2_FILE_EXTENSION);
+        CompletableFuture<UploadTarget> generatedUploadTarget = CompletableFuture.completedFuture(UploadTarget.createWithMediaType(projectAndVersion, "generated", generatedFile, Bdio2BatchGenerator.BDIO2_MEDIA_TYPE));
+        CompletableFuture<UploadTarget> brokenUploadTarget = CompletableFuture.supplyAsync(() -> {
+            throw new UncheckedIOException(new IOException("disk full"));
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            UploadBdio2BatchRunner uploadBdio2BatchRunner = new UploadBdio2BatchRunner(new SilentIntLogger(), blackDuckApiClient, new BlackDuckRequestFactory(), executorService);
+            UploadBatchOutput uploadBatchOutput = uploadBdio2BatchRunner.executeUploads(Arrays.asList(generated, broken), Arrays.asList(generatedUploadTarget, brokenUploadTarget));
+
+            List<UploadOutput> uploadOutputs = uploadBatchOutput.getOutputs();
+            assertEquals(2, uploadOutputs.size());
+            assertEquals("generated", uploadOutputs.get(0).getCodeLocationName());
+            assertFalse(uploadOutputs.get(0).getErrorMessage().isPresent());
+            assertEquals("broken", uploadOutputs.get(1).getCodeLocationName());
+            assertTrue(uploadOutputs.get(1).getErrorMessage().get().contains("disk full"));
+            assertTrue(uploadOutputs.get(1).getException().get() instanceof UncheckedIOException);
+        } finally {
+            executorService.shutdownNow();
+            Files.delete(generatedFile.toPath());
+        }
+    }
+
+}
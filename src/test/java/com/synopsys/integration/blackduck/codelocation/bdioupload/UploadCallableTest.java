@@ -0,0 +1,118 @@
+package com.synopsys.integration.blackduck.codelocation.bdioupload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.http.body.GzipFileBodyContent;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.body.FileBodyContent;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.util.NameVersion;
+
+public class UploadCallableTest {
+    private File uploadFile;
+
+    @BeforeEach
+    public void createUploadFile() throws IOException {
+        uploadFile = Files.createTempFile("upload_callable", ".jsonld").toFile();
+        FileUtils.writeStringToFile(uploadFile, "[{\"@id\": \"uuid:test\"}]", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void deleteUploadFile() {
+        FileUtils.deleteQuietly(uploadFile);
+    }
+
+    @Test
+    public void testFileIsStreamed() throws IntegrationException, IOException {
+        List<Request> requests = new ArrayList<>();
+        BlackDuckApiClient blackDuckApiClient = mockBlackDuckApiClient(requests);
+
+        UploadCallable uploadCallable = new UploadCallable(blackDuckApiClient, new BlackDuckRequestFactory(), createUploadTarget());
+        UploadOutput uploadOutput = uploadCallable.call();
+
+        assertFalse(uploadOutput.getErrorMessage().isPresent());
+        assertEquals(1, requests.size());
+        Request.Builder requestBuilder = requests.get(0).createBuilder();
+        assertTrue(requestBuilder.getBodyContent() instanceof FileBodyContent);
+        assertFalse(requestBuilder.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testCompressedUpload() throws IntegrationException, IOException {
+        List<Request> requests = new ArrayList<>();
+        BlackDuckApiClient blackDuckApiClient = mockBlackDuckApiClient(requests);
+
+        UploadCallable uploadCallable = new UploadCallable(blackDuckApiClient, new BlackDuckRequestFactory(), createUploadTarget(), true);
+        UploadOutput uploadOutput = uploadCallable.call();
+
+        assertFalse(uploadOutput.getErrorMessage().isPresent());
+        Request request = requests.get(0);
+        Request.Builder requestBuilder = request.createBuilder();
+        assertTrue(requestBuilder.getBodyContent() instanceof GzipFileBodyContent);
+        assertEquals(UploadCallable.GZIP_CONTENT_ENCODING, requestBuilder.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+
+        HttpEntity httpEntity = requestBuilder.getBodyContent().createEntity(request);
+        ByteArrayOutputStream compressedContent = new ByteArrayOutputStream();
+        httpEntity.writeTo(compressedContent);
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressedContent.toByteArray()))) {
+            assertEquals(FileUtils.readFileToString(uploadFile, StandardCharsets.UTF_8), IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testMissingFile() throws IntegrationException, IOException {
+        List<Request> requests = new ArrayList<>();
+        BlackDuckApiClient blackDuckApiClient = mockBlackDuckApiClient(requests);
+        FileUtils.deleteQuietly(uploadFile);
+
+        UploadCallable uploadCallable = new UploadCallable(blackDuckApiClient, new BlackDuckRequestFactory(), createUploadTarget());
+        UploadOutput uploadOutput = uploadCallable.call();
+
+        assertTrue(uploadOutput.getErrorMessage().isPresent());
+        assertTrue(requests.isEmpty());
+    }
+
+    private UploadTarget createUploadTarget() {
+        return UploadTarget.createDefault(new NameVersion("project", "version"), "code location", uploadFile);
+    }
+
+    private BlackDuckApiClient mockBlackDuckApiClient(List<Request> requests) throws IntegrationException, IOException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getContentString()).thenReturn("");
+
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getUrl(BlackDuckApiClient.BOMIMPORT_PATH)).thenReturn(new HttpUrl("https://blackduck.com/api/bom-import"));
+        Mockito.when(blackDuckApiClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            return response;
+        });
+        return blackDuckApiClient;
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.synopsys.integration.blackduck.codelocation.binaryscanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.codelocation.Result;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class BinaryScanCallableTest {
+    private static final String UPLOAD_URL = "https://blackduck.com/api/uploads/5";
+
+    private File binaryFile;
+
+    @BeforeEach
+    public void createBinaryFile() throws IOException {
+        binaryFile = Files.createTempFile("binary_scan", ".bin").toFile();
+        FileUtils.writeStringToFile(binaryFile, "0123456789", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void deleteBinaryFile() {
+        FileUtils.deleteQuietly(binaryFile);
+    }
+
+    @Test
+    public void testFailedChunkIsRetried() throws IntegrationException, IOException {
+        List<String> contentRanges = new ArrayList<>();
+        List<String> chunkContents = new ArrayList<>();
+        AtomicInteger chunkRequests = new AtomicInteger();
+        BlackDuckApiClient blackDuckApiClient = mockBlackDuckApiClient(contentRanges, chunkContents, chunkRequests, 1);
+
+        List<Long> progress = new ArrayList<>();
+        BinaryScan binaryScan = new BinaryScan(binaryFile, "project", "version", "code location");
+        BinaryScanCallable binaryScanCallable = new BinaryScanCallable(blackDuckApiClient, new BlackDuckRequestFactory(), binaryScan, new BinaryScanChunkSettings(4, 2, 0),
+            (scan, bytesUploaded, totalBytes) -> progress.add(bytesUploaded));
+        BinaryScanOutput binaryScanOutput = binaryScanCallable.call();
+
+        assertEquals(Result.SUCCESS, binaryScanOutput.getResult());
+        // the second chunk fails once and is sent again from the same offset
+        assertEquals(Arrays.asList("bytes 0-3/10", "bytes 4-7/10", "bytes 4-7/10", "bytes 8-9/10"), contentRanges);
+        assertEquals(Arrays.asList("0123", "4567", "4567", "89"), chunkContents);
+        assertEquals(Arrays.asList(0L, 4L, 8L, 10L), progress);
+    }
+
+    @Test
+    public void testChunkRetriesAreLimited() throws IntegrationException, IOException {
+        List<String> contentRanges = new ArrayList<>();
+        AtomicInteger chunkRequests = new AtomicInteger();
+        BlackDuckApiClient blackDuckApiClient = mockBlackDuckApiClient(contentRanges, new ArrayList<>(), chunkRequests, 10);
+
+        BinaryScan binaryScan = new BinaryScan(binaryFile, "project", "version", "code location");
+        BinaryScanCallable binaryScanCallable = new BinaryScanCallable(blackDuckApiClient, new BlackDuckRequestFactory(), binaryScan, new BinaryScanChunkSettings(4, 2, 0), BinaryScanProgressListener.NO_OP);
+        BinaryScanOutput binaryScanOutput = binaryScanCallable.call();
+
+        assertEquals(Result.FAILURE, binaryScanOutput.getResult());
+        assertTrue(binaryScanOutput.getErrorMessage().isPresent());
+        // the first chunk succeeds, then the second is tried once and retried twice
+        assertEquals(4, chunkRequests.get());
+    }
+
+    private BlackDuckApiClient mockBlackDuckApiClient(List<String> contentRanges, List<String> chunkContents, AtomicInteger chunkRequests, int secondChunkFailures) throws IntegrationException, IOException {
+        Response startResponse = Mockito.mock(Response.class);
+        Mockito.when(startResponse.getHeaderValue(HttpHeaders.LOCATION)).thenReturn(UPLOAD_URL);
+
+        Response chunkResponse = Mockito.mock(Response.class);
+
+        Response finishResponse = Mockito.mock(Response.class);
+        Mockito.when(finishResponse.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(finishResponse.getStatusCode()).thenReturn(201);
+        Mockito.when(finishResponse.getContentString()).thenReturn("");
+
+        AtomicInteger failuresLeft = new AtomicInteger(secondChunkFailures);
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getUrl(BlackDuckApiClient.UPLOADS_PATH)).thenReturn(new HttpUrl("https://blackduck.com/api/uploads"));
+        Mockito.when(blackDuckApiClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            Request request = invocation.getArgument(0);
+            Request.Builder requestBuilder = request.createBuilder();
+            String url = requestBuilder.getUrl().string();
+            if (url.equals(UPLOAD_URL + BinaryScanCallable.COMPLETED_PATH)) {
+                return finishResponse;
+            } else if (url.equals(UPLOAD_URL + BinaryScanCallable.PARTS_PATH)) {
+                assertEquals(HttpMethod.PUT, requestBuilder.getMethod());
+                chunkRequests.incrementAndGet();
+                String contentRange = requestBuilder.getHeaders().get(HttpHeaders.CONTENT_RANGE);
+                contentRanges.add(contentRange);
+                chunkContents.add(EntityUtils.toString(requestBuilder.getBodyContent().createEntity(request), StandardCharsets.UTF_8));
+                if (contentRange.startsWith("bytes 4-") && failuresLeft.getAndDecrement() > 0) {
+                    throw new IntegrationException("Connection reset");
+                }
+                return chunkResponse;
+            }
+            return startResponse;
+        });
+        return blackDuckApiClient;
+    }
+
+}
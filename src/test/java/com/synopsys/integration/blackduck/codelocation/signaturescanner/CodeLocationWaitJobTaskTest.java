@@ -1,5 +1,6 @@
 package com.synopsys.integration.blackduck.codelocation.signaturescanner;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.text.ParseException;
@@ -79,6 +80,64 @@ public class CodeLocationWaitJobTaskTest {
         assertTrue(codeLocationWaitJobTask.isComplete());
     }
 
+    @Test
+    public void testNotificationsAreOnlyCountedOncePerCursor() throws IntegrationException {
+        BlackDuckApiClient mockBlackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        ProjectService mockProjectService = Mockito.mock(ProjectService.class);
+        NotificationService mockNotificationService = Mockito.mock(NotificationService.class);
+
+        UserView userView = new UserView();
+        Date rangeStart = new Date(1000);
+        Date firstCreatedAt = new Date(2000);
+        Date secondCreatedAt = new Date(3000);
+        NotificationTaskRange notificationTaskRange = new NotificationTaskRange(System.currentTimeMillis(), rangeStart, new Date(10000));
+
+        NameVersion projectAndVersion = new NameVersion("BigSpoon", "LittleSpoon");
+        String codeLocationName = "GraceIsButGloryBegunAndGloryIsButGracePerfected";
+        Set<String> codeLocationNames = new HashSet<>(Arrays.asList(codeLocationName));
+
+        CodeLocationWaitJobTask codeLocationWaitJobTask = new CodeLocationWaitJobTask(new BufferedIntLogger(), mockBlackDuckApiClient, mockProjectService, mockNotificationService, userView, notificationTaskRange, projectAndVersion,
+            codeLocationNames, 3);
+
+        ProjectVersionView projectVersionView = new ProjectVersionView();
+        Mockito.when(mockProjectService.getProjectVersion(projectAndVersion)).thenReturn(Optional.of(new ProjectVersionWrapper(new ProjectView(), projectVersionView)));
+
+        ResourceMetadata resourceMetadata = new ResourceMetadata();
+        resourceMetadata.setHref(new HttpUrl(CODE_LOCATION_URL));
+        CodeLocationView foundCodeLocationView = new CodeLocationView();
+        foundCodeLocationView.setName(codeLocationName);
+        foundCodeLocationView.setMeta(resourceMetadata);
+        Mockito.when(mockBlackDuckApiClient.getAllResponses(projectVersionView, ProjectVersionView.CODELOCATIONS_LINK_RESPONSE)).thenReturn(Arrays.asList(foundCodeLocationView));
+
+        NotificationUserView first = createNotification(CODE_LOCATION_URL, "https://blackduck/api/notifications/1", firstCreatedAt);
+        NotificationUserView second = createNotification(CODE_LOCATION_URL, "https://blackduck/api/notifications/2", secondCreatedAt);
+        NotificationUserView third = createNotification(CODE_LOCATION_URL, "https://blackduck/api/notifications/3", secondCreatedAt);
+        List<String> types = Arrays.asList(NotificationType.VERSION_BOM_CODE_LOCATION_BOM_COMPUTED.name());
+        Mockito.when(mockNotificationService.getFilteredUserNotifications(userView, rangeStart, notificationTaskRange.getEndDate(), types)).thenReturn(Arrays.asList(first, second));
+        // the start date is inclusive, so the second notification is returned again alongside the new third one
+        Mockito.when(mockNotificationService.getFilteredUserNotifications(userView, secondCreatedAt, notificationTaskRange.getEndDate(), types)).thenReturn(Arrays.asList(second), Arrays.asList(second, third));
+
+        assertFalse(codeLocationWaitJobTask.isComplete());
+        assertFalse(codeLocationWaitJobTask.isComplete());
+        assertTrue(codeLocationWaitJobTask.isComplete());
+
+        Mockito.verify(mockProjectService, Mockito.times(1)).getProjectVersion(projectAndVersion);
+        Mockito.verify(mockBlackDuckApiClient, Mockito.times(1)).getAllResponses(projectVersionView, ProjectVersionView.CODELOCATIONS_LINK_RESPONSE);
+        Mockito.verify(mockNotificationService, Mockito.times(1)).getFilteredUserNotifications(userView, rangeStart, notificationTaskRange.getEndDate(), types);
+        Mockito.verify(mockNotificationService, Mockito.times(2)).getFilteredUserNotifications(userView, secondCreatedAt, notificationTaskRange.getEndDate(), types);
+    }
+
+    private NotificationUserView createNotification(String codeLocationUrl, String notificationUrl, Date createdAt) throws IntegrationException {
+        ResourceMetadata resourceMetadata = new ResourceMetadata();
+        resourceMetadata.setHref(new HttpUrl(notificationUrl));
+
+        NotificationUserView view = createNotification(codeLocationUrl);
+        view.setMeta(resourceMetadata);
+        view.setCreatedAt(createdAt);
+
+        return view;
+    }
+
     private List<NotificationUserView> getExpectedNotifications() {
         return Arrays.asList(createNotification(CODE_LOCATION_URL), createNotification(CODE_LOCATION_URL));
     }
@@ -5,10 +5,13 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -126,6 +129,24 @@ public class ScanPathsTest {
         assertThat(linuxScanPaths.getPathToJavaExecutable(), is(bdsJavaHomeDirectory + File.separator + "bin" + File.separator + "java"));
     }
 
+    @Test
+    public void testResolvedPathsAreReusedUntilTheVersionFileChanges() throws Exception {
+        File versionFile = new File(new File(linuxSetup, ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY), ScannerZipInstaller.VERSION_FILENAME);
+        versionFile.createNewFile();
+
+        ScanPaths first = linuxScanPathsUtility.determineSignatureScannerPaths(linuxSetup);
+        ScanPaths second = linuxScanPathsUtility.determineSignatureScannerPaths(linuxSetup);
+        assertSame(first, second);
+
+        FileUtils.writeStringToFile(versionFile, "updated", StandardCharsets.UTF_8);
+        ScanPaths afterUpdate = linuxScanPathsUtility.determineSignatureScannerPaths(linuxSetup);
+        assertNotSame(first, afterUpdate);
+        assertScanPathsOk(afterUpdate, true);
+
+        linuxScanPathsUtility.invalidateSignatureScannerPaths(linuxSetup);
+        assertNotSame(afterUpdate, linuxScanPathsUtility.determineSignatureScannerPaths(linuxSetup));
+    }
+
     private void assertScanPathsOk(ScanPaths scanPaths, boolean managedByLibrary) {
         assertTrue(StringUtils.isNotBlank(scanPaths.getPathToJavaExecutable()));
         assertTrue(StringUtils.isNotBlank(scanPaths.getPathToOneJar()));
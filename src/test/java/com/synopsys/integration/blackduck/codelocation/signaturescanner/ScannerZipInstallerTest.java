@@ -1,5 +1,8 @@
 package com.synopsys.integration.blackduck.codelocation.signaturescanner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
@@ -9,6 +12,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -19,11 +23,13 @@ import org.mockito.Mockito;
 import com.synopsys.integration.blackduck.TimingExtension;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanPaths;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScanPathsUtility;
+import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScannerInstallCache;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.command.ScannerZipInstaller;
 import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
 import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfigBuilder;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.keystore.KeyStoreHelper;
 import com.synopsys.integration.log.BufferedIntLogger;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
@@ -120,4 +126,128 @@ public class ScannerZipInstallerTest {
         }
     }
 
+    @Test
+    public void testCachedInstallIsDownloadedOnceAndShared() throws Exception {
+        IntEnvironmentVariables intEnvironmentVariables = IntEnvironmentVariables.includeSystemEnv();
+
+        Response mockResponse = Mockito.mock(Response.class);
+        Mockito.when(mockResponse.getContent()).thenReturn(getClass().getResourceAsStream("/blackduck_cli_mac.zip"));
+        Mockito.when(mockResponse.getLastModified()).thenReturn(1000L);
+
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.executeGetRequestIfModifiedSince(Mockito.any(Request.class), Mockito.eq(0L))).thenReturn(Optional.of(mockResponse));
+        Mockito.when(mockIntHttpClient.executeGetRequestIfModifiedSince(Mockito.any(Request.class), Mockito.eq(1000L))).thenReturn(Optional.empty());
+
+        IntLogger logger = new BufferedIntLogger();
+        File cacheDirectory = Files.createTempDirectory("scanner_cache").toFile();
+        File firstInstall = Files.createTempDirectory("first_install").toFile();
+        File secondInstall = Files.createTempDirectory("second_install").toFile();
+        try {
+            ScanPathsUtility scanPathsUtility = new ScanPathsUtility(logger, intEnvironmentVariables, OperatingSystemType.MAC);
+            ScannerInstallCache scannerInstallCache = new ScannerInstallCache(logger, cacheDirectory);
+            ScannerZipInstaller scannerZipInstaller = new ScannerZipInstaller(logger, mockIntHttpClient, scanPathsUtility, new KeyStoreHelper(logger), new HttpUrl("http://www.synopsys.com"),
+                OperatingSystemType.MAC, scannerInstallCache);
+
+            scannerZipInstaller.installOrUpdateScanner(firstInstall);
+            scannerZipInstaller.installOrUpdateScanner(secondInstall);
+
+            Mockito.verify(mockResponse, Mockito.times(1)).getContent();
+            ScanPaths firstScanPaths = scanPathsUtility.determineSignatureScannerPaths(firstInstall);
+            ScanPaths secondScanPaths = scanPathsUtility.determineSignatureScannerPaths(secondInstall);
+            assertTrue(secondScanPaths.isManagedByLibrary());
+            assertTrue(new File(secondScanPaths.getPathToScanExecutable()).canExecute());
+            assertTrue(Files.isSameFile(new File(firstScanPaths.getPathToOneJar()).toPath(), new File(secondScanPaths.getPathToOneJar()).toPath()));
+            assertEquals(1000L, new File(new File(secondInstall, ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY), ScannerZipInstaller.VERSION_FILENAME).lastModified());
+        } finally {
+            FileUtils.deleteQuietly(cacheDirectory);
+            FileUtils.deleteQuietly(firstInstall);
+            FileUtils.deleteQuietly(secondInstall);
+        }
+    }
+
+    @Test
+    public void testIncompleteDownloadKeepsThePreviousScanner() throws Exception {
+        IntEnvironmentVariables intEnvironmentVariables = IntEnvironmentVariables.includeSystemEnv();
+
+        Response firstResponse = Mockito.mock(Response.class);
+        Mockito.when(firstResponse.getContent()).thenReturn(getClass().getResourceAsStream("/blackduck_cli_mac.zip"));
+        Mockito.when(firstResponse.getLastModified()).thenReturn(1000L);
+        Response truncatedResponse = Mockito.mock(Response.class);
+        Mockito.when(truncatedResponse.getContent()).thenReturn(getClass().getResourceAsStream("/blackduck_cli_mac.zip"));
+        Mockito.when(truncatedResponse.getHeaderValue("Content-Length")).thenReturn("1");
+
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.executeGetRequestIfModifiedSince(Mockito.any(Request.class), Mockito.anyLong())).thenReturn(Optional.of(firstResponse), Optional.of(truncatedResponse));
+
+        IntLogger logger = new BufferedIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        try {
+            ScanPathsUtility scanPathsUtility = new ScanPathsUtility(logger, intEnvironmentVariables, OperatingSystemType.MAC);
+            ScannerZipInstaller scannerZipInstaller = new ScannerZipInstaller(logger, mockIntHttpClient, scanPathsUtility, new KeyStoreHelper(logger), new HttpUrl("http://www.synopsys.com"),
+                OperatingSystemType.MAC, null);
+
+            scannerZipInstaller.installOrUpdateScanner(downloadTarget);
+            try {
+                scannerZipInstaller.installOrUpdateScanner(downloadTarget);
+                fail("Should have thrown");
+            } catch (BlackDuckIntegrationException e) {
+            }
+
+            ScanPaths scanPaths = scanPathsUtility.determineSignatureScannerPaths(downloadTarget);
+            assertTrue(new File(scanPaths.getPathToOneJar()).isFile());
+            assertEquals(1, downloadTarget.list().length);
+            assertEquals(1, new File(downloadTarget, ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY).listFiles(File::isDirectory).length);
+            assertEquals(1000L, new File(new File(downloadTarget, ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY), ScannerZipInstaller.VERSION_FILENAME).lastModified());
+        } finally {
+            FileUtils.deleteQuietly(downloadTarget);
+        }
+    }
+
+    @Test
+    public void testUpgradeKeepsThePreviousVersionUntilItIsRetired() throws Exception {
+        IntEnvironmentVariables intEnvironmentVariables = IntEnvironmentVariables.includeSystemEnv();
+
+        Response firstResponse = Mockito.mock(Response.class);
+        Mockito.when(firstResponse.getContent()).thenReturn(getClass().getResourceAsStream("/blackduck_cli_mac.zip"));
+        Mockito.when(firstResponse.getLastModified()).thenReturn(1000L);
+        Response upgradeResponse = Mockito.mock(Response.class);
+        Mockito.when(upgradeResponse.getContent()).thenReturn(getClass().getResourceAsStream("/blackduck_cli_mac.zip"));
+        Mockito.when(upgradeResponse.getLastModified()).thenReturn(2000L);
+
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.executeGetRequestIfModifiedSince(Mockito.any(Request.class), Mockito.anyLong())).thenReturn(Optional.of(firstResponse), Optional.of(upgradeResponse), Optional.empty());
+
+        IntLogger logger = new BufferedIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        try {
+            ScanPathsUtility scanPathsUtility = new ScanPathsUtility(logger, intEnvironmentVariables, OperatingSystemType.MAC);
+            ScannerZipInstaller scannerZipInstaller = new ScannerZipInstaller(logger, mockIntHttpClient, scanPathsUtility, new KeyStoreHelper(logger), new HttpUrl("http://www.synopsys.com"),
+                OperatingSystemType.MAC, null);
+
+            scannerZipInstaller.installOrUpdateScanner(downloadTarget);
+            File scannerExpansionDirectory = new File(downloadTarget, ScannerZipInstaller.BLACK_DUCK_SIGNATURE_SCANNER_INSTALL_DIRECTORY);
+            File previousGeneration = scanPathsUtility.findCurrentScannerGeneration(scannerExpansionDirectory).get();
+            String previousOneJar = scanPathsUtility.determineSignatureScannerPaths(downloadTarget).getPathToOneJar();
+
+            scannerZipInstaller.installOrUpdateScanner(downloadTarget);
+
+            // a scan that started with the previous scanner can still use it
+            File currentGeneration = scanPathsUtility.findCurrentScannerGeneration(scannerExpansionDirectory).get();
+            assertNotEquals(previousGeneration, currentGeneration);
+            assertTrue(new File(previousOneJar).isFile());
+            ScanPaths scanPaths = scanPathsUtility.determineSignatureScannerPaths(downloadTarget);
+            assertTrue(scanPaths.getPathToOneJar().startsWith(currentGeneration.getAbsolutePath()));
+            assertTrue(new File(scanPaths.getPathToOneJar()).isFile());
+
+            assertTrue(previousGeneration.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2)));
+            scannerZipInstaller.installOrUpdateScanner(downloadTarget);
+
+            assertFalse(previousGeneration.exists());
+            assertTrue(currentGeneration.isDirectory());
+            assertEquals(2000L, new File(scannerExpansionDirectory, ScannerZipInstaller.VERSION_FILENAME).lastModified());
+        } finally {
+            FileUtils.deleteQuietly(downloadTarget);
+        }
+    }
+
 }
@@ -0,0 +1,141 @@
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.log.SilentIntLogger;
+
+public class ScanCommandSchedulerTest {
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final Map<ScanCommand, Long> targetSizes = new HashMap<>();
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testLargestTargetsStartFirstWithinTheBudget() throws Exception {
+        ScanCommand small = createScanCommand("small", 10, 2048);
+        ScanCommand large = createScanCommand("large", 100, 2048);
+        ScanCommand hungry = createScanCommand("hungry", 50, 4096);
+        List<ScanCommand> scanCommands = Arrays.asList(small, large, hungry);
+
+        List<ScanCommand> startOrder = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong memoryInUse = new AtomicLong();
+        AtomicLong peakMemoryInUse = new AtomicLong();
+        Map<ScanCommand, ScanCommandOutput> outputs = new HashMap<>();
+        for (ScanCommand scanCommand : scanCommands) {
+            outputs.put(scanCommand, Mockito.mock(ScanCommandOutput.class));
+        }
+
+        ScanCommandScheduler scanCommandScheduler = new ScanCommandScheduler(new SilentIntLogger(), executorService, new ScanResourceBudget(2, 4096), targetSizes::get);
+        List<ScanCommandOutput> scanCommandOutputs = scanCommandScheduler.execute(scanCommands, scanCommand -> {
+            startOrder.add(scanCommand);
+            return () -> {
+                long inUse = memoryInUse.addAndGet(scanCommand.getScanMemoryInMegabytes());
+                peakMemoryInUse.accumulateAndGet(inUse, Math::max);
+                Thread.sleep(50);
+                memoryInUse.addAndGet(-scanCommand.getScanMemoryInMegabytes());
+                return outputs.get(scanCommand);
+            };
+        });
+
+        assertEquals(Arrays.asList(large, small, hungry), startOrder);
+        assertTrue(peakMemoryInUse.get() <= 4096);
+        assertEquals(3, scanCommandOutputs.size());
+        for (int i = 0; i < scanCommands.size(); i++) {
+            assertSame(outputs.get(scanCommands.get(i)), scanCommandOutputs.get(i));
+        }
+    }
+
+    @Test
+    public void testScanLargerThanTheBudgetStillRuns() throws Exception {
+        ScanCommand oversized = createScanCommand("oversized", 1, 8192);
+
+        ScanCommandScheduler scanCommandScheduler = new ScanCommandScheduler(new SilentIntLogger(), executorService, new ScanResourceBudget(4, 4096), targetSizes::get);
+        ScanCommandOutput output = Mockito.mock(ScanCommandOutput.class);
+        List<ScanCommandOutput> scanCommandOutputs = scanCommandScheduler.execute(Collections.singletonList(oversized), scanCommand -> () -> output);
+
+        assertEquals(Collections.singletonList(output), scanCommandOutputs);
+    }
+
+    @Test
+    public void testTargetsAreEstimatedConcurrently() throws Exception {
+        ScanCommand first = createScanCommand("first", 1, 1024);
+        ScanCommand second = createScanCommand("second", 2, 1024);
+
+        // each estimate only finishes once the other one has started
+        CountDownLatch estimatesStarted = new CountDownLatch(2);
+        ScanCommandScheduler scanCommandScheduler = new ScanCommandScheduler(new SilentIntLogger(), executorService, new ScanResourceBudget(2, 4096), scanCommand -> {
+            estimatesStarted.countDown();
+            try {
+                return estimatesStarted.await(5, TimeUnit.SECONDS) ? targetSizes.get(scanCommand) : -1;
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        List<ScanCommand> startOrder = Collections.synchronizedList(new ArrayList<>());
+        scanCommandScheduler.execute(Arrays.asList(first, second), scanCommand -> {
+            startOrder.add(scanCommand);
+            return () -> Mockito.mock(ScanCommandOutput.class);
+        });
+
+        assertEquals(Arrays.asList(second, first), startOrder);
+    }
+
+    @Test
+    public void testEstimateIsBounded() throws IOException {
+        File target = Files.createTempDirectory("scan-target").toFile();
+        try {
+            for (int i = 0; i < 5; i++) {
+                FileUtils.writeByteArrayToFile(new File(target, "file" + i), new byte[10]);
+            }
+            ScanCommand scanCommand = createScanCommand(target.getAbsolutePath(), 0, 1024);
+
+            assertEquals(50, ScanCommandScheduler.estimateTargetSize(scanCommand));
+            assertEquals(20, ScanCommandScheduler.estimateTargetSize(scanCommand, 2));
+        } finally {
+            FileUtils.deleteDirectory(target);
+        }
+    }
+
+    @Test
+    public void testTotalMemoryIsReadFromThePlatformBean() {
+        assertTrue(ScanResourceBudget.findTotalMemoryInBytes(ManagementFactory.getOperatingSystemMXBean()) > 0);
+        assertEquals(-1, ScanResourceBudget.findTotalMemoryInBytes(Mockito.mock(OperatingSystemMXBean.class)));
+    }
+
+    private ScanCommand createScanCommand(String targetPath, long targetSize, int scanMemoryInMegabytes) {
+        ScanCommand scanCommand = Mockito.mock(ScanCommand.class);
+        Mockito.when(scanCommand.getTargetPath()).thenReturn(targetPath);
+        Mockito.when(scanCommand.getScanMemoryInMegabytes()).thenReturn(scanMemoryInMegabytes);
+        targetSizes.put(scanCommand, targetSize);
+        return scanCommand;
+    }
+
+}
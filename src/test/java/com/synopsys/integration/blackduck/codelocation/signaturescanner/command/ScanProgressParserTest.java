@@ -0,0 +1,54 @@
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class ScanProgressParserTest {
+    private final ScanProgressParser scanProgressParser = new ScanProgressParser();
+
+    @Test
+    public void testFinished() {
+        ScanProgressEvent event = parse("INFO: Finished in 12.5 seconds");
+
+        assertEquals(ScanProgressEventType.FINISHED, event.getType());
+        assertEquals(Optional.of(12500L), event.getDurationInMillis());
+        assertEquals("code location", event.getCodeLocationName());
+    }
+
+    @Test
+    public void testUpload() {
+        ScanProgressEvent event = parse("INFO: Uploading scan data: 45% complete");
+
+        assertEquals(ScanProgressEventType.UPLOAD, event.getType());
+        assertEquals(Optional.of(45), event.getUploadPercent());
+    }
+
+    @Test
+    public void testFileCount() {
+        assertEquals(Optional.of(12345L), parse("INFO: Total number of files scanned: 12,345").getFileCount());
+        assertEquals(Optional.of(98L), parse("INFO: Found 98 files to scan").getFileCount());
+    }
+
+    @Test
+    public void testPhase() {
+        ScanProgressEvent event = parse("INFO: Starting the post scan steps");
+
+        assertEquals(ScanProgressEventType.PHASE, event.getType());
+        assertEquals(Optional.of("Starting the post scan steps"), event.getPhase());
+    }
+
+    @Test
+    public void testUnrecognizedLines() {
+        assertFalse(scanProgressParser.parse("code location", "INFO: Exclusion patterns: none").isPresent());
+        assertFalse(scanProgressParser.parse("code location", "   ").isPresent());
+    }
+
+    private ScanProgressEvent parse(String line) {
+        return scanProgressParser.parse("code location", line).get();
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.synopsys.integration.blackduck.codelocation.signaturescanner.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.log.SilentIntLogger;
+
+public class ScannerInstallCacheTest {
+    @Test
+    public void testDefaultCacheIsPerUser() {
+        ScannerInstallCache scannerInstallCache = ScannerInstallCache.createDefault(new SilentIntLogger());
+
+        assertEquals(new File(System.getProperty("user.home")), scannerInstallCache.getCacheDirectory().getParentFile());
+    }
+
+    @Test
+    public void testUnreferencedEntriesArePruned() throws Exception {
+        File cacheDirectory = Files.createTempDirectory("scanner_cache").toFile();
+        File downloadedZip = File.createTempFile("scan.cli", ".zip");
+        try {
+            ScannerInstallCache scannerInstallCache = new ScannerInstallCache(new SilentIntLogger(), cacheDirectory);
+            ScannerZipExpander scannerZipExpander = new ScannerZipExpander(new SilentIntLogger()) {
+                @Override
+                public void expand(File zipFile, File targetDirectory) throws IOException {
+                    Files.write(new File(targetDirectory, "scan.cli.sh").toPath(), new byte[1]);
+                }
+            };
+            String firstServer = scannerInstallCache.createServerKey("https://first/download/scan.cli.zip");
+            String secondServer = scannerInstallCache.createServerKey("https://second/download/scan.cli.zip");
+            long longAgo = System.currentTimeMillis() - 24 * 60 * 60 * 1000;
+
+            ScannerInstallCacheEntry replaced = scannerInstallCache.withServerLock(firstServer, () -> scannerInstallCache.storeEntry(firstServer, downloadedZip, "replaced", 1000, scannerZipExpander));
+            ScannerInstallCacheEntry otherServers = scannerInstallCache.withServerLock(secondServer, () -> scannerInstallCache.storeEntry(secondServer, downloadedZip, "others", 1000, scannerZipExpander));
+            File justStored = new File(replaced.getDirectory().getParentFile(), "stored");
+            justStored.mkdirs();
+            replaced.getDirectory().setLastModified(longAgo);
+            otherServers.getDirectory().setLastModified(longAgo);
+
+            ScannerInstallCacheEntry current = scannerInstallCache.withServerLock(firstServer, () -> scannerInstallCache.storeEntry(firstServer, downloadedZip, "current", 2000, scannerZipExpander));
+
+            assertFalse(replaced.getDirectory().exists());
+            assertTrue(otherServers.getDirectory().isDirectory());
+            assertTrue(current.getDirectory().isDirectory());
+            // unreferenced, but too recent to tell from an entry that is still being stored
+            assertTrue(justStored.isDirectory());
+        } finally {
+            FileUtils.deleteQuietly(cacheDirectory);
+            FileUtils.deleteQuietly(downloadedZip);
+        }
+    }
+
+    @Test
+    public void testCacheWritableByOthersIsRefused() throws Exception {
+        File cacheDirectory = Files.createTempDirectory("scanner_cache").toFile();
+        try {
+            assumeTrue(Files.getFileStore(cacheDirectory.toPath()).supportsFileAttributeView(PosixFileAttributeView.class));
+            Files.setPosixFilePermissions(cacheDirectory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+
+            ScannerInstallCache scannerInstallCache = new ScannerInstallCache(new SilentIntLogger(), cacheDirectory);
+            assertThrows(IOException.class, () -> scannerInstallCache.withServerLock("server", () -> true));
+        } finally {
+            FileUtils.deleteQuietly(cacheDirectory);
+        }
+    }
+
+    @Test
+    public void testNewCacheIsOnlyAccessibleByTheOwner() throws Exception {
+        File parentDirectory = Files.createTempDirectory("scanner_cache_parent").toFile();
+        try {
+            assumeTrue(Files.getFileStore(parentDirectory.toPath()).supportsFileAttributeView(PosixFileAttributeView.class));
+            File cacheDirectory = new File(parentDirectory, "cache");
+
+            ScannerInstallCache scannerInstallCache = new ScannerInstallCache(new SilentIntLogger(), cacheDirectory);
+            assertTrue(scannerInstallCache.withServerLock("server", () -> true));
+            assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(cacheDirectory.toPath()));
+        } finally {
+            FileUtils.deleteQuietly(parentDirectory);
+        }
+    }
+
+}
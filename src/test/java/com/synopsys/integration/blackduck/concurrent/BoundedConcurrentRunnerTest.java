@@ -0,0 +1,140 @@
+package com.synopsys.integration.blackduck.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+public class BoundedConcurrentRunnerTest {
+    @Test
+    public void testResultsInTaskOrderWithBoundedConcurrency() throws IntegrationException {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger running = new AtomicInteger(0);
+            AtomicInteger maxRunning = new AtomicInteger(0);
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int taskNumber = i;
+                tasks.add(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return taskNumber;
+                });
+            }
+
+            BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, 3);
+            List<Integer> results = boundedConcurrentRunner.runAll(tasks);
+
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i, results.get(i).intValue());
+            }
+            assertTrue(maxRunning.get() <= 3);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIntegrationExceptionThrown() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            tasks.add(() -> 1);
+            tasks.add(() -> {
+                throw new IntegrationException("failed task");
+            });
+
+            BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, 2);
+            IntegrationException e = assertThrows(IntegrationException.class, () -> boundedConcurrentRunner.runAll(tasks));
+            assertEquals("failed task", e.getMessage());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureDoesNotLeakPermits() throws InterruptedException {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            // the single thread is held by the second task, so the last two are still queued when the first task's failure is thrown
+            CountDownLatch releaseSecondTask = new CountDownLatch(1);
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            tasks.add(() -> {
+                throw new IntegrationException("failed task");
+            });
+            tasks.add(() -> {
+                releaseSecondTask.await();
+                return 2;
+            });
+            tasks.add(() -> 3);
+            tasks.add(() -> 4);
+
+            BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, 4);
+            assertThrows(IntegrationException.class, () -> boundedConcurrentRunner.runAll(tasks));
+            releaseSecondTask.countDown();
+
+            long giveUpAt = System.currentTimeMillis() + 10000;
+            while (boundedConcurrentRunner.getAvailablePermits() < 4 && System.currentTimeMillis() < giveUpAt) {
+                Thread.sleep(10);
+            }
+            assertEquals(4, boundedConcurrentRunner.getAvailablePermits());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureStopsSubmittingTasks() {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger tasksRun = new AtomicInteger(0);
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            tasks.add(() -> {
+                throw new IntegrationException("failed task");
+            });
+            for (int i = 0; i < 10; i++) {
+                tasks.add(tasksRun::incrementAndGet);
+            }
+
+            // with a single permit the next task is only submitted once the failed one has finished
+            BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, 1);
+            assertThrows(IntegrationException.class, () -> boundedConcurrentRunner.runAll(tasks));
+            assertEquals(0, tasksRun.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNestedRunAllOnTheSamePoolDoesNotDeadlock() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            BoundedConcurrentRunner boundedConcurrentRunner = new BoundedConcurrentRunner(executorService, 2);
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> boundedConcurrentRunner.runAll(Arrays.<Callable<Integer>>asList(() -> 1, () -> 2, () -> 3)).stream().mapToInt(Integer::intValue).sum());
+            }
+
+            List<Integer> results = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> boundedConcurrentRunner.runAll(tasks));
+            assertEquals(Arrays.asList(6, 6, 6, 6), results);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
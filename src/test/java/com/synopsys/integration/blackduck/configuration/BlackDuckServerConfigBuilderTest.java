@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.synopsys.integration.blackduck.TimingExtension;
+import com.synopsys.integration.blackduck.http.client.BlackDuckConnectionPoolConfig;
 import com.synopsys.integration.rest.credentials.Credentials;
 import com.synopsys.integration.rest.credentials.CredentialsBuilder;
 import com.synopsys.integration.util.NoThreadExecutorService;
@@ -125,6 +126,40 @@ public class BlackDuckServerConfigBuilderTest {
         assertFalse(blackDuckServerConfigBuilder.isValid());
     }
 
+    @Test
+    public void testConnectionPoolConfigOnlyWhenRequested() {
+        BlackDuckServerConfigBuilder blackDuckServerConfigBuilder = new BlackDuckServerConfigBuilder();
+        blackDuckServerConfigBuilder.setUrl("http://this.might.exist/somewhere");
+        blackDuckServerConfigBuilder.setApiToken("a valid, non-empty api token");
+        assertFalse(blackDuckServerConfigBuilder.build().getConnectionPoolConfig().isPresent());
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE", "30");
+        properties.put("BLACKDUCK_CONNECTION_TTL", "300");
+        blackDuckServerConfigBuilder.setProperties(properties.entrySet());
+        BlackDuckConnectionPoolConfig connectionPoolConfig = blackDuckServerConfigBuilder.build().getConnectionPoolConfig().orElse(null);
+        assertNotNull(connectionPoolConfig);
+        assertEquals(BlackDuckConnectionPoolConfig.DEFAULT_MAX_CONNECTIONS_TOTAL, connectionPoolConfig.getMaxConnectionsTotal());
+        assertEquals(30, connectionPoolConfig.getMaxConnectionsPerRoute());
+        assertEquals(300, connectionPoolConfig.getConnectionTimeToLiveSeconds());
+    }
+
+    @Test
+    public void testInvalidConnectionPoolSizes() {
+        BlackDuckServerConfigBuilder blackDuckServerConfigBuilder = new BlackDuckServerConfigBuilder();
+        blackDuckServerConfigBuilder.setUrl("http://this.might.exist/somewhere");
+        blackDuckServerConfigBuilder.setApiToken("a valid, non-empty api token");
+        blackDuckServerConfigBuilder.setMaxConnections(10);
+        blackDuckServerConfigBuilder.setMaxConnectionsPerRoute(20);
+        assertFalse(blackDuckServerConfigBuilder.isValid());
+
+        blackDuckServerConfigBuilder.setMaxConnectionsPerRoute(0);
+        assertFalse(blackDuckServerConfigBuilder.isValid());
+
+        blackDuckServerConfigBuilder.setMaxConnectionsPerRoute(10);
+        assertTrue(blackDuckServerConfigBuilder.isValid());
+    }
+
     @Test
     public void testPopulatingExecutorService() throws Exception {
         ExecutorService executorService = null;
@@ -0,0 +1,57 @@
+package com.synopsys.integration.blackduck.http.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class InMemoryBlackDuckResponseCacheTest {
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        InMemoryBlackDuckResponseCache cache = new InMemoryBlackDuckResponseCache(2, 60000);
+        cache.put("one", "{}", null, null);
+        cache.put("two", "{}", null, null);
+        cache.get("one");
+        cache.put("three", "{}", null, null);
+
+        assertTrue(cache.get("one").isPresent());
+        assertFalse(cache.get("two").isPresent());
+        assertTrue(cache.get("three").isPresent());
+
+        BlackDuckResponseCacheStatistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.getSize());
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(3, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+    }
+
+    @Test
+    public void testStaleResponses() {
+        AtomicLong currentTime = new AtomicLong(0);
+        InMemoryBlackDuckResponseCache cache = new InMemoryBlackDuckResponseCache(10, 1000, currentTime::get);
+        cache.put("validated", "{}", "\"etag\"", null);
+        cache.put("unvalidated", "{}", null, null);
+
+        currentTime.set(1000);
+        Optional<BlackDuckCachedResponse> staleResponse = cache.get("validated");
+        assertTrue(staleResponse.isPresent());
+        assertFalse(staleResponse.get().isFresh());
+        assertEquals("\"etag\"", staleResponse.get().getEntityTag().orElse(null));
+        assertFalse(cache.get("unvalidated").isPresent());
+
+        cache.markRevalidated("validated");
+        assertTrue(cache.get("validated").get().isFresh());
+
+        BlackDuckResponseCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getRevalidationCount());
+        assertEquals(1, statistics.getNotModifiedCount());
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getEvictionCount());
+    }
+
+}
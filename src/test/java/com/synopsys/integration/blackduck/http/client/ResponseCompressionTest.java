@@ -0,0 +1,97 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.TimingExtension;
+import com.synopsys.integration.blackduck.api.generated.discovery.BlackDuckMediaTypeDiscovery;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.rest.support.AuthenticationSupport;
+import com.synopsys.integration.util.NameVersion;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * BlackDuckHttpClient relies on the compression support of its http client builder, which asks for gzip/deflate on every request and decompresses the
+ * content as it is read. A connection pool config replaces the builder's connection manager, so both configurations are covered.
+ */
+@ExtendWith(TimingExtension.class)
+public class ResponseCompressionTest {
+    @Test
+    public void testGzipIsNegotiatedAndDecompressed() throws IOException, IntegrationException {
+        assertGzipIsNegotiatedAndDecompressed(null);
+    }
+
+    @Test
+    public void testGzipIsNegotiatedAndDecompressedWithAConnectionPool() throws IOException, IntegrationException {
+        assertGzipIsNegotiatedAndDecompressed(BlackDuckConnectionPoolConfig.createDefault());
+    }
+
+    private void assertGzipIsNegotiatedAndDecompressed(BlackDuckConnectionPoolConfig connectionPoolConfig) throws IOException, IntegrationException {
+        String json = "{\"totalCount\":1,\"items\":[{\"name\":\"component\"}]}";
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<RecordedRequest> projectsRequests = new CopyOnWriteArrayList<>();
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest recordedRequest) {
+                if ("/api/tokens/authenticate".equals(recordedRequest.getPath())) {
+                    return new MockResponse().setBody("{\"bearerToken\":\"token\",\"expiresInMilliseconds\":600000}");
+                }
+                projectsRequests.add(recordedRequest);
+                return new MockResponse()
+                           .addHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                           .setBody(new Buffer().write(compressed.toByteArray()));
+            }
+        });
+        server.start();
+        ApiTokenBlackDuckHttpClient blackDuckHttpClient = null;
+        try {
+            HttpUrl baseUrl = new HttpUrl(server.url("/").toString());
+            blackDuckHttpClient = new ApiTokenBlackDuckHttpClient(new BufferedIntLogger(), 120, false, ProxyInfo.NO_PROXY_INFO, baseUrl, new NameVersion("test", "1.0"), new Gson(), new AuthenticationSupport(),
+                "apiToken", new BlackDuckMediaTypeDiscovery(), connectionPoolConfig);
+            Request request = new Request.Builder(baseUrl.appendRelativeUrl("api/projects")).build();
+            try (Response response = blackDuckHttpClient.execute(request)) {
+                assertEquals(json, response.getContentString());
+            }
+
+            assertEquals(1, projectsRequests.size());
+            RecordedRequest recordedRequest = projectsRequests.get(0);
+            assertEquals("/api/projects", recordedRequest.getPath());
+            assertEquals("Bearer token", recordedRequest.getHeader(HttpHeaders.AUTHORIZATION));
+            assertTrue(recordedRequest.getHeader(HttpHeaders.ACCEPT_ENCODING).contains("gzip"));
+            assertEquals(null != connectionPoolConfig, blackDuckHttpClient.getConnectionPoolStats().isPresent());
+        } finally {
+            if (null != blackDuckHttpClient) {
+                blackDuckHttpClient.shutdownConnectionPool();
+            }
+            server.shutdown();
+        }
+    }
+
+}
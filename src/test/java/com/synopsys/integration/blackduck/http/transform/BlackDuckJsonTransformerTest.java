@@ -3,8 +3,10 @@ package com.synopsys.integration.blackduck.http.transform;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
@@ -16,6 +18,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
@@ -29,6 +32,7 @@ import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.log.BufferedIntLogger;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.response.Response;
 
 @ExtendWith(TimingExtension.class)
 public class BlackDuckJsonTransformerTest {
@@ -67,6 +71,23 @@ public class BlackDuckJsonTransformerTest {
         assertJsonValid(json, projectView);
     }
 
+    @Test
+    public void testPatchCreatedOnlyWhenNeeded() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        ProjectViewWithoutDescription projectView = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponseAs(json, ProjectViewWithoutDescription.class);
+        assertNull(projectView.getPatch());
+
+        projectView.setName("a new name");
+        String patchedJson = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.producePatchedJson(projectView);
+        assertNotNull(projectView.getPatch());
+
+        JsonElement patchedJsonElement = BlackDuckJsonTransformerTest.gson.fromJson(patchedJson, JsonElement.class);
+        assertEquals("a new name", patchedJsonElement.getAsJsonObject().get("name").getAsString());
+        assertEquals(projectView.getJsonElement().getAsJsonObject().get("description").getAsString(), patchedJsonElement.getAsJsonObject().get("description").getAsString());
+    }
+
     @Test
     public void testPageResults() throws Exception {
         InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
@@ -88,6 +109,49 @@ public class BlackDuckJsonTransformerTest {
         }
     }
 
+    @Test
+    public void testStreamedPageResults() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getContent()).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        BlackDuckPageResponse<ProjectView> streamedPageResponse = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponses(response, ProjectView.class);
+        BlackDuckPageResponse<ProjectView> blackDuckPageResponse = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponses(json, ProjectView.class);
+        assertEquals(blackDuckPageResponse.getTotalCount(), streamedPageResponse.getTotalCount());
+        assertEquals(blackDuckPageResponse.getItems().size(), streamedPageResponse.getItems().size());
+
+        for (int i = 0; i < blackDuckPageResponse.getItems().size(); i++) {
+            ProjectView projectView = streamedPageResponse.getItems().get(i);
+            assertNotNull(projectView.getMeta());
+            assertNotNull(projectView.getGson());
+            assertNull(projectView.getJson());
+            assertNull(projectView.getJsonElement());
+            assertJsonStringsEqual(BlackDuckJsonTransformerTest.gson.toJson(blackDuckPageResponse.getItems().get(i)), BlackDuckJsonTransformerTest.gson.toJson(projectView));
+        }
+    }
+
+    @Test
+    public void testAttachedJsonRestoresFieldsOfStreamedItems() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getContent()).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        ProjectViewWithoutDescription projectView = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponses(response, ProjectViewWithoutDescription.class).getItems().get(1);
+        JsonElement item = BlackDuckJsonTransformerTest.gson.fromJson(json, JsonElement.class).getAsJsonObject().get("items").getAsJsonArray().get(1);
+        BlackDuckJsonTransformerTest.blackDuckJsonTransformer.attachJson(projectView, BlackDuckJsonTransformerTest.gson.toJson(item));
+
+        projectView.setName("a new name");
+        String patchedJson = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.producePatchedJson(projectView);
+
+        JsonElement patchedJsonElement = BlackDuckJsonTransformerTest.gson.fromJson(patchedJson, JsonElement.class);
+        assertEquals("a new name", patchedJsonElement.getAsJsonObject().get("name").getAsString());
+        assertEquals(item.getAsJsonObject().get("description").getAsString(), patchedJsonElement.getAsJsonObject().get("description").getAsString());
+    }
+
     @Test
     public void testArbitraryJsonDifference() throws Exception {
         InputStream jsonInputStream = getClass().getResourceAsStream("/complex.json");
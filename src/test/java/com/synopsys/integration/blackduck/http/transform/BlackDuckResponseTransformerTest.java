@@ -0,0 +1,178 @@
+package com.synopsys.integration.blackduck.http.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestFactory;
+import com.synopsys.integration.blackduck.http.cache.InMemoryBlackDuckResponseCache;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class BlackDuckResponseTransformerTest {
+    @Test
+    public void testCachedResponseRevalidated() throws IOException, IntegrationException {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        Response okResponse = Mockito.mock(Response.class);
+        Mockito.when(okResponse.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(okResponse.getContentString()).thenReturn(json);
+        Mockito.when(okResponse.getHeaderValue(HttpHeaders.ETAG)).thenReturn("\"version-1\"");
+
+        Response notModifiedResponse = Mockito.mock(Response.class);
+        Mockito.when(notModifiedResponse.getStatusCode()).thenReturn(HttpStatus.SC_NOT_MODIFIED);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(Request.class))).thenReturn(okResponse, notModifiedResponse);
+
+        BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(BlackDuckServicesFactory.createDefaultGson(), BlackDuckServicesFactory.createDefaultObjectMapper(), new BufferedIntLogger());
+        // a time to live of zero means every cached response must be revalidated
+        InMemoryBlackDuckResponseCache cache = new InMemoryBlackDuckResponseCache(10, 0);
+        BlackDuckResponseTransformer blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer, cache, Collections.singleton(ProjectView.class));
+
+        Request request = new BlackDuckRequestFactory().createCommonGetRequest(new HttpUrl("https://blackduckserver.com/api/projects/1"));
+        ProjectView firstProjectView = blackDuckResponseTransformer.getResponse(request, ProjectView.class);
+        ProjectView secondProjectView = blackDuckResponseTransformer.getResponse(request, ProjectView.class);
+
+        assertEquals(firstProjectView.getName(), secondProjectView.getName());
+
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(requestCaptor.capture());
+        assertFalse(requestCaptor.getAllValues().get(0).createBuilder().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"version-1\"", requestCaptor.getAllValues().get(1).createBuilder().getHeaders().get(HttpHeaders.IF_NONE_MATCH));
+
+        assertEquals(1, cache.getStatistics().getMissCount());
+        assertEquals(1, cache.getStatistics().getNotModifiedCount());
+    }
+
+    @Test
+    public void testOnlyCacheableResponsesAreCached() throws IOException, IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = createHttpClientReturningProjectView();
+        InMemoryBlackDuckResponseCache cache = new InMemoryBlackDuckResponseCache();
+        BlackDuckResponseTransformer blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, createJsonTransformer(), cache);
+
+        // ProjectView is not one of the default cacheable classes, so every request goes to Black Duck
+        Request request = new BlackDuckRequestFactory().createCommonGetRequest(new HttpUrl("https://blackduckserver.com/api/projects/1"));
+        blackDuckResponseTransformer.getResponse(request, ProjectView.class);
+        blackDuckResponseTransformer.getResponse(request, ProjectView.class);
+
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any(Request.class));
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void testChangesThroughTheApiClientInvalidateCachedResponses() throws IOException, IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = createHttpClientReturningProjectView();
+        BlackDuckJsonTransformer blackDuckJsonTransformer = createJsonTransformer();
+        InMemoryBlackDuckResponseCache cache = new InMemoryBlackDuckResponseCache();
+        BlackDuckResponseTransformer blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer, cache, Collections.singleton(ProjectView.class));
+        BlackDuckRequestFactory blackDuckRequestFactory = new BlackDuckRequestFactory();
+        BlackDuckApiClient blackDuckApiClient = new BlackDuckApiClient(blackDuckHttpClient, BlackDuckServicesFactory.createDefaultGson(), blackDuckJsonTransformer, blackDuckResponseTransformer, null, blackDuckRequestFactory);
+
+        HttpUrl projectUrl = new HttpUrl("https://blackduckserver.com/api/projects/1");
+        HttpUrl versionUrl = new HttpUrl("https://blackduckserver.com/api/projects/1/versions/2");
+        HttpUrl otherProjectUrl = new HttpUrl("https://blackduckserver.com/api/projects/10");
+        blackDuckResponseTransformer.getResponse(blackDuckRequestFactory.createCommonGetRequest(projectUrl), ProjectView.class);
+        blackDuckResponseTransformer.getResponse(blackDuckRequestFactory.createCommonGetRequest(versionUrl), ProjectView.class);
+        blackDuckResponseTransformer.getResponse(blackDuckRequestFactory.createCommonGetRequest(otherProjectUrl), ProjectView.class);
+        assertEquals(3, cache.getStatistics().getSize());
+
+        blackDuckApiClient.delete(projectUrl);
+
+        // the project and everything beneath it is gone, but a project whose url merely starts the same way is kept
+        assertEquals(1, cache.getStatistics().getSize());
+        blackDuckResponseTransformer.getResponse(blackDuckRequestFactory.createCommonGetRequest(otherProjectUrl), ProjectView.class);
+        Mockito.verify(blackDuckHttpClient, Mockito.times(4)).execute(Mockito.any(Request.class));
+    }
+
+    @Test
+    public void testConcurrentIdenticalRequestsShareOneRequest() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+        Response okResponse = Mockito.mock(Response.class);
+        Mockito.when(okResponse.getContentString()).thenReturn(json);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            releaseResponse.await();
+            return okResponse;
+        });
+
+        BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(BlackDuckServicesFactory.createDefaultGson(), BlackDuckServicesFactory.createDefaultObjectMapper(), new BufferedIntLogger());
+        BlackDuckResponseTransformer blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        Request request = new BlackDuckRequestFactory().createCommonGetRequest(new HttpUrl("https://blackduckserver.com/api/projects/1"));
+
+        List<ProjectView> projectViews = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    projectViews.add(blackDuckResponseTransformer.getResponse(request, ProjectView.class));
+                } catch (IntegrationException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // every thread is either making the one request or waiting on it
+        for (Thread thread : threads) {
+            while (Thread.State.WAITING != thread.getState()) {
+                Thread.sleep(10);
+            }
+        }
+        releaseResponse.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(5, projectViews.size());
+        assertNotSame(projectViews.get(0), projectViews.get(1));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(Request.class));
+    }
+
+    private BlackDuckHttpClient createHttpClientReturningProjectView() throws IOException, IntegrationException {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            Response okResponse = Mockito.mock(Response.class);
+            Mockito.when(okResponse.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+            Mockito.when(okResponse.getContentString()).thenReturn(json);
+            return okResponse;
+        });
+        return blackDuckHttpClient;
+    }
+
+    private BlackDuckJsonTransformer createJsonTransformer() {
+        return new BlackDuckJsonTransformer(BlackDuckServicesFactory.createDefaultGson(), BlackDuckServicesFactory.createDefaultObjectMapper(), new BufferedIntLogger());
+    }
+
+}
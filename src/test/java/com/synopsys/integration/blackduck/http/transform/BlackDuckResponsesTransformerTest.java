@@ -2,12 +2,18 @@ package com.synopsys.integration.blackduck.http.transform;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
@@ -114,6 +120,67 @@ public class BlackDuckResponsesTransformerTest {
         assertEquals(69, allPagesResponse.getItems().size());
     }
 
+    @Test
+    public void testGettingAllMultiplePagesConcurrently() throws IntegrationException, IOException {
+        MockedClient sequentialClient = new MockedClient().invoke();
+        BlackDuckPageResponse<ProjectView> sequentialResponse = sequentialClient.getBlackDuckResponsesTransformer().getAllResponses(sequentialClient.getPagedRequest(), ProjectView.class);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            MockedClient mockedClient = new MockedClient().invoke(executorService, 2);
+            PagedRequest pagedRequest = mockedClient.getPagedRequest();
+            BlackDuckResponsesTransformer blackDuckResponsesTransformer = mockedClient.getBlackDuckResponsesTransformer();
+
+            BlackDuckPageResponse<ProjectView> allPagesResponse = blackDuckResponsesTransformer.getAllResponses(pagedRequest, ProjectView.class);
+            assertEquals(69, allPagesResponse.getTotalCount());
+            assertEquals(69, allPagesResponse.getItems().size());
+            for (int i = 0; i < allPagesResponse.getItems().size(); i++) {
+                assertEquals(sequentialResponse.getItems().get(i).getHref(), allPagesResponse.getItems().get(i).getHref(), "Items should be in offset order.");
+            }
+
+            BlackDuckPageResponse<ProjectView> someResponse = blackDuckResponsesTransformer.getSomeResponses(pagedRequest, ProjectView.class, 30);
+            assertEquals(69, someResponse.getTotalCount());
+            assertEquals(30, someResponse.getItems().size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIteratingRequestsPagesLazily() throws IntegrationException, IOException {
+        MockedClient mockedClient = new MockedClient().invoke();
+        PagedRequest pagedRequest = mockedClient.getPagedRequest();
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = mockedClient.getBlackDuckResponsesTransformer();
+        BlackDuckHttpClient blackDuckHttpClient = mockedClient.getBlackDuckHttpClient();
+
+        Iterator<ProjectView> iterator = blackDuckResponsesTransformer.getResponsesIterator(pagedRequest, ProjectView.class);
+        Mockito.verify(blackDuckHttpClient, Mockito.never()).execute(Mockito.any(Request.class));
+
+        for (int i = 0; i < 20; i++) {
+            iterator.next();
+        }
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any(Request.class));
+
+        iterator.next();
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any(Request.class));
+    }
+
+    @Test
+    public void testStreamingAllMultiplePages() throws IntegrationException, IOException {
+        MockedClient mockedClient = new MockedClient().invoke();
+        PagedRequest pagedRequest = mockedClient.getPagedRequest();
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = mockedClient.getBlackDuckResponsesTransformer();
+
+        BlackDuckPageResponse<ProjectView> allPagesResponse = blackDuckResponsesTransformer.getAllResponses(pagedRequest, ProjectView.class);
+        List<ProjectView> streamedResponses = blackDuckResponsesTransformer.getResponsesStream(pagedRequest, ProjectView.class).collect(Collectors.toList());
+
+        assertEquals(69, streamedResponses.size());
+        for (int i = 0; i < streamedResponses.size(); i++) {
+            assertEquals(allPagesResponse.getItems().get(i).getHref(), streamedResponses.get(i).getHref());
+        }
+        Mockito.verify(mockedClient.getBlackDuckHttpClient(), Mockito.times(8)).execute(Mockito.any(Request.class));
+    }
+
     @Test
     public void testGettingOnePageOnePageTotal() throws IOException, IntegrationException {
         Map<String, String> offsetsToResults = new HashMap<>();
@@ -154,7 +221,7 @@ public class BlackDuckResponsesTransformerTest {
 
         for (Map.Entry<String, String> entry : offsetsToResults.entrySet()) {
             Response response = Mockito.mock(Response.class);
-            Mockito.when(response.getContentString()).thenReturn(getText(entry.getValue()));
+            mockResponseContent(response, getText(entry.getValue()));
 
             ArgumentMatcher<Request> argRequest = createRequestMatcher(new HttpUrl("https://blackduckserver.com/api/projects"), Integer.parseInt(entry.getKey()), limit);
             Mockito.when(blackDuckHttpClient.execute(Mockito.argThat(argRequest))).thenReturn(response);
@@ -165,10 +232,17 @@ public class BlackDuckResponsesTransformerTest {
             return !knownsOffsets.contains(requestOffset);
         };
         Response response = Mockito.mock(Response.class);
-        Mockito.when(response.getContentString()).thenReturn(getText("projectViews_empty.json"));
+        mockResponseContent(response, getText("projectViews_empty.json"));
         Mockito.when(blackDuckHttpClient.execute(Mockito.argThat(unknownOffsetRequest))).thenReturn(response);
     }
 
+    private void mockResponseContent(Response response, String content) throws IntegrationException {
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        // a response can be returned many times, so each read needs its own stream
+        Mockito.when(response.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(contentBytes));
+    }
+
     private ArgumentMatcher<Request> createRequestMatcher(HttpUrl url, int offset, int limit) {
         return new ArgumentMatcher<Request>() {
             @Override
@@ -187,6 +261,7 @@ public class BlackDuckResponsesTransformerTest {
     }
 
     private class MockedClient {
+        private BlackDuckHttpClient blackDuckHttpClient;
         private PagedRequest pagedRequest;
         private BlackDuckResponsesTransformer blackDuckResponsesTransformer;
 
@@ -198,14 +273,22 @@ public class BlackDuckResponsesTransformerTest {
             return blackDuckResponsesTransformer;
         }
 
+        public BlackDuckHttpClient getBlackDuckHttpClient() {
+            return blackDuckHttpClient;
+        }
+
         public MockedClient invoke() throws IOException, IntegrationException {
+            return invoke(null, BlackDuckResponsesTransformer.DEFAULT_MAX_CONCURRENT_PAGE_REQUESTS);
+        }
+
+        public MockedClient invoke(ExecutorService executorService, int maxConcurrentPageRequests) throws IOException, IntegrationException {
             Map<String, String> offsetsToResults = new HashMap<>();
             offsetsToResults.put("0", "projectViews_page_1_of_4.json");
             offsetsToResults.put("20", "projectViews_page_2_of_4.json");
             offsetsToResults.put("40", "projectViews_page_3_of_4.json");
             offsetsToResults.put("60", "projectViews_page_4_of_4.json");
 
-            BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+            blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
             mockClientBehavior(blackDuckHttpClient, offsetsToResults, 20);
 
             BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(BlackDuckServicesFactory.createDefaultGson(), BlackDuckServicesFactory.createDefaultObjectMapper(),
@@ -217,7 +300,7 @@ public class BlackDuckResponsesTransformerTest {
                 .addQueryParameter(BlackDuckRequestFactory.LIMIT_PARAMETER, "20")
                 .addQueryParameter(BlackDuckRequestFactory.OFFSET_PARAMETER, "0");
             pagedRequest = new PagedRequest(requestBuilder);
-            blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+            blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, executorService, maxConcurrentPageRequests);
             return this;
         }
     }
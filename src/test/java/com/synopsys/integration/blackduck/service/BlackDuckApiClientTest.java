@@ -12,6 +12,7 @@ import java.util.Optional;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -28,6 +29,7 @@ import com.synopsys.integration.blackduck.http.transform.BlackDuckResponsesTrans
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.BufferedIntLogger;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpMethod;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
 
@@ -83,4 +85,34 @@ public class BlackDuckApiClientTest {
         assertEquals(PolicyStatusType.IN_VIOLATION, ProjectVersionPolicyStatusView.get().getOverallStatus());
     }
 
+    @Test
+    public void testPuttingAViewWithoutJsonRetrievesItFirst() throws IOException, IntegrationException {
+        IntLogger logger = new BufferedIntLogger();
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Gson gson = BlackDuckServicesFactory.createDefaultGson();
+        ObjectMapper objectMapper = BlackDuckServicesFactory.createDefaultObjectMapper();
+        BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, logger);
+        BlackDuckResponseTransformer blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        BlackDuckRequestFactory blackDuckRequestFactory = BlackDuckServicesFactory.createDefaultRequestFactory();
+        InputStream inputStream = getClass().getResourceAsStream("/json/ProjectVersionView_complete.json");
+
+        String completeJson = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        ProjectVersionView projectVersionView = gson.fromJson(completeJson, ProjectVersionView.class);
+        projectVersionView.setGson(gson);
+
+        Response mockedResponse = Mockito.mock(Response.class);
+        Mockito.when(mockedResponse.getContentString()).thenReturn(completeJson);
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        Mockito.when(blackDuckHttpClient.execute(requestCaptor.capture())).thenReturn(mockedResponse);
+
+        BlackDuckApiClient blackDuckApiClient = new BlackDuckApiClient(blackDuckHttpClient, gson, blackDuckJsonTransformer, blackDuckResponseTransformer, blackDuckResponsesTransformer, blackDuckRequestFactory);
+        blackDuckApiClient.put(projectVersionView);
+
+        assertEquals(2, requestCaptor.getAllValues().size());
+        assertEquals(HttpMethod.GET, requestCaptor.getAllValues().get(0).getMethod());
+        assertEquals(HttpMethod.PUT, requestCaptor.getAllValues().get(1).getMethod());
+        assertEquals(completeJson, projectVersionView.getJson());
+    }
+
 }
@@ -0,0 +1,129 @@
+package com.synopsys.integration.blackduck.service.dataservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.api.generated.view.ComponentPolicyRulesView;
+import com.synopsys.integration.blackduck.api.generated.view.PolicyStatusView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionComponentView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.http.transform.BlackDuckJsonTransformer;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+import com.synopsys.integration.blackduck.service.model.BomComponent;
+import com.synopsys.integration.blackduck.service.model.ReportData;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.util.IntegrationEscapeUtil;
+
+public class ReportServiceTest {
+    private final Gson gson = BlackDuckServicesFactory.createDefaultGson();
+    private final BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, BlackDuckServicesFactory.createDefaultObjectMapper(), new BufferedIntLogger());
+
+    private ExecutorService executorService;
+    private BlackDuckApiClient blackDuckApiClient;
+    private ReportService reportService;
+    private ProjectView projectView;
+    private ProjectVersionView projectVersionView;
+
+    @BeforeEach
+    public void setUp() throws IOException, IntegrationException {
+        executorService = Executors.newFixedThreadPool(4);
+        blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        HttpUrl blackDuckBaseUrl = new HttpUrl("https://blackduckserver.com");
+        reportService = new ReportService(gson, blackDuckBaseUrl, blackDuckApiClient, BlackDuckServicesFactory.createDefaultRequestFactory(), new BufferedIntLogger(), null, new IntegrationEscapeUtil());
+        projectView = blackDuckJsonTransformer.getResponseAs(readResource("/projectViewResponse.json"), ProjectView.class);
+        projectVersionView = blackDuckJsonTransformer.getResponseAs(readResource("/json/ProjectVersionView_complete.json"), ProjectVersionView.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentComponentsKeepBomOrder() throws IntegrationException {
+        List<ProjectVersionComponentView> bomEntries = createBomEntries(20, "IN_VIOLATION");
+        Mockito.when(blackDuckApiClient.getAllResponses(Mockito.eq(projectVersionView), Mockito.eq(ProjectVersionView.COMPONENTS_LINK_RESPONSE))).thenReturn(bomEntries);
+        ComponentPolicyRulesView policyRule = blackDuckJsonTransformer.getResponseAs("{\"name\":\"rule\",\"description\":\"a violated rule\"}", ComponentPolicyRulesView.class);
+        Mockito.when(blackDuckApiClient.getAllResponses(Mockito.any(ProjectVersionComponentView.class), Mockito.eq(ProjectVersionComponentView.POLICY_RULES_LINK_RESPONSE))).thenAnswer(invocation -> {
+            // finish out of order
+            Thread.sleep(ThreadLocalRandom.current().nextInt(10));
+            return Collections.singletonList(policyRule);
+        });
+
+        ReportData reportData = reportService.getRiskReportData(projectView, projectVersionView, executorService, 4);
+
+        List<BomComponent> components = reportData.getComponents();
+        assertEquals(20, components.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("component " + i, components.get(i).getComponentName());
+            assertEquals("IN_VIOLATION", components.get(i).getPolicyStatus());
+            assertEquals("rule", components.get(i).getPolicyRulesViolated().get(0).getName());
+        }
+    }
+
+    @Test
+    public void testPolicyStatusIsNotRequestedAgainAfterAFailure() throws IntegrationException {
+        List<ProjectVersionComponentView> bomEntries = createBomEntries(5, null);
+        Mockito.when(blackDuckApiClient.getAllResponses(Mockito.eq(projectVersionView), Mockito.eq(ProjectVersionView.COMPONENTS_LINK_RESPONSE))).thenReturn(bomEntries);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(PolicyStatusView.class))).thenThrow(new IntegrationException("the policy module is not enabled"));
+
+        // one request at a time, so the first failure is seen by every later component
+        ReportData reportData = reportService.getRiskReportData(projectView, projectVersionView, executorService, 1);
+
+        assertEquals(5, reportData.getComponents().size());
+        reportData.getComponents().forEach(component -> assertNull(component.getPolicyStatus()));
+        Mockito.verify(blackDuckApiClient, Mockito.times(1)).getResponse(Mockito.any(HttpUrl.class), Mockito.eq(PolicyStatusView.class));
+    }
+
+    @Test
+    public void testComponentFailureIsThrown() throws IntegrationException {
+        List<ProjectVersionComponentView> bomEntries = createBomEntries(10, "IN_VIOLATION");
+        Mockito.when(blackDuckApiClient.getAllResponses(Mockito.eq(projectVersionView), Mockito.eq(ProjectVersionView.COMPONENTS_LINK_RESPONSE))).thenReturn(bomEntries);
+        Mockito.when(blackDuckApiClient.getAllResponses(Mockito.any(ProjectVersionComponentView.class), Mockito.eq(ProjectVersionComponentView.POLICY_RULES_LINK_RESPONSE)))
+            .thenThrow(new IntegrationException("could not get the policy rules"));
+
+        IntegrationException e = assertThrows(IntegrationException.class, () -> reportService.getRiskReportData(projectView, projectVersionView, executorService, 4));
+        assertEquals("could not get the policy rules", e.getMessage());
+    }
+
+    private List<ProjectVersionComponentView> createBomEntries(int count, String approvalStatus) throws IntegrationException {
+        List<ProjectVersionComponentView> bomEntries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String componentUrl = "https://blackduckserver.com/api/components/" + i;
+            String approvalStatusJson = null == approvalStatus ? "" : String.format(",\"approvalStatus\":\"%s\"", approvalStatus);
+            String json = String.format("{\"componentName\":\"component %d\",\"componentVersionName\":\"1.0\",\"component\":\"%s\",\"componentVersion\":\"%s/versions/1\",\"licenses\":[{\"licenseDisplay\":\"MIT\"}]%s}",
+                i, componentUrl, componentUrl, approvalStatusJson);
+            bomEntries.add(blackDuckJsonTransformer.getResponseAs(json, ProjectVersionComponentView.class));
+        }
+        return bomEntries;
+    }
+
+    private String readResource(String resourceName) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream(resourceName)) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+}
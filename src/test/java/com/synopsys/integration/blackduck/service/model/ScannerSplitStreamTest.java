@@ -0,0 +1,72 @@
+package com.synopsys.integration.blackduck.service.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.log.IntLogger;
+
+public class ScannerSplitStreamTest {
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    @Test
+    public void testMultiByteCharactersSplitAcrossWrites() throws IOException {
+        IntLogger logger = Mockito.mock(IntLogger.class);
+        ByteArrayOutputStream outputFileStream = new ByteArrayOutputStream();
+        ScannerSplitStream scannerSplitStream = new ScannerSplitStream(logger, outputFileStream);
+
+        byte[] bytes = "INFO: scanning Grüße/日本\nWARN: done\r\n".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 3) {
+            scannerSplitStream.write(bytes, i, Math.min(3, bytes.length - i));
+        }
+        scannerSplitStream.flush();
+
+        assertArrayEquals(bytes, outputFileStream.toByteArray());
+        Mockito.verify(logger).info("INFO: scanning Grüße/日本");
+        Mockito.verify(logger).warn("WARN: done");
+        assertEquals("INFO: scanning Grüße/日本" + LINE_SEPARATOR + "WARN: done" + LINE_SEPARATOR, scannerSplitStream.getOutput());
+    }
+
+    @Test
+    public void testContinuationAndDebugLines() throws IOException {
+        IntLogger logger = Mockito.mock(IntLogger.class);
+        ScannerSplitStream scannerSplitStream = new ScannerSplitStream(logger, new ByteArrayOutputStream());
+
+        for (byte b : "ERROR: failed\r\n  at frame\nDEBUG: hidden\nINFO: Finished in 3s\n".getBytes(StandardCharsets.UTF_8)) {
+            scannerSplitStream.write(b);
+        }
+        scannerSplitStream.flush();
+
+        Mockito.verify(logger).error("ERROR: failed" + LINE_SEPARATOR + "  at frame");
+        Mockito.verify(logger).info("INFO: Finished in 3s");
+        Mockito.verify(logger, Mockito.never()).debug(Mockito.anyString());
+    }
+
+    @Test
+    public void testOnlyTheLastLinesAreRetained() throws IOException {
+        ScannerSplitStream scannerSplitStream = new ScannerSplitStream(Mockito.mock(IntLogger.class), new ByteArrayOutputStream(), 2);
+
+        scannerSplitStream.write("INFO: one\nINFO: two\nINFO: three\nINFO: four\n".getBytes(StandardCharsets.UTF_8));
+        scannerSplitStream.flush();
+
+        assertEquals("INFO: three" + LINE_SEPARATOR + "INFO: four" + LINE_SEPARATOR, scannerSplitStream.getOutput());
+    }
+
+    @Test
+    public void testNoOutput() throws IOException {
+        ScannerSplitStream scannerSplitStream = new ScannerSplitStream(Mockito.mock(IntLogger.class), new ByteArrayOutputStream());
+
+        scannerSplitStream.write("DEBUG: quiet\n".getBytes(StandardCharsets.UTF_8));
+        scannerSplitStream.flush();
+
+        assertFalse(scannerSplitStream.hasOutput());
+    }
+
+}